@@ -0,0 +1,114 @@
+package com.leandroruhl.betkickapi.benchmark;
+
+import com.leandroruhl.betkickapi.dto.external_api.MatchesResponse;
+import com.leandroruhl.betkickapi.dto.internal_api.BetRequest;
+import com.leandroruhl.betkickapi.mapper.BetMapper;
+import com.leandroruhl.betkickapi.model.Match;
+import com.leandroruhl.betkickapi.model.User;
+import com.leandroruhl.betkickapi.model.embbeded.MatchOdds;
+import com.leandroruhl.betkickapi.model.enums.Status;
+import com.leandroruhl.betkickapi.model.enums.Winner;
+import com.leandroruhl.betkickapi.repository.BalanceLedgerEntryRepository;
+import com.leandroruhl.betkickapi.repository.BetRepository;
+import com.leandroruhl.betkickapi.repository.MatchRepository;
+import com.leandroruhl.betkickapi.repository.UserBetStatsRepository;
+import com.leandroruhl.betkickapi.repository.UserRepository;
+import com.leandroruhl.betkickapi.service.leaderboard.LeaderboardService;
+import com.leandroruhl.betkickapi.service.bet.BetPlacementBatcher;
+import com.leandroruhl.betkickapi.service.bet.BetPlacementWriter;
+import com.leandroruhl.betkickapi.service.bet.BetServiceImpl;
+import com.leandroruhl.betkickapi.service.match.OpenMatchSnapshotIndex;
+import com.leandroruhl.betkickapi.service.user.UserService;
+import com.leandroruhl.betkickapi.service.utility.CacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the request-to-entity mapping done by {@link BetServiceImpl#saveBets} for a bet slip of
+ * {@code slipSize} bets, priced from the {@link OpenMatchSnapshotIndex}, along with the hand-off to the {@link BetPlacementBatcher} and back.
+ * Persistence is stubbed out, so only the in-memory work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BetPlacementBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int slipSize;
+
+    private BetServiceImpl betService;
+    private BetPlacementBatcher betPlacementBatcher;
+    private List<BetRequest> betRequests;
+    private List<Match> matches;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        // Only the open matches can be bet on
+        matches = Fixtures.read("matches.json", MatchesResponse.class).getMatches()
+                .stream()
+                .filter(match -> match.getStatus() != Status.FINISHED && match.getStatus() != Status.AWARDED)
+                .toList();
+        matches.forEach(match -> {
+            match.setOdds(new MatchOdds().generateRandomOdds());
+            match.setOddsVersion(1);
+        });
+        Map<Integer, Match> matchesById = matches.stream()
+                .collect(Collectors.toMap(Match::getId, Function.identity()));
+
+        MatchRepository matchRepository = Fixtures.stub(MatchRepository.class, Map.of(
+                "getReferenceById", args -> matchesById.get((Integer) args[0])));
+        OpenMatchSnapshotIndex openMatchSnapshotIndex = new OpenMatchSnapshotIndex(matchRepository);
+        openMatchSnapshotIndex.publish(matches);
+        BetRepository betRepository = Fixtures.stub(BetRepository.class, Map.of(
+                "saveAll", args -> args[0]));
+        UserRepository userRepository = Fixtures.stub(UserRepository.class, Map.of(
+                "debit", args -> 1,
+                "findAllById", args -> List.of(user)));
+        BalanceLedgerEntryRepository ledgerRepository = Fixtures.stub(BalanceLedgerEntryRepository.class, Map.of(
+                "saveAll", args -> args[0]));
+        UserService userService = Fixtures.stub(UserService.class, Map.of());
+        UserBetStatsRepository statsRepository = Fixtures.stub(UserBetStatsRepository.class, Map.of());
+        LeaderboardService leaderboardService = Fixtures.stub(LeaderboardService.class, Map.of());
+        betPlacementBatcher = new BetPlacementBatcher(
+                new BetPlacementWriter(betRepository, userRepository, ledgerRepository),
+                new CacheService(new CaffeineCacheManager()), new SimpleMeterRegistry(), 200, 0, 10000, 5000);
+        betService = new BetServiceImpl(betRepository, userRepository, ledgerRepository, userService, new BetMapper(),
+                statsRepository, leaderboardService, betPlacementBatcher, openMatchSnapshotIndex, matchRepository);
+
+        Random random = new Random(7);
+        Winner[] winners = Winner.values();
+        betRequests = new ArrayList<>(slipSize);
+        for (int i = 0; i < slipSize; i++) {
+            BetRequest request = new BetRequest();
+            request.setMatchId(matches.get(random.nextInt(matches.size())).getId());
+            request.setWinner(winners[random.nextInt(winners.length)]);
+            request.setBetAmount(10D + random.nextInt(90));
+            request.setBetOdds(2D);
+            betRequests.add(request);
+        }
+
+        user = new User("First", "Last", "benchmark", "", Double.MAX_VALUE / 2, new ArrayList<>());
+        user.setId(UUID.randomUUID());
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        betPlacementBatcher.shutdown();
+    }
+
+    @Benchmark
+    public Double saveBets() {
+        return betService.saveBets(betRequests, user);
+    }
+}
@@ -0,0 +1,52 @@
+package com.leandroruhl.betkickapi.benchmark;
+
+import com.leandroruhl.betkickapi.dto.external_api.HeadToHeadResponse;
+import com.leandroruhl.betkickapi.dto.external_api.TeamStatsResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how expensive it is to turn the upstream team statistics and head-to-head payloads into the DTOs
+ * consumed by the odds calculation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExternalApiParsingBenchmark {
+
+    private byte[] teamMatchesJson;
+    private byte[] headToHeadJson;
+    private TeamStatsResponse parsedTeamStats;
+
+    @Setup
+    public void setUp() {
+        teamMatchesJson = Fixtures.load("team-matches-home.json");
+        headToHeadJson = Fixtures.load("head2head.json");
+        parsedTeamStats = Fixtures.read("team-matches-home.json", TeamStatsResponse.class);
+    }
+
+    @Benchmark
+    public TeamStatsResponse deserializeTeamStats() throws IOException {
+        return Fixtures.OBJECT_MAPPER.readValue(teamMatchesJson, TeamStatsResponse.class);
+    }
+
+    @Benchmark
+    public TeamStatsResponse unpackNestedMatches() {
+        parsedTeamStats.unpackNestedMatches(Fixtures.HOME_TEAM_ID);
+        return parsedTeamStats;
+    }
+
+    @Benchmark
+    public TeamStatsResponse deserializeAndUnpackTeamStats() throws IOException {
+        TeamStatsResponse stats = Fixtures.OBJECT_MAPPER.readValue(teamMatchesJson, TeamStatsResponse.class);
+        stats.unpackNestedMatches(Fixtures.HOME_TEAM_ID);
+        return stats;
+    }
+
+    @Benchmark
+    public HeadToHeadResponse deserializeHeadToHead() throws IOException {
+        return Fixtures.OBJECT_MAPPER.readValue(headToHeadJson, HeadToHeadResponse.class);
+    }
+}
@@ -0,0 +1,95 @@
+package com.leandroruhl.betkickapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Shared helpers for the benchmarks: loads the synthetic fixtures shaped like football-data.org v4
+ * responses from {@code src/jmh/resources/fixtures} and builds lightweight stubs for the repositories and services
+ * the benchmarked code depends on.
+ */
+final class Fixtures {
+
+    /**
+     * Team whose matches are listed in {@code team-matches-home.json}, home team of the head-to-head fixture.
+     */
+    static final Integer HOME_TEAM_ID = 53;
+
+    /**
+     * Team whose matches are listed in {@code team-matches-away.json}, away team of the head-to-head fixture.
+     */
+    static final Integer AWAY_TEAM_ID = 56;
+
+    /**
+     * Configured the same way as the {@link ObjectMapper} used by the application's {@code RestTemplate}.
+     */
+    static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    private Fixtures() {
+    }
+
+    /**
+     * Reads a synthetic API response fixture from the classpath.
+     *
+     * @param name The file name inside the {@code fixtures} directory.
+     * @return The raw bytes of the response body.
+     */
+    static byte[] load(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null)
+                throw new IllegalArgumentException("Fixture not found: " + name);
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deserializes a synthetic API response fixture exactly like the application does.
+     *
+     * @param name The file name inside the {@code fixtures} directory.
+     * @param type The DTO the response is mapped to.
+     * @return The deserialized response.
+     */
+    static <T> T read(String name, Class<T> type) {
+        try {
+            return OBJECT_MAPPER.readValue(load(name), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Creates a stub implementation of an interface. Methods listed in {@code answers} are answered by the given
+     * function (which receives the call arguments), any other call fails so that benchmarks never silently measure
+     * an unexpected code path.
+     *
+     * @param type    The interface to stub.
+     * @param answers Method name to answer mapping.
+     * @return The stub.
+     */
+    static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null)
+                return answer.apply(args);
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
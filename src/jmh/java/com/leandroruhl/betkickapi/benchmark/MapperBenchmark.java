@@ -0,0 +1,109 @@
+package com.leandroruhl.betkickapi.benchmark;
+
+import com.leandroruhl.betkickapi.dto.external_api.MatchesResponse;
+import com.leandroruhl.betkickapi.dto.internal_api.BetHistoryResponse;
+import com.leandroruhl.betkickapi.dto.internal_api.CompetitionStandingsResponse;
+import com.leandroruhl.betkickapi.mapper.BetMapper;
+import com.leandroruhl.betkickapi.mapper.StandingsMapper;
+import com.leandroruhl.betkickapi.model.Bet;
+import com.leandroruhl.betkickapi.model.CompetitionStandings;
+import com.leandroruhl.betkickapi.model.Match;
+import com.leandroruhl.betkickapi.model.Standing;
+import com.leandroruhl.betkickapi.model.embbeded.MatchOdds;
+import com.leandroruhl.betkickapi.model.enums.Winner;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflection-based {@link ModelMapper} the application used to map entities to DTOs with the
+ * hand-written mappers that replaced it, on a bet history of {@code historySize} bets (as returned by
+ * {@code GET /api/user/bets}) and on a 20-team standings table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    @Param({"10", "200"})
+    private int historySize;
+
+    private ModelMapper modelMapper;
+    private BetMapper betMapper;
+    private StandingsMapper standingsMapper;
+    private List<Bet> bets;
+    private CompetitionStandings competitionStandings;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        betMapper = new BetMapper();
+        standingsMapper = new StandingsMapper();
+
+        List<Match> matches = Fixtures.read("matches.json", MatchesResponse.class).getMatches();
+        matches.forEach(match -> match.setOdds(new MatchOdds().generateRandomOdds()));
+
+        Random random = new Random(7);
+        Winner[] winners = Winner.values();
+        bets = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            Bet bet = new Bet();
+            bet.setId((long) i);
+            bet.setPlacedAt(LocalDateTime.now());
+            bet.setOdds(2D);
+            bet.setAmount(10D + random.nextInt(90));
+            bet.setIsWon(random.nextBoolean());
+            bet.setWinner(winners[random.nextInt(winners.length)]);
+            bet.setMatch(matches.get(random.nextInt(matches.size())));
+            bets.add(bet);
+        }
+
+        competitionStandings = new CompetitionStandings();
+        competitionStandings.setCompetition(matches.get(0).getCompetition());
+        List<Standing> standings = new ArrayList<>(20);
+        for (int i = 0; i < 20; i++) {
+            Standing standing = new Standing();
+            standing.setPosition(i + 1);
+            standing.setTeam(matches.get(i % matches.size()).getHomeTeam());
+            standing.setCompetition(competitionStandings);
+            standing.setWon(random.nextInt(20));
+            standing.setDraw(random.nextInt(10));
+            standing.setLost(random.nextInt(10));
+            standing.setPoints(standing.getWon() * 3 + standing.getDraw());
+            standing.setGoalsFor(random.nextInt(60));
+            standing.setGoalsAgainst(random.nextInt(60));
+            standing.setGoalDifference(standing.getGoalsFor() - standing.getGoalsAgainst());
+            standings.add(standing);
+        }
+        competitionStandings.setStandings(standings);
+    }
+
+    @Benchmark
+    public List<BetHistoryResponse> betHistoryModelMapper() {
+        return bets.stream()
+                .map(bet -> modelMapper.map(bet, BetHistoryResponse.class))
+                .toList();
+    }
+
+    @Benchmark
+    public List<BetHistoryResponse> betHistoryHandWritten() {
+        return bets.stream()
+                .map(betMapper::toHistoryResponse)
+                .toList();
+    }
+
+    @Benchmark
+    public CompetitionStandingsResponse standingsModelMapper() {
+        return modelMapper.map(competitionStandings, CompetitionStandingsResponse.class);
+    }
+
+    @Benchmark
+    public CompetitionStandingsResponse standingsHandWritten() {
+        return standingsMapper.toResponse(competitionStandings);
+    }
+}
@@ -0,0 +1,69 @@
+package com.leandroruhl.betkickapi.benchmark;
+
+import com.leandroruhl.betkickapi.dto.external_api.MatchesResponse;
+import com.leandroruhl.betkickapi.model.Match;
+import com.leandroruhl.betkickapi.repository.MatchRepository;
+import com.leandroruhl.betkickapi.service.match.MatchServiceImpl;
+import com.leandroruhl.betkickapi.service.match.OpenMatchSnapshotIndex;
+import com.leandroruhl.betkickapi.service.settlement.SettlementService;
+import com.leandroruhl.betkickapi.service.utility.CacheService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the new/existing split and the update mapping performed by {@link MatchServiceImpl#saveOrUpdateMatches}
+ * on a synthetic 10-day window of matches (the unit the midnight ingest works with), with {@code existingPercent}
+ * of the matches already stored. Persistence is stubbed out, so only the in-memory work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MatchIngestBenchmark {
+
+    @Param({"0", "50", "100"})
+    private int existingPercent;
+
+    private MatchServiceImpl matchService;
+    private List<Match> incomingMatches;
+
+    @Setup
+    public void setUp() {
+        incomingMatches = Fixtures.read("matches.json", MatchesResponse.class).getMatches();
+
+        // Matches as they would be returned by the DB, distinct instances from the incoming ones
+        Map<Integer, Match> storedMatches = Fixtures.read("matches.json", MatchesResponse.class).getMatches()
+                .stream()
+                .limit((long) incomingMatches.size() * existingPercent / 100)
+                .collect(Collectors.toMap(Match::getId, Function.identity()));
+        Set<Integer> storedIds = storedMatches.keySet();
+
+        MatchRepository matchRepository = Fixtures.stub(MatchRepository.class, Map.of(
+                "findExistingMatchIds", args -> ids(args[0]).stream().filter(storedIds::contains).collect(Collectors.toList()),
+                "findMatchesByIds", args -> ids(args[0]).stream().map(storedMatches::get).toList(),
+                "saveAll", args -> args[0],
+                "findAllUnfinishedMatches", args -> List.of(),
+                "findByCompetitionId", args -> List.of()));
+        SettlementService settlementService = Fixtures.stub(SettlementService.class, Map.of());
+        CacheService cacheService = new CacheService(new CaffeineCacheManager());
+        matchService = new MatchServiceImpl(matchRepository, cacheService, settlementService,
+                new OpenMatchSnapshotIndex(matchRepository));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Integer> ids(Object argument) {
+        return (List<Integer>) argument;
+    }
+
+    @Benchmark
+    public List<Match> saveOrUpdateMatches() {
+        matchService.saveOrUpdateMatches(incomingMatches);
+        return incomingMatches;
+    }
+}
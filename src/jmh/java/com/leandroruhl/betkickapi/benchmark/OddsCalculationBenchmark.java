@@ -0,0 +1,68 @@
+package com.leandroruhl.betkickapi.benchmark;
+
+import com.leandroruhl.betkickapi.dto.external_api.HeadToHeadResponse;
+import com.leandroruhl.betkickapi.dto.external_api.TeamStatsResponse;
+import com.leandroruhl.betkickapi.model.Competition;
+import com.leandroruhl.betkickapi.model.CompetitionStandings;
+import com.leandroruhl.betkickapi.model.Standing;
+import com.leandroruhl.betkickapi.model.Team;
+import com.leandroruhl.betkickapi.model.embbeded.MatchOdds;
+import com.leandroruhl.betkickapi.service.utility.OddsCalculationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link OddsCalculationService#generateMatchOdds} with the inputs that the odds job builds for a
+ * single match, both when the competition has meaningful standings and when it doesn't.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OddsCalculationBenchmark {
+
+    private OddsCalculationService oddsService;
+    private TeamStatsResponse homeStats;
+    private TeamStatsResponse awayStats;
+    private HeadToHeadResponse headToHead;
+    private List<Standing> standings;
+    private Integer totalTeams;
+
+    @Setup
+    public void setUp() {
+        oddsService = new OddsCalculationService();
+
+        homeStats = Fixtures.read("team-matches-home.json", TeamStatsResponse.class);
+        homeStats.unpackNestedMatches(Fixtures.HOME_TEAM_ID);
+        awayStats = Fixtures.read("team-matches-away.json", TeamStatsResponse.class);
+        awayStats.unpackNestedMatches(Fixtures.AWAY_TEAM_ID);
+
+        // Same unpacking JobScheduler performs on the head-to-head response
+        headToHead = Fixtures.read("head2head.json", HeadToHeadResponse.class);
+        headToHead.getHomeTeamStats().setMatches(headToHead.getMatches());
+        headToHead.getHomeTeamStats().unpackNestedMatches(Fixtures.HOME_TEAM_ID);
+        headToHead.getAwayTeamStats().setMatches(headToHead.getMatches());
+        headToHead.getAwayTeamStats().unpackNestedMatches(Fixtures.AWAY_TEAM_ID);
+
+        Competition competition = new Competition(2021, "Premier League", "Premier", "PL", "");
+        CompetitionStandings table = new CompetitionStandings(1, competition, null, new ArrayList<>());
+        Team homeTeam = new Team(Fixtures.HOME_TEAM_ID, "PL Club 1 FC", "PL Club 1", "PLA", "");
+        Team awayTeam = new Team(Fixtures.AWAY_TEAM_ID, "PL Club 2 FC", "PL Club 2", "PLB", "");
+        standings = List.of(
+                new Standing(1, 3, homeTeam, table, 8, 3, 3, 27, 25, 14, 11),
+                new Standing(2, 11, awayTeam, table, 5, 3, 6, 18, 17, 19, -2));
+        totalTeams = 20;
+    }
+
+    @Benchmark
+    public MatchOdds generateMatchOddsWithStandings() {
+        return oddsService.generateMatchOdds(homeStats, awayStats, headToHead, standings, Fixtures.HOME_TEAM_ID, totalTeams);
+    }
+
+    @Benchmark
+    public MatchOdds generateMatchOddsWithoutStandings() {
+        return oddsService.generateMatchOdds(homeStats, awayStats, headToHead, null, Fixtures.HOME_TEAM_ID, 0);
+    }
+}
@@ -1,31 +1,28 @@
 package com.leandroruhl.betkickapi;
 
-import com.leandroruhl.betkickapi.dto.external_api.HeadToHeadResponse;
+import com.leandroruhl.betkickapi.config.CacheNames;
 import com.leandroruhl.betkickapi.dto.external_api.StandingsResponse;
-import com.leandroruhl.betkickapi.dto.external_api.TeamStatsResponse;
-import com.leandroruhl.betkickapi.model.Competition;
 import com.leandroruhl.betkickapi.model.Match;
-import com.leandroruhl.betkickapi.model.Standing;
-import com.leandroruhl.betkickapi.model.embbeded.MatchOdds;
 import com.leandroruhl.betkickapi.service.competition.CompetitionService;
 import com.leandroruhl.betkickapi.service.match.MatchService;
-import com.leandroruhl.betkickapi.service.standings.StandingsService;
+import com.leandroruhl.betkickapi.service.settlement.SettlementWorker;
+import com.leandroruhl.betkickapi.service.utility.AsyncFootballApiService;
 import com.leandroruhl.betkickapi.service.utility.CacheService;
 import com.leandroruhl.betkickapi.service.utility.FootballApiService;
-import com.leandroruhl.betkickapi.service.utility.OddsCalculationService;
-import jakarta.transaction.Transactional;
+import com.leandroruhl.betkickapi.service.utility.OddsCalculationPipeline;
+import com.leandroruhl.betkickapi.service.utility.ScheduledJobRunner;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Scheduled job responsible for various tasks related to football match data and odds calculation.
@@ -38,141 +35,84 @@ import java.util.List;
  * <br>
  * * Every 62 seconds (conditional) - {@code updateMatches}.
  * <br>
+ * * Every 5 seconds - {@code processSettlements}: Settles the bets of the matches that have finished.
+ * <br>
  * * Every 12 hours - {@code checkMatchesToday}: Determines if {@code updateMatches} is allowed to execute.
  * <br>
  * * Daily at 23:58:00 - {@code startMidnightTasks}: Sets up a flag that stops {@code scheduledOddsCalculation} and {@code updateMatches} from executing.
  * <br>
- * * Daily at 00:00:00 - {@code saveUpcomingMatches}: Fetches and saves upcoming matches for the next ~3 months, updating those that are already stored.
+ * * Daily at 00:00:00 - {@code runMidnightTasks}: Runs, one after the other and as fast as the external API rate limit allows:
+ * <br>
+ * &nbsp;&nbsp;- {@code saveUpcomingMatches}: Fetches and saves upcoming matches for the next ~3 months, updating those that are already stored.
  * <br>
- * * Daily at 00:01:10 - {@code updateFirstHalfStandings}.
+ * &nbsp;&nbsp;- {@code updateStandings}: Fetches and replaces the standings of every competition.
  * <br>
- * * Daily at 00:02:10 - {@code updateSecondHalfStandings}.
+ * &nbsp;&nbsp;- {@code endMidnightTasks}: Resets the flag that stops {@code scheduledOddsCalculation} and {@code updateMatches} from executing.
  * <br>
- * * Daily at 00:03:50 - {@code endMidnightTasks}: Resets the flag that stops {@code scheduledOddsCalculation} and {@code updateMatches} from executing.
+ * <br>
+ * Jobs run on the pooled scheduler set up by {@link com.leandroruhl.betkickapi.config.SchedulingConfiguration} and
+ * through the {@link ScheduledJobRunner}, so an execution is skipped if the previous one of the same job is still
+ * running, and their duration and lag are recorded as metrics.
  */
 
 @Component
 @Slf4j
 public class JobScheduler {
     private FootballApiService footballApiService;
+    private AsyncFootballApiService asyncFootballApiService;
     private MatchService matchService;
-    private OddsCalculationService oddsService;
+    private OddsCalculationPipeline oddsCalculationPipeline;
     private CompetitionService competitionService;
-    private StandingsService standingsService;
     private CacheService cacheService;
-    private Boolean matchesToday;
+    private SettlementWorker settlementWorker;
+    private ScheduledJobRunner jobRunner;
+    private volatile Boolean matchesToday;
     @Setter
-    private Boolean shouldCalculateMatchOdds;
+    private volatile Boolean shouldCalculateMatchOdds;
     @Setter
-    private Boolean secondaryTasksCanExecute;
-    private List<StandingsResponse> standingsList;
+    private volatile Boolean secondaryTasksCanExecute;
+
+    private static final long ODDS_CALCULATION_DELAY = 65000;
+    private static final long UPDATE_MATCHES_DELAY = 62000;
+    private static final long SETTLEMENT_DELAY = 5000;
 
-    public JobScheduler(FootballApiService footballApiService, CompetitionService competitionService, CacheService cacheService,
-                        MatchService matchService, OddsCalculationService oddsService, StandingsService standingsService) {
+    public JobScheduler(FootballApiService footballApiService, AsyncFootballApiService asyncFootballApiService,
+                        CompetitionService competitionService, CacheService cacheService,
+                        MatchService matchService, OddsCalculationPipeline oddsCalculationPipeline,
+                        SettlementWorker settlementWorker, ScheduledJobRunner jobRunner) {
         this.footballApiService = footballApiService;
+        this.asyncFootballApiService = asyncFootballApiService;
         this.competitionService = competitionService;
         this.matchService = matchService;
         this.cacheService = cacheService;
-        this.oddsService = oddsService;
-        this.standingsService = standingsService;
+        this.oddsCalculationPipeline = oddsCalculationPipeline;
+        this.settlementWorker = settlementWorker;
+        this.jobRunner = jobRunner;
         this.matchesToday = false;
         this.shouldCalculateMatchOdds = false;
         this.secondaryTasksCanExecute = false;
-        this.standingsList = new ArrayList<>();
     }
 
     /**
      * Scheduled task to calculate real match odds for those matches that have random (placeholder) odds.
+     * Each run prices as many matches as the external API quota allows, see {@link OddsCalculationPipeline}.
+     * <br>
+     * <br>
+     * The pipeline runs in the background, so this task doesn't hold the scheduler thread while waiting for the
+     * external API, and a new run is only started once the previous one is over.
      */
-    @Scheduled(fixedDelay = 65000) // Every 65 seconds
-    @Transactional
+    @Scheduled(fixedDelay = ODDS_CALCULATION_DELAY) // Every 65 seconds
     public void scheduledOddsCalculation() {
         if (shouldCalculateMatchOdds && secondaryTasksCanExecute) {
-            // Gets at most 3 matches, which is the maximum number of matches that can be calculated per minute
-            List<Match> matches = matchService.findMatchesWithRandomOdds();
-            if (matches.isEmpty()) {
-                log.info("NO MATCHES WITH RANDOM ODDS FOUND");
-                shouldCalculateMatchOdds = false;
-            } else {
-                log.info("THERE ARE " + matches.size() + " MATCHES WITH RANDOM ODDS");
-                matches.forEach(this::calculateMatchOdds);
-            }
-        }
-    }
-
-    /**
-     * Calculates match odds for a given match using external API data and statistics.
-     * The method is invoked by the {@code scheduledOddsCalculation} task.
-     *
-     * @param match The football match for which odds are to be calculated.
-     */
-    private void calculateMatchOdds(Match match) {
-        // Get the current date in UTC
-        Instant currentInstant = Instant.now();
-        LocalDate currentDate = LocalDate.ofInstant(currentInstant, ZoneOffset.UTC);
-
-        // Fetch statistics for the away and home teams from external API
-        Integer awayId = match.getAwayTeam().getId();
-        Integer homeId = match.getHomeTeam().getId();
-
-        try {
-            // Fetch and unpack statistics for the away team
-            // 23 months because 2 years is the limit, and it may cause issues with the external API
-            TeamStatsResponse awayStats = footballApiService.fetchTeamStats(awayId, currentDate.minusMonths(23), currentDate);
-            awayStats.unpackNestedMatches(awayId);
-
-            // Fetch and unpack statistics for the home team
-            TeamStatsResponse homeStats = footballApiService.fetchTeamStats(homeId, currentDate.minusMonths(23), currentDate);
-            homeStats.unpackNestedMatches(homeId);
-
-            // Fetch head-to-head statistics for the given match
-            HeadToHeadResponse headToHead = footballApiService.fetchHeadToHead(match.getId());
-
-            // Process and unpack head-to-head statistics for the away team
-            TeamStatsResponse h2hAwayStats = headToHead.getAwayTeamStats();
-            if (h2hAwayStats != null) {
-                h2hAwayStats.setMatches(headToHead.getMatches());
-                h2hAwayStats.unpackNestedMatches(awayId);
-            }
-
-            // Process and unpack head-to-head statistics for the home team
-            TeamStatsResponse h2hHomeStats = headToHead.getHomeTeamStats();
-            if (h2hHomeStats != null) {
-                h2hHomeStats.setMatches(headToHead.getMatches());
-                h2hHomeStats.unpackNestedMatches(homeId);
-            }
-
-            // Get the total number of teams in the competition
-            List<Standing> standings = standingsService.getStandingsByCompIdAndTeams(match.getCompetition().getId(), homeId, awayId);
-            Integer totalTeams = 0;
-            if (!standings.isEmpty())
-                totalTeams = standingsService.countStandingsByCompId(standings.get(0).getCompetition().getId());
-            else {
-                standings = null;
-            }
-
-            log.info("CALCULATING ODDS FOR " + match.getHomeTeam().getShortName() + " (HOME) VS (AWAY) " + match.getAwayTeam().getShortName());
-            log.info("Match ID: " + match.getId());
-
-            // Calculate odds using fetched statistics and head-to-head data
-            MatchOdds calculatedOdds = oddsService.generateMatchOdds(homeStats, awayStats, headToHead, standings, homeId, totalTeams);
-
-            if (calculatedOdds != null) {
-                match.setOdds(calculatedOdds);
-                matchService.updateMatch(match);
-            } else {
-                log.warn("Odds for this match can't be properly calculated, so it will keep its default random odds");
-                match.getOdds().setTemporaryRandomOdds(false); // the application won't try to calculate this match odds again
-            }
-        } catch (ResourceAccessException exception) {
-            log.error("ResourceAccessException: " + exception.getMessage());
-        } catch (HttpClientErrorException.Forbidden exception) {
-            // Some data needed to calculate this match odds is not available, so it will keep its default random odds
-            log.warn("Odds for " + match.getAwayTeam().getShortName() + " vs " + match.getHomeTeam().getShortName()
-                    + " can't be calculated because of API restrictions");
-            match.getOdds().setTemporaryRandomOdds(false);
-        } catch (HttpClientErrorException exception) {
-            log.error("HttpClientErrorException: " + exception.getMessage());
+            jobRunner.runAsync("scheduledOddsCalculation", () -> oddsCalculationPipeline.recalculateOdds()
+                    .whenComplete((matchesWithRandomOdds, exception) -> {
+                        if (exception != null) {
+                            log.error("Odds calculation failed: " + exception.getMessage());
+                        } else if (matchesWithRandomOdds == 0) {
+                            log.info("NO MATCHES WITH RANDOM ODDS FOUND");
+                            shouldCalculateMatchOdds = false;
+                        }
+                    }));
         }
     }
 
@@ -180,18 +120,30 @@ public class JobScheduler {
      * A game's score, status and duration can change any second. This scheduled task
      * updates all the matches of the current day with the latest data (status, score, etc.).
      */
-    @Scheduled(fixedDelay = 62000) // Every 62 seconds
-    @Transactional
+    @Scheduled(fixedDelay = UPDATE_MATCHES_DELAY) // Every 62 seconds
     public void updateMatches() {
         // 62 seconds to account for communication latency between this and the external API clocks
-        if (matchesToday && secondaryTasksCanExecute) {
-            log.info("Scheduled task to update matches is being executed");
-            try {
-                footballApiService.fetchAndUpdateMatches();
-            } catch (ResourceAccessException exception) {
-                log.error("ResourceAccessException: " + exception.getMessage());
+        jobRunner.run("updateMatches", UPDATE_MATCHES_DELAY, () -> {
+            if (matchesToday && secondaryTasksCanExecute) {
+                log.info("Scheduled task to update matches is being executed");
+                try {
+                    // Fetched before opening the transaction, since the request may wait for the rate limiter
+                    footballApiService.updateMatches(footballApiService.fetchTodaysMatches());
+                } catch (ResourceAccessException exception) {
+                    log.error("ResourceAccessException: " + exception.getMessage());
+                }
             }
-        }
+        });
+    }
+
+    /**
+     * Scheduled task to settle the bets of the matches that have finished since its last execution.
+     * Settlements are enqueued by {@code updateMatches} and processed by the {@link SettlementWorker},
+     * so that paying bets doesn't delay the update of the live scores.
+     */
+    @Scheduled(fixedDelay = SETTLEMENT_DELAY) // Every 5 seconds
+    public void processSettlements() {
+        jobRunner.run("processSettlements", SETTLEMENT_DELAY, settlementWorker::processDueTasks);
     }
 
     /**
@@ -199,7 +151,7 @@ public class JobScheduler {
      */
     @Scheduled(cron = "0 0 */12 * * *") // Cron expression for every 12 hours
     public void checkMatchesToday() {
-        this.matchesToday = matchService.areThereMatchesToday();
+        jobRunner.run("checkMatchesToday", () -> this.matchesToday = matchService.areThereMatchesToday());
     }
 
     /**
@@ -212,19 +164,35 @@ public class JobScheduler {
     }
 
     /**
-     * Scheduled task to end midnight tasks.
+     * Scheduled task that runs the midnight tasks. There are no fixed delays between them, the
+     * {@link com.leandroruhl.betkickapi.service.utility.UpstreamRateLimiter} makes each request as soon as the
+     * external API quota allows it.
+     */
+    @Scheduled(cron = "0 0 0 * * *") // Cron expression for midnight (00:00:00) every day
+    public void runMidnightTasks() {
+        jobRunner.run("runMidnightTasks", () -> {
+            try {
+                this.saveUpcomingMatches();
+                this.updateStandings();
+            } finally {
+                this.endMidnightTasks();
+            }
+        });
+    }
+
+    /**
+     * Ends midnight tasks.
      */
-    @Scheduled(cron = "50 3 0 * * *")
     public void endMidnightTasks() {
         log.warn("MIDNIGHT TASKS COMPLETED");
         this.secondaryTasksCanExecute = true;
     }
 
     /**
-     * Scheduled task to save upcoming matches and trigger odds calculation.
+     * Saves upcoming matches and triggers odds calculation.
+     * Each 10 days window is fetched outside any transaction, since the request may wait for the rate limiter,
+     * and then saved in its own transaction.
      */
-    @Scheduled(cron = "0 0 0 * * *") // Cron expression for midnight (00:00:00) every day
-    @Transactional
     public void saveUpcomingMatches() {
         try {
             // Get this month's matches, has to be done in 10 days intervals because of API restriction
@@ -234,59 +202,42 @@ public class JobScheduler {
             int to = 10;
             // Get matches from today to approx 3 months in the future
             for (int i = 0; i < 9; i++) {
-                footballApiService.fetchAndSaveMatches(
+                List<Match> matches = footballApiService.fetchMatches(
                         currentDate.plusDays(from),
-                        currentDate.plusDays(to),
-                        false);
+                        currentDate.plusDays(to));
+                footballApiService.saveMatches(matches, false);
                 from += 10;
                 to += 10;
             }
             shouldCalculateMatchOdds = true;
-            cacheService.invalidateCacheForKey("activeCompetitions");
+            cacheService.invalidateCacheForKey(CacheNames.COMPETITIONS, CacheNames.ACTIVE_COMPETITIONS);
         } catch (ResourceAccessException exception) {
             log.error("ResourceAccessException: " + exception.getMessage());
         }
     }
 
     /**
-     * Scheduled task to update standings for the first half of competitions.
+     * Fetches the standings of every competition and replaces the stored ones with them.
      * <br>
      * <br>
-     * Standings need to be updated in two batches because the number of requests
-     * exceeds the maximum per minute.
+     * All the standings are fetched concurrently before opening the transaction that replaces them, since fetching
+     * them can take more than a minute when the external API quota runs out.
      */
-    @Scheduled(cron = "10 1 0 * * *") // Cron expression for 00:01:10
-    public void updateFirstHalfStandings() {
+    public void updateStandings() {
         try {
-            List<Competition> competitions = competitionService.getAllCompetitions();
-            for (int i = 0; i < 6; i++) {
-                this.standingsList.add(footballApiService.fetchStandings(competitions.get(i)));
-            }
-        } catch (ResourceAccessException exception) {
-            log.error("ResourceAccessException: " + exception.getMessage());
-        }
-    }
-
-    /**
-     * Scheduled task to update standings for the second half of competitions.
-     */
-    @Scheduled(cron = "10 2 0 * * *") // Cron expression for 00:02:10
-    @Transactional
-    public void updateSecondHalfStandings() {
-        try {
-            List<Competition> competitions = competitionService.getAllCompetitions();
-
-            for (int i = 6; i < 12; i++) {
-                this.standingsList.add(footballApiService.fetchStandings(competitions.get(i)));
-            }
-
-            standingsService.deleteStandings();
-            footballApiService.saveStandings(standingsList);
-
-            this.standingsList.clear();
-            cacheService.invalidateCacheForKey("competitionsWithStandings");
-        } catch (ResourceAccessException exception) {
-            log.error("ResourceAccessException: " + exception.getMessage());
+            // All the requests are in flight at the same time, the rate limiter decides when each one is made
+            List<CompletableFuture<StandingsResponse>> pendingStandings = competitionService.getAllCompetitions()
+                    .stream()
+                    .map(asyncFootballApiService::fetchStandings)
+                    .toList();
+            List<StandingsResponse> standingsList = pendingStandings.stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+
+            footballApiService.replaceStandings(standingsList);
+            cacheService.invalidateCacheForKey(CacheNames.COMPETITIONS, CacheNames.COMPETITIONS_WITH_STANDINGS);
+        } catch (CompletionException exception) {
+            log.error("Standings couldn't be fetched: " + exception.getCause().getMessage());
         }
     }
 }
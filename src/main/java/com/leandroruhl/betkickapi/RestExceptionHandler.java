@@ -2,6 +2,8 @@ package com.leandroruhl.betkickapi;
 
 import com.leandroruhl.betkickapi.apierror.ApiError;
 import com.leandroruhl.betkickapi.exception.AccountBalanceException;
+import com.leandroruhl.betkickapi.exception.BetPlacementUnavailableException;
+import com.leandroruhl.betkickapi.exception.PasswordHashingUnavailableException;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.ConstraintViolationException;
@@ -13,6 +15,7 @@ import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -289,6 +292,52 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return buildResponseEntity(apiError);
     }
 
+    /**
+     * Handles {@link ObjectOptimisticLockingFailureException}.
+     * Triggered when an entity was modified by another request since it was read.
+     * Returns a CONFLICT response, so the client can retry with fresh data.
+     *
+     * @param ex the ObjectOptimisticLockingFailureException to be handled
+     * @return the ApiError object wrapped in a ResponseEntity
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    protected ResponseEntity<Object> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        ApiError apiError = new ApiError(CONFLICT);
+        apiError.setMessage("The resource was modified by another request, please try again");
+        apiError.setDebugMessage(ex.getMessage());
+        return buildResponseEntity(apiError);
+    }
+
+    /**
+     * Handles {@link PasswordHashingUnavailableException}.
+     * Triggered when too many logins and sign-ups are waiting for their passwords to be hashed.
+     * Returns a SERVICE_UNAVAILABLE response, so the client can retry later.
+     *
+     * @param ex the PasswordHashingUnavailableException to be handled
+     * @return the ApiError object wrapped in a ResponseEntity
+     */
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    protected ResponseEntity<Object> handlePasswordHashingUnavailable(PasswordHashingUnavailableException ex) {
+        ApiError apiError = new ApiError(SERVICE_UNAVAILABLE);
+        apiError.setMessage(ex.getMessage());
+        return buildResponseEntity(apiError);
+    }
+
+    /**
+     * Handles {@link BetPlacementUnavailableException}.
+     * Triggered when the bets of a slip couldn't be confirmed in time.
+     * Returns a SERVICE_UNAVAILABLE response, so the client can check its bets and retry later.
+     *
+     * @param ex the BetPlacementUnavailableException to be handled
+     * @return the ApiError object wrapped in a ResponseEntity
+     */
+    @ExceptionHandler(BetPlacementUnavailableException.class)
+    protected ResponseEntity<Object> handleBetPlacementUnavailable(BetPlacementUnavailableException ex) {
+        ApiError apiError = new ApiError(SERVICE_UNAVAILABLE);
+        apiError.setMessage(ex.getMessage());
+        return buildResponseEntity(apiError);
+    }
+
     @ExceptionHandler(AccountBalanceException.class)
     protected ResponseEntity<Object> handleShowtimeOverlap(AccountBalanceException ex) {
         ApiError apiError = new ApiError(BAD_REQUEST);
@@ -1,6 +1,5 @@
 package com.leandroruhl.betkickapi;
 
-import com.leandroruhl.betkickapi.dto.external_api.StandingsResponse;
 import com.leandroruhl.betkickapi.model.*;
 import com.leandroruhl.betkickapi.model.embbeded.MatchOdds;
 import com.leandroruhl.betkickapi.model.embbeded.Score;
@@ -49,25 +48,12 @@ public class StartupDataInitializer implements ApplicationRunner {
     @Override
     public void run(ApplicationArguments args) throws Exception {
         if (executeInitialization) {
-            // Wait a bit before initializing
-            Thread.sleep(10000);
-            System.out.println("INITIALIZATION FINISHED");
+            // Requests are paced by the rate limiter of the FootballApiService, so no waits are needed between them
             competitionService.saveCompetitions(footballApiService.fetchCompetitions()); // 1 request
             jobScheduler.saveUpcomingMatches(); // 9 requests
-            Thread.sleep(60000); // 10 requests made within a minute so wait till refill
+            jobScheduler.updateStandings(); // 12 requests, one per competition
+            System.out.println("INITIALIZATION FINISHED");
             List<Competition> competitions = competitionService.getAllCompetitions();
-            List<StandingsResponse> responses = new ArrayList<>();
-            for (int i = 0; i < 6; i++) { // 6 requests, one per competition
-                responses.add(footballApiService.fetchStandings(competitions.get(i)));
-            }
-            Thread.sleep(60000); // wait for API requests to refill
-            for (int i = 6; i < 12; i++) { // 6 requests, one per competition (total will always be 12)
-                responses.add(footballApiService.fetchStandings(competitions.get(i)));
-            }
-            // Wait is needed because the 12 standings need to be saved together
-            footballApiService.saveStandings(responses);
-            // Wait for API requests to refill so scheduled methods can execute properly
-            Thread.sleep(60000);
             jobScheduler.setSecondaryTasksCanExecute(true);
             jobScheduler.checkMatchesToday();
             jobScheduler.setShouldCalculateMatchOdds(true);
@@ -121,7 +107,7 @@ public class StartupDataInitializer implements ApplicationRunner {
 
             Match fakeMatch = new Match(999999999, competitions.get(0), LocalDateTime.now(), Status.FINISHED,
                     Winner.AWAY_TEAM, Duration.REGULAR, new Score(1, 1, null, null),
-                    new MatchOdds(1.71, 1.58, 2.21, false),
+                    new MatchOdds(1.71, 1.58, 2.21, false), 1,
                     fakeTeam1, fakeTeam2);
             matchService.saveMatch(fakeMatch);
 
@@ -1,8 +1,20 @@
 package com.leandroruhl.betkickapi.config;
 
-import org.modelmapper.ModelMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -12,22 +24,76 @@ import org.springframework.web.client.RestTemplate;
 public class BeanConfiguration {
 
     /**
-     * Creates a new instance of {@link RestTemplate}.
+     * Creates the pool of connections to the external API.
+     * <p>
+     * Connections are kept alive and reused between requests, and every socket is created with connect and read
+     * timeouts so a hung request can't block the thread that made it indefinitely.
      *
-     * @return A new {@link RestTemplate} instance.
+     * @param maxConnections The maximum number of pooled connections.
+     * @param connectTimeout Milliseconds to wait for a connection to be established.
+     * @param readTimeout    Milliseconds to wait for data once the connection is established.
+     * @return The configured {@link PoolingHttpClientConnectionManager}.
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public PoolingHttpClientConnectionManager connectionManager(
+            @Value("${app.http-client.max-connections:20}") int maxConnections,
+            @Value("${app.http-client.connect-timeout-ms:5000}") long connectTimeout,
+            @Value("${app.http-client.read-timeout-ms:20000}") long readTimeout) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                // Every request goes to the same host, so a single route can use the whole pool
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
     }
 
     /**
-     * Creates a new instance of {@link ModelMapper}.
+     * Creates the Apache {@link CloseableHttpClient} used to make requests to the external API.
+     * <p>
+     * Responses are requested compressed and decompressed transparently (the client's default behavior), idle
+     * connections are evicted from the pool, and the pool usage is published as metrics.
      *
-     * @return A new {@link ModelMapper} instance.
+     * @param connectionManager        The {@link PoolingHttpClientConnectionManager} of the client.
+     * @param meterRegistry            The {@link MeterRegistry} where the pool metrics are registered.
+     * @param connectionRequestTimeout Milliseconds to wait for a connection from the pool.
+     * @param responseTimeout          Milliseconds to wait for the response once the request is sent.
+     * @return The configured {@link CloseableHttpClient}.
      */
     @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager, MeterRegistry meterRegistry,
+                                          @Value("${app.http-client.connection-request-timeout-ms:5000}") long connectionRequestTimeout,
+                                          @Value("${app.http-client.read-timeout-ms:20000}") long responseTimeout) {
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "football-api").bindTo(meterRegistry);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+    }
+
+    /**
+     * Creates the {@link RestTemplate} backed by the pooled {@link CloseableHttpClient}.
+     * <p>
+     * It is built with the auto-configured {@link RestTemplateBuilder} so that every request is observed and
+     * recorded in the "http.client.requests" metrics, tagged by URI template.
+     *
+     * @param restTemplateBuilder The auto-configured {@link RestTemplateBuilder}.
+     * @param httpClient          The {@link CloseableHttpClient} that makes the requests.
+     * @return The configured {@link RestTemplate} instance.
+     */
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, CloseableHttpClient httpClient) {
+        return restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
     }
 }
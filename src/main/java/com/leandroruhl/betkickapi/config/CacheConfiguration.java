@@ -1,20 +1,26 @@
 package com.leandroruhl.betkickapi.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * Configuration class for setting up caching in the application using Caffeine.
  * <br>
  * <br>
  * This class is annotated with {@link Configuration} and {@link EnableCaching} to enable caching functionality.
- * It defines a {@link Bean} method to create and configure a {@link CaffeineCacheManager} named "footballDataCache"
- * as the cache manager for the application. The cache is configured using a {@link Caffeine} cache builder with
- * specific initial capacity and maximum size settings.
+ * It defines a {@link Bean} method to create a {@link CaffeineCacheManager} with a cache for each type of data,
+ * listed in {@link CacheNames}. Each cache has its own maximum size and time to live, which can be overridden
+ * through {@link CacheProperties}, and records statistics that are published by the actuator metrics endpoint
+ * ({@code cache.gets}, {@code cache.evictions}, etc., tagged by cache name).
  * <br>
  * <br>
  * Caching is a technique used to store and retrieve frequently accessed data quickly, reducing the need to fetch
@@ -22,37 +28,52 @@ import org.springframework.context.annotation.Configuration;
  */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+@Slf4j
 public class CacheConfiguration {
 
     /**
-     * Creates and configures a {@link CaffeineCacheManager} named "footballDataCache".
-     * <p>
-     * This cache manager is set up with a {@link Caffeine} cache builder using specific initial capacity and maximum size settings.
-     *
-     * @return The configured {@link CacheManager} instance.
+     * Default Caffeine specification of each cache.
+     * <br>
+     * Cached data is invalidated whenever it's updated, so the times to live only bound how stale an entry can get
+     * if an invalidation is missed, e.g. after the database is changed by hand.
      */
-    @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("footballDataCache");
-        cacheManager.setCaffeine(caffeineCacheBuilder());
-        return cacheManager;
-    }
+    static final Map<String, String> DEFAULT_SPECS = Map.of(
+            CacheNames.NON_FINISHED_MATCHES, "maximumSize=1,expireAfterWrite=10m",
+            // Tracked competitions are 12, the rest of the room is for new ones
+            CacheNames.MATCHES_BY_COMPETITION, "maximumSize=50,expireAfterWrite=10m",
+            CacheNames.STANDINGS_BY_COMPETITION, "maximumSize=50,expireAfterWrite=1h",
+            CacheNames.COMPETITIONS, "maximumSize=3,expireAfterWrite=1h",
+            // Teams that play in the tracked competitions are around 250
+            CacheNames.TEAM_STATS, "maximumSize=300,expireAfterWrite=1d",
+            // Evicted when the user changes their balance, the short time to live bounds the staleness of the balance
+            // after bets are settled
+            CacheNames.PRINCIPALS, "maximumSize=10000,expireAfterWrite=30s"
+    );
 
     /**
-     * Configures the {@link Caffeine} cache builder with specific initial capacity and maximum size settings.
+     * Creates and configures a {@link CaffeineCacheManager} with the caches listed in {@link CacheNames}.
      * <p>
-     * The cache builder is designed to accommodate various caching needs within the application.
-     * It includes settings for the initial capacity and maximum size of the cache.
+     * The cache manager isn't dynamic, so using a cache that isn't configured here fails instead of silently
+     * creating an unbounded cache.
      *
-     * @return The configured {@link Caffeine} cache builder.
+     * @param cacheProperties The {@link CacheProperties} that override the default specification of the caches.
+     * @return The configured {@link CacheManager} instance.
      */
-    Caffeine<Object, Object> caffeineCacheBuilder() {
-        // List of caches:
-        // Each competition's matches list (12) + competitions list (1) + active competitions list (1) +
-        // competitions with standings list (1) + non-finished matches list (1) + standings tables for each competition (12) +
-        // user leaderboard (1) = 29
-        return Caffeine.newBuilder()
-                .initialCapacity(29)
-                .maximumSize(29);
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(Collections.emptyList());
+
+        DEFAULT_SPECS.forEach((name, defaultSpec) -> {
+            String spec = cacheProperties.getSpecs().getOrDefault(name, defaultSpec);
+            log.info("Cache " + name + " configured with " + spec);
+            cacheManager.registerCustomCache(name, Caffeine.from(spec).recordStats().build());
+        });
+
+        cacheProperties.getSpecs().keySet().stream()
+                .filter(name -> !DEFAULT_SPECS.containsKey(name))
+                .forEach(name -> log.warn("Ignoring the specification of unknown cache " + name));
+        return cacheManager;
     }
 }
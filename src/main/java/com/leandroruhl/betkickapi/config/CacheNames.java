@@ -0,0 +1,46 @@
+package com.leandroruhl.betkickapi.config;
+
+/**
+ * Names of the caches of the application. Each type of data has a cache of its own, sized and expired according to it
+ * by {@link CacheConfiguration}, so hot entries of one type can't evict the entries of another.
+ */
+public final class CacheNames {
+
+    /**
+     * The list of non-finished matches, a single entry.
+     */
+    public static final String NON_FINISHED_MATCHES = "nonFinishedMatches";
+
+    /**
+     * The matches of each competition, keyed by competition ID.
+     */
+    public static final String MATCHES_BY_COMPETITION = "matchesByCompetition";
+
+    /**
+     * The standings tables of each competition, keyed by competition ID.
+     */
+    public static final String STANDINGS_BY_COMPETITION = "standingsByCompetition";
+
+    /**
+     * The lists of competitions, keyed by {@link #ACTIVE_COMPETITIONS}, {@link #COMPETITIONS_WITH_STANDINGS}
+     * and {@link #ALL_COMPETITIONS}.
+     */
+    public static final String COMPETITIONS = "competitions";
+
+    /**
+     * The statistics of a team for a given day used by the odds calculation, keyed by team ID and date.
+     */
+    public static final String TEAM_STATS = "teamStats";
+
+    /**
+     * The users that requests are authenticated as, keyed by user ID.
+     */
+    public static final String PRINCIPALS = "principals";
+
+    public static final String ACTIVE_COMPETITIONS = "active";
+    public static final String COMPETITIONS_WITH_STANDINGS = "withStandings";
+    public static final String ALL_COMPETITIONS = "all";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,26 @@
+package com.leandroruhl.betkickapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Properties of the caches of the application, bound from {@code app.cache.*}.
+ * <br>
+ * <br>
+ * The size and expiration of each cache is given as a
+ * <a href="https://github.com/ben-manes/caffeine/wiki/Specification">Caffeine specification</a>, such as
+ * {@code app.cache.specs.teamStats=maximumSize=300,expireAfterWrite=1d}. Caches without a specification
+ * use the defaults of {@link CacheConfiguration}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    /**
+     * Caffeine specification of each cache, by cache name.
+     */
+    private Map<String, String> specs = new HashMap<>();
+}
@@ -0,0 +1,51 @@
+package com.leandroruhl.betkickapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Configuration class for the scheduler that runs the {@code @Scheduled} jobs of the application.
+ * <br>
+ * <br>
+ * Without it, every job runs on a single thread, so a long job (such as the midnight ingest) delays all the others.
+ * The pool is sized by {@code app.scheduling.pool-size}, which defaults to the number of scheduled jobs, so that
+ * every job can always get a thread of its own and live match updates keep their cadence regardless of what the
+ * other jobs are doing.
+ */
+@Configuration
+@Slf4j
+public class SchedulingConfiguration implements SchedulingConfigurer, DisposableBean {
+
+    private final ThreadPoolTaskScheduler taskScheduler;
+
+    public SchedulingConfiguration(@Value("${app.scheduling.pool-size:6}") int poolSize) {
+        this.taskScheduler = new ThreadPoolTaskScheduler();
+        this.taskScheduler.setPoolSize(poolSize);
+        this.taskScheduler.setThreadNamePrefix("job-scheduler-");
+        this.taskScheduler.setErrorHandler(throwable -> log.error("Scheduled job failed", throwable));
+        this.taskScheduler.initialize();
+    }
+
+    /**
+     * Registers the pooled scheduler as the one that runs the {@code @Scheduled} jobs.
+     *
+     * @param taskRegistrar The {@link ScheduledTaskRegistrar} of the application.
+     */
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.setTaskScheduler(taskScheduler);
+    }
+
+    /**
+     * Shuts the scheduler down when the application context is closed.
+     */
+    @Override
+    public void destroy() {
+        taskScheduler.shutdown();
+    }
+}
@@ -0,0 +1,82 @@
+package com.leandroruhl.betkickapi.config.security;
+
+import com.leandroruhl.betkickapi.dto.security.UserDto;
+import com.leandroruhl.betkickapi.model.User;
+import com.leandroruhl.betkickapi.service.user.UserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.UUID;
+
+/**
+ * Request scoped holder of the {@link User} that the current request is authenticated as.
+ * <br>
+ * <br>
+ * The user is loaded once by {@link UserAuthenticationProvider#validateTokenStrongly(String)} while authenticating
+ * the request, and controllers get it from here instead of loading it again.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class AuthenticatedUserContext {
+
+    private final UserService userService;
+
+    private User user;
+
+    /**
+     * Sets the user that the request is authenticated as.
+     *
+     * @param user The authenticated {@link User}.
+     */
+    void setUser(User user) {
+        this.user = user;
+    }
+
+    /**
+     * Returns the user that the request is authenticated as, which must be the user the request is made for.
+     * If the user wasn't loaded while authenticating the request, it's loaded now, once the given ID has been
+     * checked against the ID claim of the token the request is authenticated with.
+     *
+     * @param userId The ID of the user the request is made for.
+     * @return The authenticated {@link User}.
+     * @throws IllegalArgumentException If the user ID is invalid.
+     * @throws AccessDeniedException    If the request is authenticated as another user.
+     */
+    public User getUser(String userId) {
+        UUID id = UUID.fromString(userId);
+        UUID authenticatedId = user != null ? user.getId() : this.getUserId();
+        if (!authenticatedId.equals(id))
+            throw new AccessDeniedException("The request is not authenticated as the given user");
+
+        if (user == null)
+            user = userService.findPrincipalById(id);
+        return user;
+    }
+
+    /**
+     * Returns the ID of the user that the request is authenticated as, taken from the principal set by the
+     * {@link JwtAuthFilter}.
+     *
+     * @return The ID of the authenticated user.
+     * @throws AccessDeniedException If the request isn't authenticated, or its token has no user ID.
+     */
+    public UUID getUserId() {
+        if (user != null)
+            return user.getId();
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDto principal)
+                || principal.getId() == null)
+            throw new AccessDeniedException("The request is not authenticated with a user ID");
+        try {
+            return UUID.fromString(principal.getId());
+        } catch (IllegalArgumentException e) {
+            throw new AccessDeniedException("The request is not authenticated with a valid user ID");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.leandroruhl.betkickapi.config.security;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -12,12 +13,14 @@ import org.springframework.stereotype.Component;
 public class PasswordConfiguration {
 
     /**
-     * Creates a BCrypt password encoder bean.
+     * Creates a BCrypt password encoder bean with the cost given by {@code security.password.bcrypt-strength}.
+     * Passwords hashed with a lower cost are hashed again with the current one when their users log in.
      *
+     * @param strength The log rounds of BCrypt, between 4 and 31.
      * @return A BCrypt password encoder.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
@@ -27,7 +27,7 @@ public class SecurityConfiguration {
                 .sessionManagement(customizer -> customizer.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests((authz) -> authz
                         .requestMatchers("/", "/index.html", "*.ico", "*.css", "*.js", "/api/standings", "/actuator/health",
-                                "/api/leaderboard", "/api/user", "/api/active-competitions", "api/login", "/api/register",
+                                "/api/leaderboard", "/api/leaderboard/top", "/api/user", "/api/active-competitions", "api/login", "/api/register",
                                 "/api/competitions-with-standings", "/api/matches").permitAll()
                         .anyRequest().authenticated());
 
@@ -5,6 +5,9 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.leandroruhl.betkickapi.dto.security.UserDto;
 import com.leandroruhl.betkickapi.model.User;
 import com.leandroruhl.betkickapi.service.user.UserService;
@@ -15,13 +18,27 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Authentication provider class responsible for handling the creation and validation of JSON Web Tokens (JWT)
  * for user authentication.
+ * <br>
+ * <br>
+ * Clients send the same token on every request until it expires, so verified tokens are cached by their SHA-256
+ * digest until their expiration date. A token is only decoded and its signature checked the first time it's seen;
+ * after that, validating it is a hash lookup.
+ * <br>
+ * <br>
+ * Tokens carry the ID of their user, so strong validation loads the user by its primary key, through the principal
+ * cache of the {@link UserService}, and shares it with the rest of the request through the {@link AuthenticatedUserContext}.
  */
 @RequiredArgsConstructor
 @Component
@@ -30,15 +47,85 @@ public class UserAuthenticationProvider {
     @Value("${security.jwt.token.secret-key:secret-key}")
     private String secretKey;
 
+    @Value("${security.jwt.verified-tokens.max-size:10000}")
+    private long verifiedTokensMaxSize;
+
     private final UserService userService;
+    private final AuthenticatedUserContext authenticatedUserContext;
+
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+    private Cache<String, DecodedJWT> verifiedTokens;
 
     /**
      * Initializes the {@code secretKey} by encoding it using Base64 during the post-construction phase.
      * This helps avoid having the raw secret key available in the JVM.
+     * The algorithm and verifier are thread-safe, so they're built once and shared by every request.
      */
     @PostConstruct
     protected void init() {
         secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
+        algorithm = Algorithm.HMAC256(secretKey);
+        verifier = JWT.require(algorithm)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokensMaxSize)
+                .expireAfter(new ExpiresAtExpiry())
+                .build();
+    }
+
+    /**
+     * Expires each verified token at its expiration date.
+     */
+    private static final class ExpiresAtExpiry implements Expiry<String, DecodedJWT> {
+
+        @Override
+        public long expireAfterCreate(String digest, DecodedJWT decoded, long currentTime) {
+            long millisToExpiration = decoded.getExpiresAt().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millisToExpiration, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, DecodedJWT decoded, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, decoded, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, DecodedJWT decoded, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Verifies a JWT token, unless it has already been verified and hasn't expired yet.
+     * Only tokens with an expiration date are cached, so a cached token can never outlive its validity.
+     *
+     * @param token The JWT token to be verified.
+     * @return The decoded token.
+     * @throws com.auth0.jwt.exceptions.JWTVerificationException If the token is invalid or has expired.
+     */
+    private DecodedJWT verify(String token) {
+        String digest = digest(token);
+        DecodedJWT decoded = verifiedTokens.getIfPresent(digest);
+        if (decoded != null)
+            return decoded;
+
+        decoded = verifier.verify(token);
+        if (decoded.getExpiresAt() != null)
+            verifiedTokens.put(digest, decoded);
+        return decoded;
+    }
+
+    /**
+     * Computes the SHA-256 digest of a token, so the cache doesn't hold usable tokens.
+     */
+    private static String digest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 isn't available", e);
+        }
     }
 
     /**
@@ -51,9 +138,9 @@ public class UserAuthenticationProvider {
         Date now = new Date();
         Date validity = new Date(now.getTime() + 3600000); // 1 hour
 
-        Algorithm algorithm = Algorithm.HMAC256(secretKey);
         return JWT.create()
                 .withSubject(user.getLogin())
+                .withClaim("userId", user.getId())
                 .withIssuedAt(now)
                 .withExpiresAt(validity)
                 .withClaim("firstName", user.getFirstName())
@@ -62,20 +149,17 @@ public class UserAuthenticationProvider {
     }
 
     /**
-     * Validates a JWT token and returns an Authentication object for the user.
+     * Validates a JWT token and returns an Authentication object for the user, built from the claims of the token
+     * without looking the user up. Tokens issued before the ID claim was added have no user ID.
      *
      * @param token The JWT token to be validated.
      * @return An Authentication object for the validated user.
      */
     public Authentication validateToken(String token) {
-        Algorithm algorithm = Algorithm.HMAC256(secretKey);
-
-        JWTVerifier verifier = JWT.require(algorithm)
-                .build();
-
-        DecodedJWT decoded = verifier.verify(token);
+        DecodedJWT decoded = verify(token);
 
         UserDto user = UserDto.builder()
+                .id(decoded.getClaim("userId").asString())
                 .login(decoded.getSubject())
                 .firstName(decoded.getClaim("firstName").asString())
                 .lastName(decoded.getClaim("lastName").asString())
@@ -86,20 +170,21 @@ public class UserAuthenticationProvider {
 
     /**
      * Strongly validates a JWT token by performing a user lookup from the database and returns an Authentication
-     * object for the user.
+     * object for the user. The user is looked up by the ID claim of the token, or by its subject for tokens issued
+     * before the claim was added, and is made available to the rest of the request through the
+     * {@link AuthenticatedUserContext}.
      *
      * @param token The JWT token to be strongly validated.
      * @return An Authentication object for the strongly validated user.
      */
     public Authentication validateTokenStrongly(String token) {
-        Algorithm algorithm = Algorithm.HMAC256(secretKey);
-
-        JWTVerifier verifier = JWT.require(algorithm)
-                .build();
-
-        DecodedJWT decoded = verifier.verify(token);
+        DecodedJWT decoded = verify(token);
 
-        User user = userService.findByLogin(decoded.getSubject());
+        String userId = decoded.getClaim("userId").asString();
+        User user = userId != null
+                ? userService.findPrincipalById(UUID.fromString(userId))
+                : userService.findByLogin(decoded.getSubject());
+        authenticatedUserContext.setUser(user);
 
         return new UsernamePasswordAuthenticationToken(userService.userToDto(user), null, Collections.emptyList());
     }
@@ -1,5 +1,6 @@
 package com.leandroruhl.betkickapi.controller;
 
+import com.leandroruhl.betkickapi.config.security.AuthenticatedUserContext;
 import com.leandroruhl.betkickapi.config.security.UserAuthenticationProvider;
 import com.leandroruhl.betkickapi.dto.security.CredentialsDto;
 import com.leandroruhl.betkickapi.dto.security.SignUpDto;
@@ -30,6 +31,7 @@ import java.net.URLDecoder;
 public class AuthController {
     private final UserService userService;
     private final UserAuthenticationProvider userAuthenticationProvider;
+    private final AuthenticatedUserContext authenticatedUserContext;
 
     /**
      * Handles user login requests and returns a JWT token upon successful authentication.
@@ -88,6 +90,7 @@ public class AuthController {
 
     /**
      * Handles withdrawal requests for a user with the specified user ID.
+     * The user is the one loaded while authenticating the request, see {@link AuthenticatedUserContext}.
      *
      * @param amount The withdrawal amount.
      * @param userId The user ID.
@@ -98,7 +101,7 @@ public class AuthController {
     public ResponseEntity<?> withdraw(@RequestBody @NotNull @Positive Double amount, @RequestParam @NotNull String userId) {
         log.info("Request to withdraw received!");
         try {
-            User user = userService.findById(userId);
+            User user = authenticatedUserContext.getUser(userId);
             User updatedUser = userService.withdraw(user, amount);
             return ResponseEntity.ok(updatedUser.getAccountBalance());
         } catch (IllegalArgumentException e) {
@@ -108,6 +111,7 @@ public class AuthController {
 
     /**
      * Handles deposit requests for a user with the specified user ID.
+     * The user is the one loaded while authenticating the request, see {@link AuthenticatedUserContext}.
      *
      * @param amount The deposit amount.
      * @param userId The user ID.
@@ -119,7 +123,7 @@ public class AuthController {
             userId) {
         log.info("Request to retrieve deposit received!");
         try {
-            User user = userService.findById(userId);
+            User user = authenticatedUserContext.getUser(userId);
             User updatedUser = userService.deposit(user, amount);
             return ResponseEntity.ok(updatedUser.getAccountBalance());
         } catch (IllegalArgumentException e) {
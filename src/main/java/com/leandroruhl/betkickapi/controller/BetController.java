@@ -1,17 +1,19 @@
 package com.leandroruhl.betkickapi.controller;
 
+import com.leandroruhl.betkickapi.config.security.AuthenticatedUserContext;
+import com.leandroruhl.betkickapi.dto.internal_api.BetHistoryPage;
 import com.leandroruhl.betkickapi.dto.internal_api.BetHistoryResponse;
 import com.leandroruhl.betkickapi.dto.internal_api.BetRequest;
-import com.leandroruhl.betkickapi.model.Match;
 import com.leandroruhl.betkickapi.model.User;
 import com.leandroruhl.betkickapi.service.bet.BetService;
-import com.leandroruhl.betkickapi.service.match.MatchService;
-import com.leandroruhl.betkickapi.service.user.UserService;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -29,8 +31,9 @@ import java.util.List;
 public class BetController {
 
     private final BetService betService;
-    private final UserService userService;
-    private final MatchService matchService;
+    private final AuthenticatedUserContext authenticatedUserContext;
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
 
     /**
      * Processes a request to make bets based on the provided list of {@link BetRequest}.
@@ -38,18 +41,15 @@ public class BetController {
      * @param bets   The list of bet requests.
      * @param userId The user ID associated with the bets.
      * @return A {@link ResponseEntity} containing the updated account balance after making the bets.
-     * @see BetService#saveBets(List, User, List)
-     * @see MatchService#getNonFinishedMatchesByIds(List)
+     * @see BetService#saveBets(List, User)
      */
     @PostMapping("/api/bet")
     public ResponseEntity<Double> makeBets(@RequestBody @Valid List<BetRequest> bets, @RequestParam @NotNull String userId) {
         log.info("Request to make a bet received!");
         bets.forEach(System.out::println);
-        List<Integer> matchIds = bets.stream().map(BetRequest::getMatchId).toList();
-        List<Match> matches = matchService.getNonFinishedMatchesByIds(matchIds);
-        User user = userService.findById(userId);
+        User user = authenticatedUserContext.getUser(userId);
         // Returns current account balance
-        return ResponseEntity.ok(betService.saveBets(bets, user, matches));
+        return ResponseEntity.ok(betService.saveBets(bets, user));
     }
 
     /**
@@ -66,6 +66,30 @@ public class BetController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Retrieves a page of the bet history for a specific user, newest bets first.
+     *
+     * @param userId The user ID for whom to retrieve the bet history.
+     * @param cursor The cursor of the page, taken from the {@code nextCursor} of the previous page. Omitted for the first page.
+     * @param limit  The maximum number of bets of the page.
+     * @return A {@link ResponseEntity} containing a {@link BetHistoryPage}, or BAD_REQUEST if the user ID or cursor is invalid.
+     * @see BetService#findBetHistoryPage(String, String, int)
+     */
+    @GetMapping("/api/user/bets/history")
+    public ResponseEntity<?> getUserBetHistory(
+            @RequestParam @NotNull String userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Positive @Max(MAX_HISTORY_PAGE_SIZE) Integer limit) {
+        log.info("Request to retrieve a page of the bet history received!");
+
+        try {
+            BetHistoryPage page = betService.findBetHistoryPage(userId, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     /**
      * Cancels a bet based on the provided bet ID.
      *
@@ -1,118 +1,195 @@
 package com.leandroruhl.betkickapi.controller;
 
+import com.leandroruhl.betkickapi.config.security.AuthenticatedUserContext;
 import com.leandroruhl.betkickapi.dto.internal_api.CompetitionStandingsResponse;
+import com.leandroruhl.betkickapi.dto.internal_api.LeaderboardPage;
 import com.leandroruhl.betkickapi.dto.internal_api.UserBetSummary;
 import com.leandroruhl.betkickapi.model.Competition;
 import com.leandroruhl.betkickapi.model.Match;
 import com.leandroruhl.betkickapi.service.competition.CompetitionService;
+import com.leandroruhl.betkickapi.service.leaderboard.LeaderboardService;
 import com.leandroruhl.betkickapi.service.match.MatchService;
 import com.leandroruhl.betkickapi.service.standings.StandingsService;
-import com.leandroruhl.betkickapi.service.user.UserService;
+import com.leandroruhl.betkickapi.service.utility.JsonResponseCache;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * The FootballDataController class is a Spring Web MVC controller responsible for handling football data-related
  * endpoints, including leaderboard, active competitions, competitions with standings, matches, and standings by competition ID.
+ * <br>
+ * <br>
+ * Competitions, matches and standings are sent as pre-serialized JSON from the {@link JsonResponseCache}, gzip
+ * compressed if the client accepts it, and with an {@code ETag} so clients can revalidate them.
  */
 @AllArgsConstructor
 @RestController
 @Slf4j
+@Validated
 @RequestMapping("/api")
 public class FootballDataController {
 
     private final CompetitionService competitionService;
     private final MatchService matchService;
     private final StandingsService standingsService;
-    private final UserService userService;
+    private final LeaderboardService leaderboardService;
+    private final JsonResponseCache jsonResponseCache;
+    private final AuthenticatedUserContext authenticatedUserContext;
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_NEIGHBORS = 10;
 
     /**
-     * Retrieves the leaderboard containing user summaries based on various criteria such as win rate, total number of won bets,
-     * and net profit.
+     * Retrieves a page of the leaderboard containing user summaries based on various criteria such as win rate,
+     * total number of won bets, and net profit.
      *
-     * @return A {@link ResponseEntity} containing a list of {@link UserBetSummary}.
-     * @see UserService#getUserLeaderboard()
+     * @param cursor The position after which the page starts, taken from the {@code nextCursor} of the previous page.
+     * @param limit  The maximum number of users of the page.
+     * @return A {@link ResponseEntity} containing a {@link LeaderboardPage}.
+     * @see LeaderboardService#getPage(int, int)
      */
     @GetMapping("/leaderboard")
-    public ResponseEntity<List<UserBetSummary>> getLeaderboard() {
+    public ResponseEntity<LeaderboardPage> getLeaderboard(
+            @RequestParam(defaultValue = "0") @PositiveOrZero Integer cursor,
+            @RequestParam(defaultValue = "50") @Positive @Max(MAX_PAGE_SIZE) Integer limit) {
         log.info("Request to get leaderboard received");
 
         return ResponseEntity.ok()
-                .body(userService.getUserLeaderboard());
+                .body(leaderboardService.getPage(cursor, limit));
+    }
+
+    /**
+     * Retrieves the best users of the leaderboard.
+     *
+     * @param top The number of users.
+     * @return A {@link ResponseEntity} containing a list of {@link UserBetSummary}.
+     * @see LeaderboardService#getTopUsers(int)
+     */
+    @GetMapping("/leaderboard/top")
+    public ResponseEntity<List<UserBetSummary>> getLeaderboardTop(
+            @RequestParam(defaultValue = "10") @Positive @Max(MAX_PAGE_SIZE) Integer top) {
+        log.info("Request to get leaderboard top received");
+
+        return ResponseEntity.ok()
+                .body(leaderboardService.getTopUsers(top));
+    }
+
+    /**
+     * Retrieves the position of the authenticated user in the leaderboard, along with the users right above and
+     * below them.
+     *
+     * @param neighbors The maximum number of users to include above and below the user.
+     * @return A {@link ResponseEntity} containing a {@link LeaderboardPage}, or NOT_FOUND if the user has no settled bets.
+     * @see LeaderboardService#getUserNeighborhood(UUID, int)
+     */
+    @GetMapping("/leaderboard/me")
+    public ResponseEntity<LeaderboardPage> getLeaderboardPosition(
+            @RequestParam(defaultValue = "2") @PositiveOrZero @Max(MAX_NEIGHBORS) Integer neighbors) {
+        log.info("Request to get leaderboard position received");
+
+        return leaderboardService.getUserNeighborhood(authenticatedUserContext.getUserId(), neighbors)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
      * Retrieves a list of active competitions.
      *
-     * @return A {@link ResponseEntity} containing a list of {@link Competition}.
+     * @param ifNoneMatch    The {@code If-None-Match} header of the request.
+     * @param acceptEncoding The {@code Accept-Encoding} header of the request.
+     * @return A {@link ResponseEntity} containing the JSON of a list of {@link Competition}, or NOT_MODIFIED.
      * @see CompetitionService#getActiveCompetitions()
      */
     @GetMapping("/active-competitions")
-    public ResponseEntity<List<Competition>> getActiveCompetitions() {
+    public ResponseEntity<byte[]> getActiveCompetitions(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Request to get active competitions received");
-        return ResponseEntity.ok()
-                .body(competitionService.getActiveCompetitions());
+        return jsonResponseCache.respond(competitionService.getActiveCompetitions(), ifNoneMatch, acceptEncoding);
     }
 
     /**
      * Retrieves a list of competitions with standings.
      *
-     * @return A {@link ResponseEntity} containing a list of {@link Competition}.
+     * @param ifNoneMatch    The {@code If-None-Match} header of the request.
+     * @param acceptEncoding The {@code Accept-Encoding} header of the request.
+     * @return A {@link ResponseEntity} containing the JSON of a list of {@link Competition}, or NOT_MODIFIED.
      * @see CompetitionService#getCompetitionsWithStandings()
      */
     @GetMapping("/competitions-with-standings")
-    public ResponseEntity<List<Competition>> getCompetitionsWithStandings() {
+    public ResponseEntity<byte[]> getCompetitionsWithStandings(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Request to get competitions with standings received");
         List<Competition> comps = competitionService.getCompetitionsWithStandings();
-        return ResponseEntity.ok().body(comps);
+        return jsonResponseCache.respond(comps, ifNoneMatch, acceptEncoding);
     }
 
     /**
      * Retrieves all non-finished (live, upcoming, etc.) matches.
      *
-     * @return A {@link ResponseEntity} containing a list of {@link Match}.
+     * @param ifNoneMatch    The {@code If-None-Match} header of the request.
+     * @param acceptEncoding The {@code Accept-Encoding} header of the request.
+     * @return A {@link ResponseEntity} containing the JSON of a list of {@link Match}, or NOT_MODIFIED.
      * @see MatchService#getNonFinishedMatches()
      */
     @GetMapping("/matches")
-    public ResponseEntity<List<Match>> getNonFinishedMatches() {
+    public ResponseEntity<byte[]> getNonFinishedMatches(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Request to get matches received");
-        return ResponseEntity.ok()
-                .body(matchService.getNonFinishedMatches());
+        return jsonResponseCache.respond(matchService.getNonFinishedMatches(), ifNoneMatch, acceptEncoding);
     }
 
     /**
      * Retrieves a list of matches for a specific competition ID.
      *
-     * @param competitionId The ID of the competition.
-     * @return A {@link ResponseEntity} containing a list of {@link Match}.
+     * @param competitionId  The ID of the competition.
+     * @param ifNoneMatch    The {@code If-None-Match} header of the request.
+     * @param acceptEncoding The {@code Accept-Encoding} header of the request.
+     * @return A {@link ResponseEntity} containing the JSON of a list of {@link Match}, or NOT_MODIFIED.
      * @see MatchService#getMatchesByCompetitionId(Integer)
      */
     @GetMapping(value = "/matches", params = "competitionId")
-    public ResponseEntity<List<Match>> getMatchesByCompetitionId(@RequestParam Integer competitionId) {
+    public ResponseEntity<byte[]> getMatchesByCompetitionId(
+            @RequestParam Integer competitionId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Request to get matches of competition with ID " + competitionId + " received");
-        return ResponseEntity.ok()
-                .body(matchService.getMatchesByCompetitionId(competitionId));
+        return jsonResponseCache.respond(matchService.getMatchesByCompetitionId(competitionId), ifNoneMatch, acceptEncoding);
     }
 
     /**
      * Retrieves standings for a specific competition ID.
      *
-     * @param competitionId The ID of the competition.
-     * @return A {@link ResponseEntity} containing a list of {@link CompetitionStandingsResponse}.
+     * @param competitionId  The ID of the competition.
+     * @param ifNoneMatch    The {@code If-None-Match} header of the request.
+     * @param acceptEncoding The {@code Accept-Encoding} header of the request.
+     * @return A {@link ResponseEntity} containing the JSON of a list of {@link CompetitionStandingsResponse}, or NOT_MODIFIED.
      * @see StandingsService#getStandingsByCompetitionId(Integer)
      */
     @GetMapping(value = "/standings", params = "competitionId")
-    public ResponseEntity<List<CompetitionStandingsResponse>> getStandingsByCompetitionId(@RequestParam Integer competitionId) {
+    public ResponseEntity<byte[]> getStandingsByCompetitionId(
+            @RequestParam Integer competitionId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Request to get standings of competition with ID " + competitionId + " received");
 
-        return ResponseEntity.ok()
-                .body(standingsService.getStandingsByCompetitionId(competitionId));
+        return jsonResponseCache.respond(standingsService.getStandingsByCompetitionId(competitionId),
+                ifNoneMatch, acceptEncoding);
     }
 }
@@ -1,12 +1,12 @@
 package com.leandroruhl.betkickapi.dto.external_api;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * DTO representing a response containing head-to-head statistics between two teams, received from
@@ -20,7 +20,7 @@ public class HeadToHeadResponse {
     /**
      * The list of matches between the two teams.
      */
-    private List<Map<String, Object>> matches;
+    private List<MatchResult> matches;
 
     /**
      * The total number of matches played between the two teams.
@@ -37,27 +37,32 @@ public class HeadToHeadResponse {
      */
     private TeamStatsResponse awayTeamStats;
 
+    /**
+     * Aggregated statistics of the head-to-head matches.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record Aggregates(Integer numberOfMatches, ResultCounts homeTeam, ResultCounts awayTeam) {
+    }
+
     /**
      * Unpacks and maps nested aggregates from the API response.
      *
-     * @param aggregates The nested aggregates map containing additional information.
+     * @param aggregates The nested {@link Aggregates} containing additional information.
      */
     @JsonProperty("aggregates")
-    private void unpackNested(Map<String, Object> aggregates) {
-        this.numberOfMatches = ((Integer) aggregates.get("numberOfMatches")).doubleValue();
-        Map<String, Object> home = (Map<String, Object>) aggregates.get("homeTeam");
-        Map<String, Object> away = (Map<String, Object>) aggregates.get("awayTeam");
+    private void unpackNested(Aggregates aggregates) {
+        this.numberOfMatches = ResultCounts.toDouble(aggregates.numberOfMatches());
 
         TeamStatsResponse homeTeamStats = new TeamStatsResponse();
         TeamStatsResponse awayTeamStats = new TeamStatsResponse();
 
-        homeTeamStats.setWins(((Integer) home.get("wins")).doubleValue());
-        homeTeamStats.setDraws(((Integer) home.get("draws")).doubleValue());
-        homeTeamStats.setLosses(((Integer) home.get("losses")).doubleValue());
+        homeTeamStats.setWins(ResultCounts.toDouble(aggregates.homeTeam().wins()));
+        homeTeamStats.setDraws(ResultCounts.toDouble(aggregates.homeTeam().draws()));
+        homeTeamStats.setLosses(ResultCounts.toDouble(aggregates.homeTeam().losses()));
 
-        awayTeamStats.setWins(((Integer) away.get("wins")).doubleValue());
-        awayTeamStats.setDraws(((Integer) away.get("draws")).doubleValue());
-        awayTeamStats.setLosses(((Integer) away.get("losses")).doubleValue());
+        awayTeamStats.setWins(ResultCounts.toDouble(aggregates.awayTeam().wins()));
+        awayTeamStats.setDraws(ResultCounts.toDouble(aggregates.awayTeam().draws()));
+        awayTeamStats.setLosses(ResultCounts.toDouble(aggregates.awayTeam().losses()));
 
         this.homeTeamStats = homeTeamStats;
         this.awayTeamStats = awayTeamStats;
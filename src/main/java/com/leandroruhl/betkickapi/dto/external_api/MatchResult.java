@@ -0,0 +1,104 @@
+package com.leandroruhl.betkickapi.dto.external_api;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.leandroruhl.betkickapi.model.enums.Winner;
+
+import java.io.IOException;
+
+/**
+ * DTO representing the result of a past match listed in a team matches or head-to-head response, received from
+ * <a href="https://www.football-data.org/">football-data.org API</a>.
+ * <br>
+ * <br>
+ * Only the fields used by the odds calculation are kept. The rest of the match (competition, referees, odds, etc.)
+ * is skipped while parsing, without being materialized.
+ *
+ * @param homeTeamId The ID of the home team.
+ * @param awayTeamId The ID of the away team.
+ * @param winner     The winner of the match, null if the match hasn't finished.
+ */
+@JsonDeserialize(using = MatchResult.Deserializer.class)
+public record MatchResult(Integer homeTeamId, Integer awayTeamId, Winner winner) {
+
+    /**
+     * Streaming deserializer that reads the home team ID, away team ID and winner of a match and skips
+     * everything else.
+     */
+    static class Deserializer extends StdDeserializer<MatchResult> {
+
+        Deserializer() {
+            super(MatchResult.class);
+        }
+
+        @Override
+        public MatchResult deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() != JsonToken.START_OBJECT)
+                return (MatchResult) context.handleUnexpectedToken(MatchResult.class, parser);
+
+            Integer homeTeamId = null;
+            Integer awayTeamId = null;
+            Winner winner = null;
+
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "homeTeam" -> homeTeamId = readInteger(parser, token, "id");
+                    case "awayTeam" -> awayTeamId = readInteger(parser, token, "id");
+                    case "score" -> {
+                        String value = readString(parser, token, "winner");
+                        winner = value == null ? null : Winner.valueOf(value);
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            return new MatchResult(homeTeamId, awayTeamId, winner);
+        }
+
+        /**
+         * Reads a single integer field of a nested object, skipping the rest of the object.
+         */
+        private static Integer readInteger(JsonParser parser, JsonToken token, String name) throws IOException {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return null;
+            }
+
+            Integer value = null;
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken valueToken = parser.nextToken();
+                if (field.equals(name) && valueToken == JsonToken.VALUE_NUMBER_INT)
+                    value = parser.getIntValue();
+                else
+                    parser.skipChildren();
+            }
+            return value;
+        }
+
+        /**
+         * Reads a single string field of a nested object, skipping the rest of the object.
+         */
+        private static String readString(JsonParser parser, JsonToken token, String name) throws IOException {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return null;
+            }
+
+            String value = null;
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken valueToken = parser.nextToken();
+                if (field.equals(name) && valueToken == JsonToken.VALUE_STRING)
+                    value = parser.getText();
+                else
+                    parser.skipChildren();
+            }
+            return value;
+        }
+    }
+}
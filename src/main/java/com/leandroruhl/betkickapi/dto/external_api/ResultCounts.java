@@ -0,0 +1,26 @@
+package com.leandroruhl.betkickapi.dto.external_api;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * DTO representing the wins, draws and losses aggregated over a set of matches, received from
+ * <a href="https://www.football-data.org/">football-data.org API</a> as the {@code resultSet} of a team matches
+ * response or the team aggregates of a head-to-head response.
+ *
+ * @param wins   The number of wins, null if not reported.
+ * @param draws  The number of draws, null if not reported.
+ * @param losses The number of losses, null if not reported.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ResultCounts(Integer wins, Integer draws, Integer losses) {
+
+    /**
+     * Converts a count into the representation used by the odds calculation.
+     *
+     * @param count The count, possibly null.
+     * @return The count as a double, 0 if it was null.
+     */
+    static double toDouble(Integer count) {
+        return count == null ? 0 : count.doubleValue();
+    }
+}
@@ -0,0 +1,28 @@
+package com.leandroruhl.betkickapi.dto.external_api;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.leandroruhl.betkickapi.model.enums.Duration;
+import com.leandroruhl.betkickapi.model.enums.Winner;
+
+/**
+ * DTO representing the score of a match, received from <a href="https://www.football-data.org/">football-data.org API</a>.
+ * The half time, regular time and extra time breakdowns are not used, so they are skipped while parsing.
+ *
+ * @param winner    The winner of the match, null if the match hasn't finished.
+ * @param duration  The duration of the match.
+ * @param fullTime  The goals at the end of the match, including penalty shootout goals.
+ * @param penalties The penalty shootout goals, only reported if the match went to penalties.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record ScoreResponse(Winner winner, Duration duration, Goals fullTime, Goals penalties) {
+
+    /**
+     * Goals scored by each team.
+     *
+     * @param home The goals of the home team.
+     * @param away The goals of the away team.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Goals(Integer home, Integer away) {
+    }
+}
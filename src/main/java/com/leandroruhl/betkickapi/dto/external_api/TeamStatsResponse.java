@@ -1,12 +1,12 @@
 package com.leandroruhl.betkickapi.dto.external_api;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.leandroruhl.betkickapi.model.enums.Winner;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * DTO representing team statistics response, received from <a href="https://www.football-data.org/">football-data.org API</a>.
@@ -18,7 +18,7 @@ public class TeamStatsResponse {
     /**
      * The list of matches for the team.
      */
-    private List<Map<String, Object>> matches;
+    private List<MatchResult> matches;
 
     /**
      * Stats over the last 2 years.
@@ -37,13 +37,13 @@ public class TeamStatsResponse {
     /**
      * Unpacks nested result set information.
      *
-     * @param resultSet The result set map containing wins, draws, and losses information.
+     * @param resultSet The {@link ResultCounts} containing wins, draws, and losses information.
      */
     @JsonProperty("resultSet")
-    private void unpackNestedResultSet(Map<String, Object> resultSet) {
-        this.wins = resultSet.get("wins") == null ? 0 : ((Integer) resultSet.get("wins")).doubleValue();
-        this.draws = resultSet.get("draws") == null ? 0 : ((Integer) resultSet.get("draws")).doubleValue();
-        this.losses = resultSet.get("losses") == null ? 0 : ((Integer) resultSet.get("losses")).doubleValue();
+    private void unpackNestedResultSet(ResultCounts resultSet) {
+        this.wins = ResultCounts.toDouble(resultSet.wins());
+        this.draws = ResultCounts.toDouble(resultSet.draws());
+        this.losses = ResultCounts.toDouble(resultSet.losses());
     }
 
     /**
@@ -60,23 +60,18 @@ public class TeamStatsResponse {
         if (matches.isEmpty())
             return;
         for (int i = matches.size() - 1; i >= 0 && count < 7; i--) {
-            Map<String, Object> match = matches.get(i);
-            if (match.isEmpty())
-                break;
+            MatchResult match = matches.get(i);
 
-            String winner = (String) ((Map<String, Object>) match.get("score")).get("winner");
+            Winner winner = match.winner();
             if (winner == null)
                 continue;
 
-            Integer homeTeamId = (Integer) ((Map<String, Object>) match.get("homeTeam")).get("id");
-            Integer awayTeamId = (Integer) ((Map<String, Object>) match.get("awayTeam")).get("id");
+            boolean isTeamHome = teamId.equals(match.homeTeamId());
+            boolean isTeamAway = teamId.equals(match.awayTeamId());
 
-            boolean isTeamHome = homeTeamId.equals(teamId);
-            boolean isTeamAway = awayTeamId.equals(teamId);
-
-            if ((isTeamHome && winner.equals("HOME_TEAM")) || (isTeamAway && winner.equals("AWAY_TEAM"))) {
+            if ((isTeamHome && winner == Winner.HOME_TEAM) || (isTeamAway && winner == Winner.AWAY_TEAM)) {
                 recentWins++;
-            } else if (winner.equals("DRAW")) {
+            } else if (winner == Winner.DRAW) {
                 recentDraws++;
             } else {
                 recentLosses++;
@@ -0,0 +1,43 @@
+package com.leandroruhl.betkickapi.dto.internal_api;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.leandroruhl.betkickapi.model.enums.Status;
+import com.leandroruhl.betkickapi.model.enums.Winner;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO representing a bet of a page of a user's bet history, along with a summary of the match it was placed on.
+ * It's built directly by a constructor expression of the history query, so the order of the fields
+ * must match the order of the selected columns.
+ *
+ * @see com.leandroruhl.betkickapi.repository.BetRepository#findHistoryByUserId(java.util.UUID, org.springframework.data.domain.Pageable)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BetHistoryEntry {
+    private Long id;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime placedAt;
+    private Double odds;
+    private Double amount;
+    private Boolean isWon;
+    private Winner winner;
+    private Integer matchId;
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss'Z'")
+    private LocalDateTime matchDate;
+    private Status matchStatus;
+    private Winner matchWinner;
+    private Integer homeGoals;
+    private Integer awayGoals;
+    private String competitionName;
+    private String competitionEmblem;
+    private String homeTeamName;
+    private String homeTeamCrest;
+    private String awayTeamName;
+    private String awayTeamCrest;
+}
@@ -0,0 +1,20 @@
+package com.leandroruhl.betkickapi.dto.internal_api;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing a page of a user's bet history, newest bets first.
+ * The cursor is an opaque token that identifies the last bet of the page, so the next page is requested with
+ * {@code nextCursor} until it's null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BetHistoryPage {
+    private List<BetHistoryEntry> bets;
+    private String nextCursor;
+}
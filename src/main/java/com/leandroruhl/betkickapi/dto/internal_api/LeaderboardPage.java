@@ -0,0 +1,21 @@
+package com.leandroruhl.betkickapi.dto.internal_api;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO representing a page of the leaderboard.
+ * The cursor of a page is the position of the last user of the previous page, so the next page is requested with
+ * {@code nextCursor} until it's null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardPage {
+    private List<UserBetSummary> users;
+    private Integer nextCursor;
+    private Integer totalUsers;
+}
@@ -0,0 +1,17 @@
+package com.leandroruhl.betkickapi.exception;
+
+/**
+ * Exception thrown when the bets of a slip can't be confirmed at the moment, because the writer of bet placements
+ * didn't get to them in time or is shutting down.
+ */
+public class BetPlacementUnavailableException extends RuntimeException {
+
+    /**
+     * Constructs a {@code BetPlacementUnavailableException} with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public BetPlacementUnavailableException(String message) {
+        super(message);
+    }
+}
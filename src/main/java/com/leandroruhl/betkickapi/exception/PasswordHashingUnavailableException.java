@@ -0,0 +1,17 @@
+package com.leandroruhl.betkickapi.exception;
+
+/**
+ * Exception thrown when a password can't be hashed or checked at the moment, because too many logins and sign-ups
+ * are already waiting for it.
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    /**
+     * Constructs a {@code PasswordHashingUnavailableException} with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
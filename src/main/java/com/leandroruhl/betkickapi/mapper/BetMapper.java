@@ -0,0 +1,30 @@
+package com.leandroruhl.betkickapi.mapper;
+
+import com.leandroruhl.betkickapi.dto.internal_api.BetHistoryResponse;
+import com.leandroruhl.betkickapi.model.Bet;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps {@link Bet} entities to the DTOs exposed by the API.
+ */
+@Component
+public class BetMapper {
+
+    /**
+     * Converts a {@link Bet} entity to a {@link BetHistoryResponse} DTO.
+     *
+     * @param bet The {@link Bet} object to be converted.
+     * @return The corresponding {@link BetHistoryResponse} DTO.
+     */
+    public BetHistoryResponse toHistoryResponse(Bet bet) {
+        BetHistoryResponse response = new BetHistoryResponse();
+        response.setId(bet.getId());
+        response.setPlacedAt(bet.getPlacedAt());
+        response.setOdds(bet.getOdds());
+        response.setAmount(bet.getAmount());
+        response.setIsWon(bet.getIsWon());
+        response.setWinner(bet.getWinner());
+        response.setMatch(bet.getMatch());
+        return response;
+    }
+}
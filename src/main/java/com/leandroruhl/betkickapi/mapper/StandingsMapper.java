@@ -0,0 +1,58 @@
+package com.leandroruhl.betkickapi.mapper;
+
+import com.leandroruhl.betkickapi.dto.internal_api.CompetitionStandingsResponse;
+import com.leandroruhl.betkickapi.dto.internal_api.StandingResponse;
+import com.leandroruhl.betkickapi.model.CompetitionStandings;
+import com.leandroruhl.betkickapi.model.Standing;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps {@link CompetitionStandings} and {@link Standing} entities to the DTOs exposed by the API.
+ */
+@Component
+public class StandingsMapper {
+
+    /**
+     * Converts a {@link CompetitionStandings} entity, including its standings, to a {@link CompetitionStandingsResponse} DTO.
+     *
+     * @param competitionStandings The {@link CompetitionStandings} object to be converted.
+     * @return The corresponding {@link CompetitionStandingsResponse} DTO.
+     */
+    public CompetitionStandingsResponse toResponse(CompetitionStandings competitionStandings) {
+        CompetitionStandingsResponse response = new CompetitionStandingsResponse();
+        response.setCompetition(competitionStandings.getCompetition());
+        response.setGroup(competitionStandings.getGroup());
+
+        List<Standing> standings = competitionStandings.getStandings();
+        if (standings != null) {
+            List<StandingResponse> standingResponses = new ArrayList<>(standings.size());
+            for (Standing standing : standings)
+                standingResponses.add(toResponse(standing));
+            response.setStandings(standingResponses);
+        }
+        return response;
+    }
+
+    /**
+     * Converts a {@link Standing} entity to a {@link StandingResponse} DTO.
+     *
+     * @param standing The {@link Standing} object to be converted.
+     * @return The corresponding {@link StandingResponse} DTO.
+     */
+    public StandingResponse toResponse(Standing standing) {
+        StandingResponse response = new StandingResponse();
+        response.setPosition(standing.getPosition());
+        response.setTeam(standing.getTeam());
+        response.setWon(standing.getWon());
+        response.setDraw(standing.getDraw());
+        response.setLost(standing.getLost());
+        response.setPoints(standing.getPoints());
+        response.setGoalsFor(standing.getGoalsFor());
+        response.setGoalsAgainst(standing.getGoalsAgainst());
+        response.setGoalDifference(standing.getGoalDifference());
+        return response;
+    }
+}
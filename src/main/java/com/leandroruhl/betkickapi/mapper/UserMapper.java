@@ -0,0 +1,43 @@
+package com.leandroruhl.betkickapi.mapper;
+
+import com.leandroruhl.betkickapi.dto.security.SignUpDto;
+import com.leandroruhl.betkickapi.dto.security.UserDto;
+import com.leandroruhl.betkickapi.model.User;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps {@link User} entities to and from the DTOs exposed by the API.
+ */
+@Component
+public class UserMapper {
+
+    /**
+     * Converts a {@link User} entity to a {@link UserDto} DTO. The token is left empty.
+     *
+     * @param user The {@link User} object to be converted.
+     * @return The corresponding {@link UserDto} DTO.
+     */
+    public UserDto toDto(User user) {
+        return UserDto.builder()
+                .id(user.getId() == null ? null : user.getId().toString())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .login(user.getLogin())
+                .build();
+    }
+
+    /**
+     * Converts a {@link SignUpDto} DTO to a new {@link User} entity. The password is left empty,
+     * since it has to be encoded before being stored.
+     *
+     * @param signUpDto The {@link SignUpDto} object to be converted.
+     * @return The corresponding {@link User} entity.
+     */
+    public User fromSignUp(SignUpDto signUpDto) {
+        User user = new User();
+        user.setFirstName(signUpDto.getFirstName());
+        user.setLastName(signUpDto.getLastName());
+        user.setLogin(signUpDto.getLogin());
+        return user;
+    }
+}
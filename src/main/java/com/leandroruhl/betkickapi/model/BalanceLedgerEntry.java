@@ -0,0 +1,74 @@
+package com.leandroruhl.betkickapi.model;
+
+import com.leandroruhl.betkickapi.model.enums.LedgerEntryType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The BalanceLedgerEntry class represents a movement of the account balance of a {@link User}.
+ * <br>
+ * <br>
+ * The ledger is append-only: entries are written in the same transaction as the balance update they describe
+ * and are never modified. Every account starts with an {@code OPENING_BALANCE} entry for the balance it's created
+ * with, so the balance of a user equals the sum of the amounts of their entries.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_balance_ledger_entry_user", columnList = "userId, createdAt"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
+public class BalanceLedgerEntry {
+
+    /**
+     * The unique identifier for the entry.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    /**
+     * The ID of the user whose balance changed.
+     */
+    @Column(nullable = false, updatable = false)
+    private UUID userId;
+
+    /**
+     * The amount added to the balance, negative for withdrawals.
+     */
+    @Column(nullable = false, updatable = false)
+    private Double amount;
+
+    /**
+     * The kind of movement.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private LedgerEntryType type;
+
+    /**
+     * The ID of the match whose bets originated the movement, if any.
+     */
+    @Column(updatable = false)
+    private Integer matchId;
+
+    /**
+     * The date and time in UTC when the movement happened.
+     */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public BalanceLedgerEntry(UUID userId, Double amount, LedgerEntryType type, LocalDateTime createdAt) {
+        this.userId = userId;
+        this.amount = amount;
+        this.type = type;
+        this.createdAt = createdAt;
+    }
+}
@@ -14,6 +14,8 @@ import java.time.LocalDateTime;
  * The Bet class represents a betting activity on a football match.
  */
 @Entity
+// Serves the keyset pagination of the bet history of a user
+@Table(indexes = @Index(name = "idx_bet_user_placed_at", columnList = "user_id, placed_at, id"))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -24,7 +26,9 @@ public class Bet {
      * The unique identifier for the bet.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence IDs are allocated ahead, so Hibernate can insert the bets of a batch in a single JDBC batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bet_seq")
+    @SequenceGenerator(name = "bet_seq", sequenceName = "bet_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -39,6 +43,11 @@ public class Bet {
      */
     private Double odds;
 
+    /**
+     * The version of the odds of the match that the bet was placed with.
+     */
+    private Integer oddsVersion;
+
     /**
      * The amount of the bet.
      */
@@ -2,6 +2,7 @@ package com.leandroruhl.betkickapi.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.leandroruhl.betkickapi.dto.external_api.ScoreResponse;
 import com.leandroruhl.betkickapi.model.embbeded.MatchOdds;
 import com.leandroruhl.betkickapi.model.embbeded.Score;
 import com.leandroruhl.betkickapi.model.enums.Duration;
@@ -14,7 +15,6 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.Map;
 
 /**
  * The Match class represents a football match, including details such as teams, scores, odds, and status.
@@ -78,6 +78,11 @@ public class Match extends AbstractPersistableEntity<Integer> {
     @Embedded
     private MatchOdds odds;
 
+    /**
+     * The version of the odds of the match, which increases every time they change.
+     */
+    private Integer oddsVersion;
+
     /**
      * The home team participating in the match.
      */
@@ -95,27 +100,24 @@ public class Match extends AbstractPersistableEntity<Integer> {
     /**
      * Unpacks nested JSON data to set the score details.
      *
-     * @param score A map containing score details.
+     * @param score The {@link ScoreResponse} containing score details.
      */
     @JsonProperty("score")
-    private void unpackNested(Map<String, Object> score) {
+    private void unpackNested(ScoreResponse score) {
         this.score = new Score();
-        Map<String, Integer> fullTimeScore = (Map<String, Integer>) score.get("fullTime");
-        String winner = (String) score.get("winner");
-        this.winner = winner == null ? null : Winner.valueOf(winner);
-        this.duration = Duration.valueOf((String) score.get("duration"));
+        ScoreResponse.Goals fullTimeScore = score.fullTime();
+        this.winner = score.winner();
+        this.duration = score.duration();
         if (this.duration == Duration.PENALTY_SHOOTOUT) {
-            Map<String, Integer> penalties = (Map<String, Integer>) score.get("penalties");
-            Integer penaltiesHome = penalties.get("home");
-            Integer penaltiesAway = penalties.get("away");
+            Integer penaltiesHome = score.penalties().home();
+            Integer penaltiesAway = score.penalties().away();
             this.score.setPenaltiesHome(penaltiesHome);
             this.score.setPenaltiesAway(penaltiesAway);
-            this.score.setHome(fullTimeScore.get("home") - penaltiesHome);
-            this.score.setAway(fullTimeScore.get("away") - penaltiesAway);
+            this.score.setHome(fullTimeScore.home() - penaltiesHome);
+            this.score.setAway(fullTimeScore.away() - penaltiesAway);
         } else {
-            this.score.setHome(fullTimeScore.get("home"));
-            this.score.setAway(fullTimeScore.get("away"));
+            this.score.setHome(fullTimeScore.home());
+            this.score.setAway(fullTimeScore.away());
         }
     }
 }
-
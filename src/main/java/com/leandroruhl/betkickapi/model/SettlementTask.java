@@ -0,0 +1,74 @@
+package com.leandroruhl.betkickapi.model;
+
+import com.leandroruhl.betkickapi.model.enums.SettlementStatus;
+import com.leandroruhl.betkickapi.model.enums.Winner;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The SettlementTask class represents the pending settlement of the bets of a finished match.
+ * <br>
+ * <br>
+ * Tasks are stored in the same transaction that marks the match as finished, and are settled afterwards by the
+ * {@link com.leandroruhl.betkickapi.service.settlement.SettlementWorker}, so paying the bets of a match never
+ * slows down or rolls back the update of the live scores. The match ID is the identifier of the task, so a match
+ * can't be enqueued twice.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_settlement_task_status_next_attempt", columnList = "status, nextAttemptAt"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
+public class SettlementTask extends AbstractPersistableEntity<Integer> {
+
+    /**
+     * The ID of the finished match whose bets are settled.
+     */
+    @Id
+    @EqualsAndHashCode.Include
+    private Integer matchId;
+
+    /**
+     * The winner of the match, null if the match had no winner (all of its bets are lost).
+     */
+    @Enumerated(EnumType.STRING)
+    private Winner winner;
+
+    /**
+     * The stage of the task.
+     */
+    @Enumerated(EnumType.STRING)
+    private SettlementStatus status;
+
+    /**
+     * The number of failed attempts to settle the bets of the match.
+     */
+    private Integer attempts;
+
+    /**
+     * The date and time in UTC from which the task can be picked up by a worker.
+     */
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * The date and time in UTC of the last change of status of the task.
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * The message of the last failure, if any.
+     */
+    @Column(length = 1000)
+    private String lastError;
+
+    @Override
+    public Integer getId() {
+        return matchId;
+    }
+}
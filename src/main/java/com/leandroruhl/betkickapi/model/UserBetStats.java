@@ -0,0 +1,52 @@
+package com.leandroruhl.betkickapi.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * The UserBetStats class holds the betting performance of a user over their settled bets.
+ * <br>
+ * <br>
+ * It's a materialized view of the {@code bet} table that is updated incrementally every time the bets of a match are
+ * settled, so the leaderboard never has to aggregate the whole table.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode(onlyExplicitlyIncluded = true, callSuper = false)
+public class UserBetStats {
+
+    /**
+     * The ID of the user.
+     */
+    @Id
+    @EqualsAndHashCode.Include
+    private UUID userId;
+
+    /**
+     * The login of the user.
+     */
+    private String login;
+
+    /**
+     * The number of won bets.
+     */
+    private Long betsWon;
+
+    /**
+     * The number of lost bets.
+     */
+    private Long betsLost;
+
+    /**
+     * The winnings of the won bets minus the amount of the lost bets.
+     */
+    private Double earnings;
+}
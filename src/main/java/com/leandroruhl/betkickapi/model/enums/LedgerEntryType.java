@@ -0,0 +1,14 @@
+package com.leandroruhl.betkickapi.model.enums;
+
+/**
+ * The LedgerEntryType enumeration represents the kinds of movements recorded in the balance ledger of a user:
+ * the balance the account was created with, money deposited into the account, money withdrawn from it,
+ * the winnings of settled bets and the refunds of canceled bets.
+ */
+public enum LedgerEntryType {
+    OPENING_BALANCE,
+    DEPOSIT,
+    WITHDRAWAL,
+    BET_WINNINGS,
+    BET_REFUND
+}
@@ -0,0 +1,12 @@
+package com.leandroruhl.betkickapi.model.enums;
+
+/**
+ * The SettlementStatus enumeration represents the stages a {@link com.leandroruhl.betkickapi.model.SettlementTask}
+ * goes through: waiting to be settled, being settled by a worker, settled, or given up on after too many failed attempts.
+ */
+public enum SettlementStatus {
+    PENDING,
+    IN_PROGRESS,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,35 @@
+package com.leandroruhl.betkickapi.repository;
+
+import com.leandroruhl.betkickapi.model.BalanceLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The BalanceLedgerEntryRepository interface extends the {@link JpaRepository} for managing {@link BalanceLedgerEntry} entities.
+ * It also provides a bulk insert for recording the winnings of the bets of a finished match.
+ */
+@Repository
+public interface BalanceLedgerEntryRepository extends JpaRepository<BalanceLedgerEntry, Long> {
+
+    /**
+     * Records, in a single statement, one entry per user with the winnings of their unsettled winning bets of a match.
+     * <br>
+     * <br>
+     * It has to be executed before the bets are settled, because only unsettled bets are taken into account.
+     *
+     * @param matchId The ID of the finished match.
+     * @param winner  The name of the winner of the match.
+     * @return The number of recorded entries.
+     * @see UserRepository#creditWinningsByMatchId(Integer, String)
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO balance_ledger_entry (user_id, amount, type, match_id, created_at) " +
+            "SELECT B.user_id, SUM(B.amount * B.odds), 'BET_WINNINGS', :matchId, UTC_TIMESTAMP() " +
+            "FROM bet B " +
+            "WHERE B.match_id = :matchId AND B.winner = :winner AND B.is_won IS NULL " +
+            "GROUP BY B.user_id")
+    int recordWinningsByMatchId(@Param("matchId") Integer matchId, @Param("winner") String winner);
+}
@@ -1,11 +1,16 @@
 package com.leandroruhl.betkickapi.repository;
 
+import com.leandroruhl.betkickapi.dto.internal_api.BetHistoryEntry;
 import com.leandroruhl.betkickapi.model.Bet;
+import com.leandroruhl.betkickapi.model.enums.Winner;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,6 +21,20 @@ import java.util.UUID;
 @Repository
 public interface BetRepository extends JpaRepository<Bet, Integer> {
 
+    /**
+     * Selects the columns of a {@link BetHistoryEntry} for the bets of a user.
+     */
+    String HISTORY_SELECT = "SELECT new com.leandroruhl.betkickapi.dto.internal_api.BetHistoryEntry(" +
+            "b.id, b.placedAt, b.odds, b.amount, b.isWon, b.winner, " +
+            "m.id, m.utcDate, m.status, m.winner, m.score.home, m.score.away, " +
+            "c.name, c.emblem, home.name, home.crest, away.name, away.crest) " +
+            "FROM Bet b " +
+            "JOIN b.match m " +
+            "LEFT JOIN m.competition c " +
+            "LEFT JOIN m.homeTeam home " +
+            "LEFT JOIN m.awayTeam away " +
+            "WHERE b.user.id = :userId ";
+
     /**
      * Retrieves a list of bets for a given match ID with eager fetching of associated user entity.
      *
@@ -40,5 +59,49 @@ public interface BetRepository extends JpaRepository<Bet, Integer> {
             "LEFT JOIN FETCH b.match.awayTeam " +
             "WHERE b.user.id = :userId")
     List<Bet> findByUserId(@Param("userId") UUID userId);
-}
 
+    /**
+     * Retrieves the first page of the bet history of a user, newest bets first.
+     * Only the columns shown in the history are selected, and no entity is loaded into the persistence context.
+     *
+     * @param userId   The ID of the user.
+     * @param pageable The size of the page, its sort is ignored.
+     * @return A list of {@link BetHistoryEntry} objects.
+     */
+    @Query(HISTORY_SELECT +
+            "ORDER BY b.placedAt DESC, b.id DESC")
+    List<BetHistoryEntry> findHistoryByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    /**
+     * Retrieves a page of the bet history of a user that starts right after the given bet, newest bets first.
+     * The page is located with a range on the (user_id, placed_at, id) index rather than an offset,
+     * so every page costs the same regardless of how deep into the history it is.
+     *
+     * @param userId   The ID of the user.
+     * @param placedAt The date and time when the last bet of the previous page was placed.
+     * @param id       The ID of the last bet of the previous page.
+     * @param pageable The size of the page, its sort is ignored.
+     * @return A list of {@link BetHistoryEntry} objects.
+     */
+    @Query(HISTORY_SELECT +
+            "AND (b.placedAt < :placedAt OR (b.placedAt = :placedAt AND b.id < :id)) " +
+            "ORDER BY b.placedAt DESC, b.id DESC")
+    List<BetHistoryEntry> findHistoryByUserIdBefore(@Param("userId") UUID userId,
+                                                   @Param("placedAt") LocalDateTime placedAt,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
+
+    /**
+     * Settles every unsettled bet of a match in a single statement, marking as won the bets that guessed the winner
+     * of the match and as lost the rest.
+     *
+     * @param matchId The ID of the finished match.
+     * @param winner  The winner of the match.
+     * @return The number of settled bets.
+     */
+    @Modifying
+    @Query("UPDATE Bet b " +
+            "SET b.isWon = CASE WHEN b.winner = :winner THEN true ELSE false END " +
+            "WHERE b.match.id = :matchId AND b.isWon IS NULL")
+    int settleBetsByMatchId(@Param("matchId") Integer matchId, @Param("winner") Winner winner);
+}
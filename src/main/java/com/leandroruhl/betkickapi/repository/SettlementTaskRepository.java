@@ -0,0 +1,84 @@
+package com.leandroruhl.betkickapi.repository;
+
+import com.leandroruhl.betkickapi.model.SettlementTask;
+import com.leandroruhl.betkickapi.model.enums.SettlementStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The SettlementTaskRepository interface extends the {@link JpaRepository} for managing {@link SettlementTask} entities.
+ * It provides the queries used by the settlement workers to pick up and claim pending tasks.
+ */
+@Repository
+public interface SettlementTaskRepository extends JpaRepository<SettlementTask, Integer> {
+
+    /**
+     * Retrieves the IDs of the pending tasks that can be attempted, oldest first.
+     *
+     * @param now      The current date and time in UTC.
+     * @param pageable The pagination information, used to limit the number of tasks.
+     * @return A list of match IDs of the due tasks.
+     */
+    @Query("SELECT t.matchId FROM SettlementTask t " +
+            "WHERE t.status = 'PENDING' AND t.nextAttemptAt <= :now " +
+            "ORDER BY t.nextAttemptAt")
+    List<Integer> findDueTaskIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Stores a pending task for a finished match, unless the match already has one. The check and the insert are a
+     * single statement, so concurrent jobs that see the same match finish can't both insert it and fail on the
+     * primary key. Only the duplicate key is ignored, by leaving the existing task as it is: any other error fails
+     * the statement, so a task is never silently dropped.
+     *
+     * @param matchId The ID of the finished match.
+     * @param winner  The name of the winner of the match.
+     * @param now     The current date and time in UTC.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO settlement_task " +
+            "(match_id, winner, status, attempts, next_attempt_at, updated_at) " +
+            "VALUES (:matchId, :winner, 'PENDING', 0, :now, :now) " +
+            "ON DUPLICATE KEY UPDATE match_id = match_id")
+    void insertIfAbsent(@Param("matchId") Integer matchId, @Param("winner") String winner,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * Claims a pending task for a worker. The status check makes the claim atomic, so a task is never
+     * settled by two workers (or two instances of the application) at the same time.
+     *
+     * @param matchId The ID of the task.
+     * @param now     The current date and time in UTC.
+     * @return 1 if the task was claimed, 0 if it had already been claimed.
+     */
+    @Modifying
+    @Query("UPDATE SettlementTask t SET t.status = 'IN_PROGRESS', t.updatedAt = :now " +
+            "WHERE t.matchId = :matchId AND t.status = 'PENDING'")
+    int claim(@Param("matchId") Integer matchId, @Param("now") LocalDateTime now);
+
+    /**
+     * Puts back in the queue the tasks that have been in progress for too long, which happens when the application
+     * stops while they are being settled.
+     *
+     * @param claimedBefore The date and time in UTC before which a claimed task is considered abandoned.
+     * @return The number of released tasks.
+     */
+    @Modifying
+    @Query("UPDATE SettlementTask t SET t.status = 'PENDING' " +
+            "WHERE t.status = 'IN_PROGRESS' AND t.updatedAt < :claimedBefore")
+    int releaseAbandonedTasks(@Param("claimedBefore") LocalDateTime claimedBefore);
+
+    /**
+     * Counts the tasks in a given status.
+     *
+     * @param status The {@link SettlementStatus}.
+     * @return The number of tasks.
+     */
+    long countByStatus(SettlementStatus status);
+}
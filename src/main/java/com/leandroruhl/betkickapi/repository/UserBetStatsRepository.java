@@ -0,0 +1,76 @@
+package com.leandroruhl.betkickapi.repository;
+
+import com.leandroruhl.betkickapi.model.UserBetStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The UserBetStatsRepository interface extends the {@link JpaRepository} for managing {@link UserBetStats} entities.
+ * It provides the upserts that keep the stats up to date with the settled bets.
+ */
+@Repository
+public interface UserBetStatsRepository extends JpaRepository<UserBetStats, UUID> {
+
+    /**
+     * Adds the outcome of the unsettled bets of a finished match to the stats of their users, in a single statement.
+     * <br>
+     * <br>
+     * It has to be executed before the bets are settled, because only unsettled bets are taken into account.
+     *
+     * @param matchId The ID of the finished match.
+     * @param winner  The name of the winner of the match, null if it had no winner.
+     * @return The number of affected rows.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO user_bet_stats (user_id, login, bets_won, bets_lost, earnings) " +
+            "SELECT U.id, U.login, " +
+            "SUM(IF(B.winner = :winner, 1, 0)), " +
+            "SUM(IF(B.winner = :winner, 0, 1)), " +
+            "SUM(IF(B.winner = :winner, B.amount * B.odds, -B.amount)) " +
+            "FROM bet B " +
+            "JOIN user U ON U.id = B.user_id " +
+            "WHERE B.match_id = :matchId AND B.is_won IS NULL " +
+            "GROUP BY U.id, U.login " +
+            "ON DUPLICATE KEY UPDATE " +
+            "bets_won = bets_won + VALUES(bets_won), " +
+            "bets_lost = bets_lost + VALUES(bets_lost), " +
+            "earnings = earnings + VALUES(earnings)")
+    int recordSettlementByMatchId(@Param("matchId") Integer matchId, @Param("winner") String winner);
+
+    /**
+     * Recalculates the stats of every user from their settled bets. Only needed when bets are stored already settled.
+     *
+     * @return The number of affected rows.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "INSERT INTO user_bet_stats (user_id, login, bets_won, bets_lost, earnings) " +
+            "SELECT U.id, U.login, " +
+            "SUM(IF(B.is_won = TRUE, 1, 0)), " +
+            "SUM(IF(B.is_won = FALSE, 1, 0)), " +
+            "SUM(IF(B.is_won = TRUE, B.amount * B.odds, -B.amount)) " +
+            "FROM bet B " +
+            "JOIN user U ON U.id = B.user_id " +
+            "WHERE B.is_won IS NOT NULL " +
+            "GROUP BY U.id, U.login " +
+            "ON DUPLICATE KEY UPDATE " +
+            "bets_won = VALUES(bets_won), " +
+            "bets_lost = VALUES(bets_lost), " +
+            "earnings = VALUES(earnings)")
+    int rebuildFromSettledBets();
+
+    /**
+     * Retrieves the stats of the users that bet on a match.
+     *
+     * @param matchId The ID of the match.
+     * @return A list of {@link UserBetStats}.
+     */
+    @Query("SELECT s FROM UserBetStats s " +
+            "WHERE s.userId IN (SELECT b.user.id FROM Bet b WHERE b.match.id = :matchId)")
+    List<UserBetStats> findByMatchId(@Param("matchId") Integer matchId);
+}
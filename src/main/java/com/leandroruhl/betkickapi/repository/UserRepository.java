@@ -1,30 +1,86 @@
 package com.leandroruhl.betkickapi.repository;
 
-import com.leandroruhl.betkickapi.dto.internal_api.UserBetSummary;
 import com.leandroruhl.betkickapi.model.User;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * The {@code UserRepository} interface extends the {@link JpaRepository} for managing {@link User} entities.
- * It also provides a custom query for retrieving earnings and bets summary.
+ * It also provides the conditional updates used to change account balances atomically.
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
 
+    Optional<User> findByLogin(String login);
+
     /**
-     * Retrieves a list of {@link UserBetSummary} objects representing earnings and bets.
+     * Credits the winnings of the unsettled winning bets of a match to their users in a single statement.
+     * The winnings are aggregated per user, so every user balance is updated once regardless of how many
+     * bets they placed on the match.
+     * <br>
+     * <br>
+     * It has to be executed before the bets are settled, because only unsettled bets are taken into account.
      *
-     * @return A list of {@link UserBetSummary} objects.
+     * @param matchId The ID of the finished match.
+     * @param winner  The name of the winner of the match.
+     * @return The number of credited users.
      */
-    @Query(nativeQuery = true)
-    List<UserBetSummary> findEarningsAndBets();
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE user U " +
+            "JOIN (SELECT B.user_id, SUM(B.amount * B.odds) AS winnings " +
+            "FROM bet B " +
+            "WHERE B.match_id = :matchId AND B.winner = :winner AND B.is_won IS NULL " +
+            "GROUP BY B.user_id) W ON U.id = W.user_id " +
+            "SET U.account_balance = U.account_balance + W.winnings, U.version = U.version + 1")
+    int creditWinningsByMatchId(@Param("matchId") Integer matchId, @Param("winner") String winner);
 
-    Optional<User> findByLogin(String login);
+    /**
+     * Atomically subtracts an amount from the balance of a user, only if the balance covers it.
+     * Concurrent debits can't overdraw the account, since the check and the update are a single statement.
+     *
+     * @param id     The ID of the user.
+     * @param amount The amount to subtract.
+     * @return 1 if the balance was debited, 0 if the user doesn't exist or doesn't have sufficient funds.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.accountBalance = u.accountBalance - :amount, u.version = u.version + 1 " +
+            "WHERE u.id = :id AND u.accountBalance >= :amount")
+    int debit(@Param("id") UUID id, @Param("amount") Double amount);
+
+    /**
+     * Atomically adds an amount to the balance of a user, only if the balance doesn't exceed a maximum.
+     *
+     * @param id         The ID of the user.
+     * @param amount     The amount to add.
+     * @param maxBalance The maximum balance the user may have before the amount is added.
+     * @return 1 if the balance was credited, 0 if the user doesn't exist or the balance is too high.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.accountBalance = u.accountBalance + :amount, u.version = u.version + 1 " +
+            "WHERE u.id = :id AND u.accountBalance <= :maxBalance")
+    int credit(@Param("id") UUID id, @Param("amount") Double amount, @Param("maxBalance") Double maxBalance);
+
+    /**
+     * Replaces the hashed password of a user, only if it hasn't been changed since it was read.
+     *
+     * @param id          The ID of the user.
+     * @param oldPassword The hashed password that was read.
+     * @param newPassword The new hashed password.
+     * @return 1 if the password was replaced, 0 otherwise.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword, u.version = u.version + 1 " +
+            "WHERE u.id = :id AND u.password = :oldPassword")
+    int updatePassword(@Param("id") UUID id,
+                       @Param("oldPassword") String oldPassword,
+                       @Param("newPassword") String newPassword);
 }
 
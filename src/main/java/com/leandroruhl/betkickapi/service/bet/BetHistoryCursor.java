@@ -0,0 +1,49 @@
+package com.leandroruhl.betkickapi.service.bet;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of a bet in a user's bet history, which is sorted by placement date and then by ID, newest first.
+ * The next page of the history starts right after the position of the last bet of the previous page.
+ * <br>
+ * <br>
+ * Clients receive it as an opaque, URL safe token.
+ *
+ * @param placedAt The date and time when the bet was placed.
+ * @param id       The ID of the bet.
+ */
+record BetHistoryCursor(LocalDateTime placedAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes the cursor as a token.
+     *
+     * @return The URL safe token of the cursor.
+     */
+    String encode() {
+        String value = placedAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token created by {@link #encode()}.
+     *
+     * @param token The token of the cursor.
+     * @return The decoded {@link BetHistoryCursor}.
+     * @throws IllegalArgumentException If the token isn't a valid cursor.
+     */
+    static BetHistoryCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new BetHistoryCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)));
+        } catch (IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.leandroruhl.betkickapi.service.bet;
+
+import com.leandroruhl.betkickapi.model.Bet;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A bet slip waiting to be written by the {@link BetPlacementBatcher}, along with the future that is completed with
+ * the new account balance of its user once it's committed.
+ * <br>
+ * <br>
+ * Placements are compared by identity, since a user may place two identical slips in a row.
+ */
+public final class BetPlacement {
+
+    private final UUID userId;
+    private final List<Bet> bets;
+    private final double amount;
+    private final CompletableFuture<Double> result = new CompletableFuture<>();
+
+    private Double balance;
+    private RuntimeException failure;
+
+    BetPlacement(UUID userId, List<Bet> bets) {
+        this.userId = userId;
+        this.bets = bets;
+        this.amount = bets.stream().mapToDouble(Bet::getAmount).sum();
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public List<Bet> getBets() {
+        return bets;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    CompletableFuture<Double> getResult() {
+        return result;
+    }
+
+    /**
+     * Clears the outcome of a previous attempt to write the placement, whose transaction failed.
+     */
+    void pending() {
+        this.balance = null;
+        this.failure = null;
+        // The IDs assigned by the failed attempt were never committed
+        bets.forEach(bet -> bet.setId(null));
+    }
+
+    /**
+     * Records that the placement was written, with the balance of its user after it.
+     *
+     * @param balance The new account balance of the user.
+     */
+    void written(Double balance) {
+        this.balance = balance;
+    }
+
+    /**
+     * Records that the placement was rejected, e.g. because its user didn't have sufficient funds.
+     *
+     * @param failure The reason why the placement was rejected.
+     */
+    void rejected(RuntimeException failure) {
+        this.failure = failure;
+    }
+
+    boolean isRejected() {
+        return failure != null;
+    }
+
+    /**
+     * Completes the future of the placement with its outcome. Only called once the transaction that wrote the
+     * placement has committed or failed.
+     */
+    void complete() {
+        if (failure != null)
+            result.completeExceptionally(failure);
+        else
+            result.complete(balance);
+    }
+
+    /**
+     * Completes the future of the placement with the failure of the transaction that tried to write it.
+     *
+     * @param exception The failure of the transaction.
+     */
+    void fail(Throwable exception) {
+        result.completeExceptionally(exception);
+    }
+}
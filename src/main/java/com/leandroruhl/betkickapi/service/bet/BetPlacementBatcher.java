@@ -0,0 +1,223 @@
+package com.leandroruhl.betkickapi.service.bet;
+
+import com.leandroruhl.betkickapi.config.CacheNames;
+import com.leandroruhl.betkickapi.exception.BetPlacementUnavailableException;
+import com.leandroruhl.betkickapi.model.Bet;
+import com.leandroruhl.betkickapi.model.User;
+import com.leandroruhl.betkickapi.service.utility.CacheService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * BetPlacementBatcher group commits the bet slips placed by concurrent requests. Instead of every request debiting
+ * its user and inserting its bets in a transaction of its own, placements are queued and a single writer thread
+ * writes them in batches through the {@link BetPlacementWriter}: one transaction, one balance update per user and
+ * one JDBC batch of bets per batch of placements.
+ * <br>
+ * <br>
+ * Once the writer takes a placement, it waits up to {@code app.bet-placement.max-delay-ms} for more placements to
+ * arrive, up to {@code app.bet-placement.max-batch-size}. Placements also pile up while the previous batch is being
+ * written, so under load batches fill up without waiting at all. If a batch fails, its placements are written again
+ * one by one, so a single failing placement doesn't make the others fail.
+ * <br>
+ * <br>
+ * Callers wait up to {@code app.bet-placement.timeout-ms} for their placement. A placement that times out before
+ * the writer gets to it is dropped instead of written. On shutdown, the placements still queued are written before
+ * the writer stops, and the ones it can't write are failed, so no caller is left waiting.
+ * <br>
+ * <br>
+ * Metrics:
+ * <br>
+ * * {@code bet.placement.batch.size} (distribution summary): placements written per batch.
+ * <br>
+ * * {@code bet.placement.batch.duration} (timer, tagged by outcome): how long it took to write each batch.
+ */
+@Component
+@Slf4j
+public class BetPlacementBatcher {
+
+    private final BetPlacementWriter betPlacementWriter;
+    private final CacheService cacheService;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<BetPlacement> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long timeoutMillis;
+    private final ExecutorService writer;
+    private final DistributionSummary batchSize;
+    private volatile boolean running = true;
+
+    public BetPlacementBatcher(BetPlacementWriter betPlacementWriter, CacheService cacheService,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.bet-placement.max-batch-size:200}") int maxBatchSize,
+                               @Value("${app.bet-placement.max-delay-ms:2}") long maxDelayMillis,
+                               @Value("${app.bet-placement.queue-capacity:10000}") int queueCapacity,
+                               @Value("${app.bet-placement.timeout-ms:5000}") long timeoutMillis) {
+        this.betPlacementWriter = betPlacementWriter;
+        this.cacheService = cacheService;
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.timeoutMillis = timeoutMillis;
+        this.batchSize = DistributionSummary.builder("bet.placement.batch.size")
+                .register(meterRegistry);
+        this.writer = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("bet-placement-"));
+        this.writer.execute(this::writeBatches);
+    }
+
+    /**
+     * Queues the bets of a slip to be placed with the next batch.
+     *
+     * @param user The user placing the bets.
+     * @param bets The bets of the slip.
+     * @return A future completed with the new account balance of the user once the bets are committed, with an
+     * {@link com.leandroruhl.betkickapi.exception.AccountBalanceException} if the user doesn't have sufficient funds,
+     * or with a {@link TimeoutException} if the bets aren't written in time.
+     */
+    public CompletableFuture<Double> place(User user, List<Bet> bets) {
+        BetPlacement placement = new BetPlacement(user.getId(), bets);
+        placement.getResult().orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        if (!running || !queue.offer(placement)) {
+            // The writer can't keep up (or is stopping), so the placement is written by the caller itself
+            this.write(List.of(placement));
+        } else if (!running && queue.remove(placement)) {
+            // The writer may have drained the queue for the last time before the placement was queued
+            this.write(List.of(placement));
+        }
+        return placement.getResult();
+    }
+
+    /**
+     * Loop of the writer thread, which takes batches of placements from the queue and writes them until the
+     * application shuts down, then writes the placements left in the queue.
+     */
+    private void writeBatches() {
+        List<BetPlacement> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                BetPlacement first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+                batch.add(first);
+
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0)
+                        break;
+                    BetPlacement next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                }
+
+                this.write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                batch.forEach(placement -> placement.fail(shuttingDown()));
+            } catch (RuntimeException e) {
+                log.error("Batch of bet placements couldn't be completed: " + e.getMessage());
+                batch.forEach(placement -> placement.fail(e));
+            } finally {
+                batch.clear();
+            }
+        }
+        this.writeRemaining();
+    }
+
+    /**
+     * Writes the placements left in the queue once the application stops taking new ones, or fails them if the writer
+     * has been interrupted.
+     */
+    private void writeRemaining() {
+        List<BetPlacement> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (Thread.currentThread().isInterrupted()) {
+            remaining.forEach(placement -> placement.fail(shuttingDown()));
+            return;
+        }
+        for (int from = 0; from < remaining.size(); from += maxBatchSize)
+            this.write(remaining.subList(from, Math.min(from + maxBatchSize, remaining.size())));
+    }
+
+    private static BetPlacementUnavailableException shuttingDown() {
+        return new BetPlacementUnavailableException("The application is shutting down, the bets weren't placed");
+    }
+
+    /**
+     * Writes a batch of placements in a single transaction and completes their futures. If the transaction fails,
+     * the placements are written again one by one.
+     *
+     * @param batch The placements to write.
+     */
+    private void write(List<BetPlacement> batch) {
+        // The callers of the placements that timed out have already been told that they failed
+        batch = batch.stream()
+                .filter(placement -> !placement.getResult().isDone())
+                .toList();
+        if (batch.isEmpty())
+            return;
+
+        long start = System.nanoTime();
+        try {
+            betPlacementWriter.write(batch);
+        } catch (RuntimeException exception) {
+            this.recordBatch(batch, start, "failure");
+            if (batch.size() == 1) {
+                batch.get(0).fail(exception);
+                return;
+            }
+            log.warn("Batch of " + batch.size() + " bet placements failed, writing them one by one: "
+                    + exception.getMessage());
+            batch.forEach(placement -> this.write(List.of(placement)));
+            return;
+        }
+
+        this.recordBatch(batch, start, "success");
+        // The balances of the users changed
+        cacheService.invalidateCacheForKeys(CacheNames.PRINCIPALS,
+                batch.stream().map(BetPlacement::getUserId).distinct().toList());
+        batch.forEach(BetPlacement::complete);
+    }
+
+    private void recordBatch(List<BetPlacement> batch, long start, String outcome) {
+        batchSize.record(batch.size());
+        Timer.builder("bet.placement.batch.duration")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops taking placements and lets the writer write the ones already queued before the application shuts down.
+     * If the writer doesn't finish in time, it's interrupted and the placements it couldn't write are failed.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.shutdown();
+        if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Bet placements were still being written when the application shut down");
+            writer.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.leandroruhl.betkickapi.service.bet;
+
+import com.leandroruhl.betkickapi.exception.AccountBalanceException;
+import com.leandroruhl.betkickapi.model.BalanceLedgerEntry;
+import com.leandroruhl.betkickapi.model.Bet;
+import com.leandroruhl.betkickapi.model.User;
+import com.leandroruhl.betkickapi.model.enums.LedgerEntryType;
+import com.leandroruhl.betkickapi.repository.BalanceLedgerEntryRepository;
+import com.leandroruhl.betkickapi.repository.BetRepository;
+import com.leandroruhl.betkickapi.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * BetPlacementWriter writes a batch of {@link BetPlacement}s collected by the {@link BetPlacementBatcher}
+ * in a single transaction.
+ */
+@Component
+@AllArgsConstructor
+public class BetPlacementWriter {
+
+    private final BetRepository betRepository;
+    private final UserRepository userRepository;
+    private final BalanceLedgerEntryRepository balanceLedgerEntryRepository;
+
+    /**
+     * Writes a batch of placements: the balance of each user is debited once with the total of their placements,
+     * then the bets of every placement are inserted in a single JDBC batch, and finally the new balances are read
+     * back in a single query.
+     * <br>
+     * <br>
+     * If the funds of a user don't cover all of their placements, their placements are debited one by one in order
+     * of arrival, and the ones that can't be covered are rejected with an {@link AccountBalanceException} without
+     * affecting the rest of the batch. Users are debited in order of ID, so concurrent batches lock them in the same order.
+     *
+     * @param placements The placements to write.
+     */
+    @Transactional
+    public void write(List<BetPlacement> placements) {
+        placements.forEach(BetPlacement::pending);
+        Map<UUID, List<BetPlacement>> placementsByUser = placements.stream()
+                .collect(Collectors.groupingBy(BetPlacement::getUserId, TreeMap::new, Collectors.toList()));
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.now(), ZoneOffset.UTC);
+
+        List<BalanceLedgerEntry> ledgerEntries = new ArrayList<>();
+        List<Bet> bets = new ArrayList<>();
+        placementsByUser.forEach((userId, userPlacements) -> {
+            double total = userPlacements.stream().mapToDouble(BetPlacement::getAmount).sum();
+            if (userRepository.debit(userId, total) == 1) {
+                ledgerEntries.add(new BalanceLedgerEntry(userId, -total, LedgerEntryType.WITHDRAWAL, now));
+                userPlacements.forEach(placement -> bets.addAll(placement.getBets()));
+                return;
+            }
+
+            // The funds don't cover every placement, so the ones that fit are debited one by one
+            for (BetPlacement placement : userPlacements) {
+                if (userRepository.debit(userId, placement.getAmount()) == 1) {
+                    ledgerEntries.add(new BalanceLedgerEntry(userId, -placement.getAmount(), LedgerEntryType.WITHDRAWAL, now));
+                    bets.addAll(placement.getBets());
+                } else {
+                    placement.rejected(new AccountBalanceException("Insufficient funds"));
+                }
+            }
+        });
+
+        balanceLedgerEntryRepository.saveAll(ledgerEntries);
+        betRepository.saveAll(bets);
+
+        Map<UUID, Double> balances = userRepository.findAllById(placementsByUser.keySet())
+                .stream()
+                .collect(Collectors.toMap(User::getId, User::getAccountBalance));
+        placements.stream()
+                .filter(placement -> !placement.isRejected())
+                .forEach(placement -> placement.written(balances.get(placement.getUserId())));
+    }
+}
@@ -1,10 +1,11 @@
 package com.leandroruhl.betkickapi.service.bet;
 
+import com.leandroruhl.betkickapi.dto.internal_api.BetHistoryPage;
 import com.leandroruhl.betkickapi.dto.internal_api.BetHistoryResponse;
 import com.leandroruhl.betkickapi.dto.internal_api.BetRequest;
 import com.leandroruhl.betkickapi.model.Bet;
-import com.leandroruhl.betkickapi.model.Match;
 import com.leandroruhl.betkickapi.model.User;
+import com.leandroruhl.betkickapi.model.enums.Winner;
 
 import java.util.List;
 
@@ -18,10 +19,11 @@ public interface BetService {
     /**
      * Finishes bets based on the outcome of a finished match.
      *
-     * @param finishedMatch The {@link Match} object representing the finished match.
+     * @param matchId The ID of the finished match.
+     * @param winner  The winner of the finished match.
      * @see Bet
      */
-    void finishBets(Match finishedMatch);
+    void finishBets(Integer matchId, Winner winner);
 
     /**
      * Creates finished bets for a list of bets.
@@ -48,12 +50,23 @@ public interface BetService {
     List<BetHistoryResponse> findBetsByUserId(String userId);
 
     /**
-     * Saves bets for a user based on the provided bet requests and associated matches.
+     * Finds a page of the bet history of a user, newest bets first.
+     *
+     * @param userId The unique identifier of the user.
+     * @param cursor The cursor of the page, taken from the {@code nextCursor} of the previous page, or null for the first page.
+     * @param limit  The maximum number of bets of the page.
+     * @return A {@link BetHistoryPage} with the bets of the page.
+     * @throws IllegalArgumentException If the user ID or the cursor is invalid.
+     */
+    BetHistoryPage findBetHistoryPage(String userId, String cursor, int limit);
+
+    /**
+     * Saves bets for a user based on the provided bet requests, at the current odds of their matches.
+     * Bet requests on matches that can't be bet on are skipped.
      *
      * @param betRequests The list of {@link BetRequest} objects representing the user's bet requests.
      * @param user        The {@link User} object for whom the bets are being saved.
-     * @param matches     The list of {@link Match} objects associated with the bet requests.
-     * @return The total amount of the saved bets.
+     * @return The new account balance of the user.
      */
-    Double saveBets(List<BetRequest> betRequests, User user, List<Match> matches);
+    Double saveBets(List<BetRequest> betRequests, User user);
 }
@@ -1,101 +1,141 @@
 package com.leandroruhl.betkickapi.service.bet;
 
+import com.leandroruhl.betkickapi.dto.internal_api.BetHistoryEntry;
+import com.leandroruhl.betkickapi.dto.internal_api.BetHistoryPage;
 import com.leandroruhl.betkickapi.dto.internal_api.BetHistoryResponse;
 import com.leandroruhl.betkickapi.dto.internal_api.BetRequest;
+import com.leandroruhl.betkickapi.exception.AccountBalanceException;
+import com.leandroruhl.betkickapi.exception.BetPlacementUnavailableException;
 import com.leandroruhl.betkickapi.exception.EntityNotFoundException;
+import com.leandroruhl.betkickapi.mapper.BetMapper;
 import com.leandroruhl.betkickapi.model.Bet;
-import com.leandroruhl.betkickapi.model.Match;
 import com.leandroruhl.betkickapi.model.User;
-import com.leandroruhl.betkickapi.model.embbeded.MatchOdds;
 import com.leandroruhl.betkickapi.model.enums.Status;
 import com.leandroruhl.betkickapi.model.enums.Winner;
+import com.leandroruhl.betkickapi.repository.BalanceLedgerEntryRepository;
 import com.leandroruhl.betkickapi.repository.BetRepository;
+import com.leandroruhl.betkickapi.repository.MatchRepository;
+import com.leandroruhl.betkickapi.repository.UserBetStatsRepository;
+import com.leandroruhl.betkickapi.repository.UserRepository;
+import com.leandroruhl.betkickapi.service.leaderboard.LeaderboardService;
+import com.leandroruhl.betkickapi.service.match.OpenMatchSnapshotIndex;
+import com.leandroruhl.betkickapi.service.match.OpenMatchSnapshotIndex.OpenMatch;
 import com.leandroruhl.betkickapi.service.user.UserService;
-import com.leandroruhl.betkickapi.service.utility.CacheService;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
-import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
  * The {@code BetServiceImpl} class implements the {@link BetService} interface
  * and provides concrete implementations for managing operations related to bets.
  * This class utilizes a {@link BetRepository} for interacting with bet data,
- * a {@link UserService} for user-related operations, a {@link ModelMapper} for entity mapping,
- * and a {@link CacheService} for cache-related operations.
+ * a {@link UserRepository} and a {@link BalanceLedgerEntryRepository} for paying bet winnings in bulk,
+ * a {@link UserService} for user-related operations, a {@link BetMapper} for entity mapping,
+ * a {@link UserBetStatsRepository} and a {@link LeaderboardService} for keeping the leaderboard up to date,
+ * a {@link BetPlacementBatcher} that writes the bets placed by concurrent requests together,
+ * and an {@link OpenMatchSnapshotIndex} and a {@link MatchRepository} for validating and pricing bets.
  */
 @Service
 @AllArgsConstructor
 public class BetServiceImpl implements BetService {
 
     private final BetRepository betRepository;
+    private final UserRepository userRepository;
+    private final BalanceLedgerEntryRepository balanceLedgerEntryRepository;
     private final UserService userService;
-    private final ModelMapper modelMapper;
-    private final CacheService cacheService;
+    private final BetMapper betMapper;
+    private final UserBetStatsRepository userBetStatsRepository;
+    private final LeaderboardService leaderboardService;
+    private final BetPlacementBatcher betPlacementBatcher;
+    private final OpenMatchSnapshotIndex openMatchSnapshotIndex;
+    private final MatchRepository matchRepository;
 
     /**
      * {@inheritDoc}
      * <p>
-     * This implementation finishes bets based on the outcome of a finished match.
-     * It updates the status and winner information for each bet, and deposits winnings for successful bets.
-     * The method also invalidates the leaderboard cache as it may have changed.
+     * This implementation settles the bets of a finished match with set-based statements, so the number of
+     * round-trips to the database doesn't depend on how many bets were placed on the match:
+     * the winnings of the winning bets are recorded in the balance ledger and credited to their users, aggregated per user,
+     * the outcome of the bets is added to the stats of their users, and then every bet of the match is marked as won or lost.
+     * Only unsettled bets are taken into account, so settling a match twice doesn't pay its bets twice.
+     * Once the transaction commits, the users that bet on the match are updated in the leaderboard.
      *
-     * @param finishedMatch The {@link Match} object representing the finished match.
+     * @param matchId The ID of the finished match.
+     * @param winner  The winner of the finished match.
      * @see Bet
-     * @see UserService#deposit(User, Double)
-     * @see BetRepository#saveAll(Iterable)
+     * @see UserRepository#creditWinningsByMatchId(Integer, String)
+     * @see UserBetStatsRepository#recordSettlementByMatchId(Integer, String)
+     * @see BetRepository#settleBetsByMatchId(Integer, Winner)
      */
     @Override
-    public void finishBets(Match finishedMatch) {
-        List<Bet> betsToFinish = betRepository.findByMatchId(finishedMatch.getId());
-        if (!betsToFinish.isEmpty()) {
-            betsToFinish.forEach(bet -> {
-                bet.setMatch(finishedMatch);
-                // If the user correctly guessed the winner of the match, they won the bet
-                bet.setIsWon(finishedMatch.getWinner() == bet.getWinner());
-                if (bet.getIsWon()) {
-                    userService.deposit(bet.getUser(), bet.getAmount() * bet.getOdds());
+    @Transactional
+    public void finishBets(Integer matchId, Winner winner) {
+        // The winnings and stats must be updated first, since only unsettled bets are taken into account
+        if (winner != null) {
+            balanceLedgerEntryRepository.recordWinningsByMatchId(matchId, winner.name());
+            userRepository.creditWinningsByMatchId(matchId, winner.name());
+        }
+        userBetStatsRepository.recordSettlementByMatchId(matchId, winner == null ? null : winner.name());
+
+        int settledBets = betRepository.settleBetsByMatchId(matchId, winner);
+        if (settledBets > 0) {
+            // After bets are paid, the leaderboard may have changed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    leaderboardService.refreshUsersOfMatch(matchId);
                 }
             });
-            betRepository.saveAll(betsToFinish);
-            // After bets are paid, the leaderboard may have changed
-            cacheService.invalidateCacheForKey("leaderboard");
         }
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * This implementation creates finished bets for a list of bets using the {@link BetRepository#saveAll(Iterable)} method.
+     * This implementation creates finished bets for a list of bets using the {@link BetRepository#saveAll(Iterable)} method,
+     * then recalculates the stats of the users, since the bets don't go through settlement.
+     * The bets are history only: they neither withdraw their amounts nor pay their winnings, so they don't change the
+     * balances of the users and have no entries in the balance ledger.
      *
      * @param bets The list of {@link Bet} objects to create finished bets for.
      */
     @Override
+    @Transactional
     public void createFinishedBets(List<Bet> bets) {
         betRepository.saveAll(bets);
+        betRepository.flush();
+        userBetStatsRepository.rebuildFromSettledBets();
     }
 
     /**
      * {@inheritDoc}
      * <p>
-     * This implementation cancels a bet based on the bet ID, refunds the amount, and deletes the bet.
+     * This implementation cancels a bet based on the bet ID, refunds the amount, and deletes the bet in a single
+     * transaction. The refund is recorded in the balance ledger as such, along with the match of the bet.
      * It throws an exception if the match has started, finished, or is awarded.
      *
      * @param betId The unique identifier of the bet.
      * @return The amount canceled for the canceled bet.
      * @throws IllegalStateException If the match has started, finished, or is awarded.
      * @see Bet
-     * @see UserService#deposit(User, Double)
+     * @see UserService#refund(User, Double, Integer)
      * @see BetRepository#delete(Object)
      */
     @Override
+    @Transactional
     public Double cancelBet(Integer betId) {
         Bet bet = betRepository.findById(betId)
                 .orElseThrow(() -> new EntityNotFoundException(Bet.class, "betId", betId.toString()));
@@ -104,7 +144,7 @@ public class BetServiceImpl implements BetService {
                 matchStatus == Status.FINISHED || matchStatus == Status.AWARDED) {
             throw new IllegalStateException("Can't cancel a bet if the match has started, finished, or is awarded");
         }
-        User user = userService.deposit(bet.getUser(), bet.getAmount());
+        User user = userService.refund(bet.getUser(), bet.getAmount(), bet.getMatch().getId());
         betRepository.delete(bet);
         return user.getAccountBalance();
     }
@@ -124,51 +164,93 @@ public class BetServiceImpl implements BetService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation reads one more bet than requested to know whether there's a next page,
+     * and uses the placement date and ID of the last bet of the page as the cursor of the next one.
+     *
+     * @param userId The unique identifier of the user.
+     * @param cursor The cursor of the page, or null for the first page.
+     * @param limit  The maximum number of bets of the page.
+     * @return A {@link BetHistoryPage} with the bets of the page.
+     * @see BetRepository#findHistoryByUserId(UUID, org.springframework.data.domain.Pageable)
+     * @see BetRepository#findHistoryByUserIdBefore(UUID, LocalDateTime, Long, org.springframework.data.domain.Pageable)
+     */
+    @Override
+    public BetHistoryPage findBetHistoryPage(String userId, String cursor, int limit) {
+        UUID id = UUID.fromString(userId);
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+
+        List<BetHistoryEntry> bets;
+        if (cursor == null || cursor.isBlank()) {
+            bets = betRepository.findHistoryByUserId(id, pageRequest);
+        } else {
+            BetHistoryCursor position = BetHistoryCursor.decode(cursor);
+            bets = betRepository.findHistoryByUserIdBefore(id, position.placedAt(), position.id(), pageRequest);
+        }
+
+        if (bets.size() <= limit)
+            return new BetHistoryPage(bets, null);
+
+        bets = bets.subList(0, limit);
+        BetHistoryEntry last = bets.get(limit - 1);
+        return new BetHistoryPage(bets, new BetHistoryCursor(last.getPlacedAt(), last.getId()).encode());
+    }
+
     /**
      * Converts a {@link Bet} entity to a {@link BetHistoryResponse} DTO.
      *
      * @param bet The {@link Bet} object to be converted.
      * @return The corresponding {@link BetHistoryResponse} DTO.
-     * @see ModelMapper
+     * @see BetMapper
      */
     private BetHistoryResponse convertBetToDto(Bet bet) {
-        return modelMapper.map(bet, BetHistoryResponse.class);
+        return betMapper.toHistoryResponse(bet);
     }
 
     /**
-     * This implementation saves bets for a user based on the provided bet requests and associated matches.
-     * It filters out invalid bet requests, converts them to bet entities, withdraws the required amount from the user,
-     * saves the bets, and returns the new account balance.
+     * This implementation saves bets for a user based on the provided bet requests. The matches are looked up in the
+     * {@link OpenMatchSnapshotIndex} rather than in the database, and the bets are priced with the odds of the snapshot
+     * and store their version. It filters out bet requests on matches that aren't open, converts the rest to
+     * bet entities and hands them to the
+     * {@link BetPlacementBatcher}, which withdraws the required amount from the user and saves the bets along with
+     * the ones placed by other requests at the same time. It waits until they are committed and returns the new
+     * account balance.
      *
      * @param betRequests The list of {@link BetRequest} objects representing the user's bet requests.
      * @param user        The {@link User} object for whom the bets are being saved.
-     * @param matches     The list of {@link Match} objects associated with the bet requests.
-     * @return The total amount of the saved bets.
-     * @see UserService#withdraw(User, Double)
-     * @see BetRepository#saveAll(Iterable)
+     * @return The new account balance of the user.
+     * @throws AccountBalanceException If the user does not have sufficient funds for the bets.
+     * @throws BetPlacementUnavailableException If the bets couldn't be confirmed in time.
+     * @see BetPlacementBatcher#place(User, List)
      */
     @Override
-    public Double saveBets(List<BetRequest> betRequests, User user, List<Match> matches) {
-        // Create a matches by id map
-        Map<Integer, Match> matchesById = matches
-                .stream()
-                .collect(Collectors.toMap(Match::getId, match -> match));
-
-        // Filter out bet requests that don't have a valid match id
+    public Double saveBets(List<BetRequest> betRequests, User user) {
+        // Filter out bet requests that don't have the id of an open match
         // then convert those with a valid match id to bet entities
-        List<Bet> bets = betRequests.stream()
-                .filter(request -> matchesById.get(request.getMatchId()) != null)
-                .map(request -> convertBetRequestToBet(request, user, matchesById.get(request.getMatchId())))
-                .toList();
+        List<Bet> bets = new ArrayList<>(betRequests.size());
+        for (BetRequest request : betRequests) {
+            OpenMatch match = openMatchSnapshotIndex.find(request.getMatchId());
+            if (match != null)
+                bets.add(convertBetRequestToBet(request, user, match));
+        }
 
-        // Update account balance; if funds are not sufficient, an exception is thrown
-        Double newAccountBalance = userService
-                .withdraw(user, bets.stream().mapToDouble(Bet::getAmount).reduce(0, Double::sum))
-                .getAccountBalance();
+        // Nothing to place, so the balance is left untouched
+        if (bets.isEmpty())
+            return userService.findById(user.getId().toString()).getAccountBalance();
 
-        // If this line is reached, the funds are sufficient, so the bets are valid and can be saved
-        betRepository.saveAll(bets);
-        return newAccountBalance;
+        // The account balance is updated along with the bets; if funds are not sufficient, an exception is thrown
+        try {
+            return betPlacementBatcher.place(user, bets).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException)
+                throw new BetPlacementUnavailableException("The bets couldn't be confirmed in time, " +
+                        "check the bet history before placing them again");
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
     }
 
     /**
@@ -176,30 +258,25 @@ public class BetServiceImpl implements BetService {
      *
      * @param betRequest The {@link BetRequest} object to be converted.
      * @param user       The {@link User} object associated with the bet.
-     * @param match      The {@link Match} object associated with the bet.
+     * @param match      The {@link OpenMatch} associated with the bet.
      * @return The corresponding {@link Bet} entity.
      */
-    private Bet convertBetRequestToBet(BetRequest betRequest, User user, Match match) {
+    private Bet convertBetRequestToBet(BetRequest betRequest, User user, OpenMatch match) {
         Bet bet = new Bet();
         bet.setAmount(betRequest.getBetAmount());
         bet.setWinner(betRequest.getWinner());
 
-        // You can't trust that the odds in the request are the same as the ones in the database
-        MatchOdds currentMatchOdds = match.getOdds();
-        if (bet.getWinner() == Winner.AWAY_TEAM) {
-            bet.setOdds(currentMatchOdds.getAwayWinsOdds());
-        } else if (bet.getWinner() == Winner.HOME_TEAM) {
-            bet.setOdds(currentMatchOdds.getHomeWinsOdds());
-        } else {
-            bet.setOdds(currentMatchOdds.getDrawOdds());
-        }
+        // You can't trust that the odds in the request are the same as the current ones
+        bet.setOdds(match.oddsFor(bet.getWinner()));
+        bet.setOddsVersion(match.oddsVersion());
 
         Instant currentInstant = Instant.now();
         LocalDateTime currentDate = LocalDateTime.ofInstant(currentInstant, ZoneOffset.UTC);
         bet.setPlacedAt(currentDate);
 
         bet.setUser(user);
-        bet.setMatch(match);
+        // Only the ID of the match is needed to insert the bet, so it isn't loaded
+        bet.setMatch(matchRepository.getReferenceById(match.id()));
 
         return bet;
     }
@@ -1,5 +1,6 @@
 package com.leandroruhl.betkickapi.service.competition;
 
+import com.leandroruhl.betkickapi.config.CacheNames;
 import com.leandroruhl.betkickapi.model.Competition;
 import com.leandroruhl.betkickapi.repository.CompetitionRepository;
 import lombok.AllArgsConstructor;
@@ -89,7 +90,7 @@ public class CompetitionServiceImpl implements CompetitionService {
      * @return A list of {@link Competition} objects representing active competitions.
      */
     @Override
-    @Cacheable(value = "footballDataCache", key = "'activeCompetitions'")
+    @Cacheable(value = CacheNames.COMPETITIONS, key = "'" + CacheNames.ACTIVE_COMPETITIONS + "'")
     public List<Competition> getActiveCompetitions() {
         return competitionRepository.findAllCompetitionsWithScheduledMatches();
     }
@@ -100,7 +101,7 @@ public class CompetitionServiceImpl implements CompetitionService {
      * @return A list of {@link Competition} objects representing competitions with standings.
      */
     @Override
-    @Cacheable(value = "footballDataCache", key = "'competitionsWithStandings'")
+    @Cacheable(value = CacheNames.COMPETITIONS, key = "'" + CacheNames.COMPETITIONS_WITH_STANDINGS + "'")
     public List<Competition> getCompetitionsWithStandings() {
         return competitionRepository.findCompetitionsThatHaveStandings();
     }
@@ -113,7 +114,7 @@ public class CompetitionServiceImpl implements CompetitionService {
      * @return A list of all {@link Competition} objects.
      */
     @Override
-    @Cacheable(value = "footballDataCache", key = "'allCompetitions'")
+    @Cacheable(value = CacheNames.COMPETITIONS, key = "'" + CacheNames.ALL_COMPETITIONS + "'")
     public List<Competition> getAllCompetitions() {
         return competitionRepository.findAll();
     }
@@ -0,0 +1,35 @@
+package com.leandroruhl.betkickapi.service.leaderboard;
+
+import com.leandroruhl.betkickapi.model.UserBetStats;
+
+import java.util.UUID;
+
+/**
+ * The betting performance of a user as ranked in the leaderboard.
+ *
+ * @param userId   The ID of the user.
+ * @param login    The login of the user.
+ * @param earnings The winnings of the won bets minus the amount of the lost bets.
+ * @param betsWon  The number of won bets.
+ * @param betsLost The number of lost bets.
+ * @param score    The value users are ranked by.
+ */
+record LeaderboardEntry(UUID userId, String login, double earnings, long betsWon, long betsLost, double score) {
+
+    /**
+     * Creates the entry of a user from their stats. Users are ranked by a weighted combination of their
+     * win rate, their number of settled bets and their net profit.
+     *
+     * @param stats The {@link UserBetStats} of the user.
+     * @return The {@link LeaderboardEntry} of the user.
+     */
+    static LeaderboardEntry from(UserBetStats stats) {
+        long betsWon = stats.getBetsWon();
+        long betsLost = stats.getBetsLost();
+        double earnings = stats.getEarnings();
+        long settledBets = betsWon + betsLost;
+        double winRate = settledBets == 0 ? 0 : betsWon * 100.0 / settledBets;
+        double score = winRate * 0.55 + settledBets * 0.3 + earnings * 0.15;
+        return new LeaderboardEntry(stats.getUserId(), stats.getLogin(), earnings, betsWon, betsLost, score);
+    }
+}
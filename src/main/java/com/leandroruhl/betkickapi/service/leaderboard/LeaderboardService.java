@@ -0,0 +1,62 @@
+package com.leandroruhl.betkickapi.service.leaderboard;
+
+import com.leandroruhl.betkickapi.dto.internal_api.LeaderboardPage;
+import com.leandroruhl.betkickapi.dto.internal_api.UserBetSummary;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The LeaderboardService interface provides methods for ranking users by their betting performance.
+ * Implementations of this interface handle functionalities such as retrieving the top users or a page of the ranking,
+ * finding the position of a user, and keeping the ranking up to date as bets are settled.
+ */
+public interface LeaderboardService {
+
+    /**
+     * Retrieves a page of the leaderboard.
+     *
+     * @param cursor The position after which the page starts, 0 for the first page.
+     * @param limit  The maximum number of users of the page.
+     * @return The {@link LeaderboardPage}.
+     */
+    LeaderboardPage getPage(int cursor, int limit);
+
+    /**
+     * Retrieves the best users of the leaderboard.
+     *
+     * @param limit The maximum number of users.
+     * @return A list of {@link UserBetSummary} objects, best users first.
+     */
+    List<UserBetSummary> getTopUsers(int limit);
+
+    /**
+     * Finds the position of a user in the leaderboard.
+     *
+     * @param userId The ID of the user.
+     * @return The {@link UserBetSummary} of the user, or empty if the user has no settled bets.
+     */
+    Optional<UserBetSummary> getUserRank(UUID userId);
+
+    /**
+     * Retrieves the part of the leaderboard around a user: the user and the users right above and below them.
+     *
+     * @param userId    The ID of the user.
+     * @param neighbors The maximum number of users to include above and below the user.
+     * @return The {@link LeaderboardPage} around the user, or empty if the user has no settled bets.
+     */
+    Optional<LeaderboardPage> getUserNeighborhood(UUID userId, int neighbors);
+
+    /**
+     * Updates the ranking of the users that bet on a match, after its bets have been settled.
+     *
+     * @param matchId The ID of the settled match.
+     */
+    void refreshUsersOfMatch(Integer matchId);
+
+    /**
+     * Rebuilds the whole ranking from the stored stats.
+     */
+    void rebuild();
+}
@@ -0,0 +1,144 @@
+package com.leandroruhl.betkickapi.service.leaderboard;
+
+import com.leandroruhl.betkickapi.dto.internal_api.LeaderboardPage;
+import com.leandroruhl.betkickapi.dto.internal_api.UserBetSummary;
+import com.leandroruhl.betkickapi.model.UserBetStats;
+import com.leandroruhl.betkickapi.repository.UserBetStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The LeaderboardServiceImpl class implements the {@link LeaderboardService} interface, serving the leaderboard from
+ * a {@link RankedLeaderboard} held in memory and built from the {@link UserBetStats} stored by the
+ * {@link UserBetStatsRepository}.
+ * <br>
+ * <br>
+ * The ranking is loaded once when the application is ready, and then only the users that bet on a settled match
+ * are updated, so reading the leaderboard never hits the database.
+ */
+@Service
+@Slf4j
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private final UserBetStatsRepository userBetStatsRepository;
+    private final RankedLeaderboard leaderboard = new RankedLeaderboard();
+
+    public LeaderboardServiceImpl(UserBetStatsRepository userBetStatsRepository) {
+        this.userBetStatsRepository = userBetStatsRepository;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation skips to the cursor in O(log n), so every page costs the same regardless of its position.
+     *
+     * @param cursor The position after which the page starts, 0 for the first page.
+     * @param limit  The maximum number of users of the page.
+     * @return The {@link LeaderboardPage}.
+     */
+    @Override
+    public LeaderboardPage getPage(int cursor, int limit) {
+        return this.toPage(leaderboard.range(cursor, limit));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param limit The maximum number of users.
+     * @return A list of {@link UserBetSummary} objects, best users first.
+     */
+    @Override
+    public List<UserBetSummary> getTopUsers(int limit) {
+        return leaderboard.range(0, limit)
+                .stream()
+                .map(LeaderboardServiceImpl::toSummary)
+                .toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param userId The ID of the user.
+     * @return The {@link UserBetSummary} of the user, or empty if the user has no settled bets.
+     */
+    @Override
+    public Optional<UserBetSummary> getUserRank(UUID userId) {
+        return leaderboard.find(userId).map(LeaderboardServiceImpl::toSummary);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param userId    The ID of the user.
+     * @param neighbors The maximum number of users to include above and below the user.
+     * @return The {@link LeaderboardPage} around the user, or empty if the user has no settled bets.
+     */
+    @Override
+    public Optional<LeaderboardPage> getUserNeighborhood(UUID userId, int neighbors) {
+        return leaderboard.find(userId).map(rankedEntry -> {
+            int offset = Math.max(0, rankedEntry.position() - 1 - neighbors);
+            int limit = rankedEntry.position() - offset + neighbors;
+            return this.toPage(leaderboard.range(offset, limit));
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation reloads the stats of the users that bet on the match and replaces their entries.
+     * Refreshes are serialized, so that the stats read by a refresh are never older than those of the previous one.
+     *
+     * @param matchId The ID of the settled match.
+     */
+    @Override
+    public synchronized void refreshUsersOfMatch(Integer matchId) {
+        userBetStatsRepository.findByMatchId(matchId)
+                .forEach(stats -> leaderboard.put(LeaderboardEntry.from(stats)));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation is executed when the application is ready, after the startup data has been stored.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<LeaderboardEntry> entries = userBetStatsRepository.findAll()
+                .stream()
+                .map(LeaderboardEntry::from)
+                .toList();
+        leaderboard.reset(entries);
+        log.info("Leaderboard built with " + entries.size() + " users");
+    }
+
+    /**
+     * Converts a range of entries into a page, which has a next page unless it reaches the last position.
+     */
+    private LeaderboardPage toPage(List<RankedLeaderboard.RankedEntry> entries) {
+        int totalUsers = leaderboard.size();
+        Integer nextCursor = null;
+        if (!entries.isEmpty()) {
+            int lastPosition = entries.get(entries.size() - 1).position();
+            if (lastPosition < totalUsers)
+                nextCursor = lastPosition;
+        }
+
+        List<UserBetSummary> users = entries.stream()
+                .map(LeaderboardServiceImpl::toSummary)
+                .toList();
+        return new LeaderboardPage(users, nextCursor, totalUsers);
+    }
+
+    private static UserBetSummary toSummary(RankedLeaderboard.RankedEntry rankedEntry) {
+        LeaderboardEntry entry = rankedEntry.entry();
+        return new UserBetSummary(rankedEntry.position(), entry.login(), entry.earnings(),
+                entry.betsWon(), entry.betsLost());
+    }
+}
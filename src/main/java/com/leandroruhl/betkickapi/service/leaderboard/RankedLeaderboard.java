@@ -0,0 +1,263 @@
+package com.leandroruhl.betkickapi.service.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * RankedLeaderboard keeps the {@link LeaderboardEntry}s of the users sorted by score in an order-statistic treap,
+ * a randomized binary search tree whose nodes also store the size of their subtree. This allows to:
+ * <br>
+ * <br>
+ * * Insert, replace or remove the entry of a user in O(log n).
+ * <br>
+ * * Find the rank of a user in O(log n).
+ * <br>
+ * * Retrieve {@code limit} entries starting at any rank in O(log n + limit).
+ * <br>
+ * <br>
+ * Entries are ordered by score (highest first), then by login and user ID so that every entry has a unique rank.
+ * Reads can run concurrently with each other, while updates are exclusive.
+ */
+class RankedLeaderboard {
+
+    private static final Comparator<LeaderboardEntry> ORDER = Comparator
+            .comparingDouble(LeaderboardEntry::score).reversed()
+            .thenComparing(LeaderboardEntry::login, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(LeaderboardEntry::userId);
+
+    /**
+     * Node of the treap.
+     */
+    private static final class Node {
+        private final LeaderboardEntry entry;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size;
+
+        private Node(LeaderboardEntry entry) {
+            this.entry = entry;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.size = 1;
+        }
+    }
+
+    private final Map<UUID, LeaderboardEntry> entriesByUserId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root;
+
+    /**
+     * Replaces the content of the leaderboard.
+     *
+     * @param entries The new entries, in any order.
+     */
+    void reset(List<LeaderboardEntry> entries) {
+        lock.writeLock().lock();
+        try {
+            root = null;
+            entriesByUserId.clear();
+            entries.forEach(this::putUnlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts the entry of a user, replacing the previous one if there was one.
+     *
+     * @param entry The new {@link LeaderboardEntry} of the user.
+     */
+    void put(LeaderboardEntry entry) {
+        lock.writeLock().lock();
+        try {
+            this.putUnlocked(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves the entries at consecutive ranks.
+     *
+     * @param offset The number of entries to skip, starting at the first position.
+     * @param limit  The maximum number of entries.
+     * @return A list of the entries paired with their positions, starting at 1.
+     */
+    List<RankedEntry> range(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<RankedEntry> entries = new ArrayList<>(Math.max(0, Math.min(limit, size(root) - offset)));
+            this.collect(root, offset, limit, 0, entries);
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the entry of a user and its position.
+     *
+     * @param userId The ID of the user.
+     * @return The entry paired with its position, starting at 1, or empty if the user isn't ranked.
+     */
+    Optional<RankedEntry> find(UUID userId) {
+        lock.readLock().lock();
+        try {
+            LeaderboardEntry entry = entriesByUserId.get(userId);
+            if (entry == null)
+                return Optional.empty();
+            return Optional.of(new RankedEntry(this.countBefore(entry) + 1, entry));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of ranked users.
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putUnlocked(LeaderboardEntry entry) {
+        LeaderboardEntry previous = entriesByUserId.put(entry.userId(), entry);
+        if (previous != null)
+            root = remove(root, previous);
+        root = insert(root, new Node(entry));
+    }
+
+    /**
+     * Counts the entries ranked above a given one.
+     */
+    private int countBefore(LeaderboardEntry entry) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            int comparison = ORDER.compare(entry, node.entry);
+            if (comparison > 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collects, in order, the entries of a subtree whose ranks fall within the requested range.
+     *
+     * @param base The number of entries ranked above the subtree.
+     */
+    private void collect(Node node, int offset, int limit, int base, List<RankedEntry> entries) {
+        if (node == null || entries.size() >= limit)
+            return;
+
+        int nodeIndex = base + size(node.left);
+        if (offset < nodeIndex)
+            this.collect(node.left, offset, limit, base, entries);
+        if (nodeIndex >= offset && entries.size() < limit)
+            entries.add(new RankedEntry(nodeIndex + 1, node.entry));
+        this.collect(node.right, offset, limit, nodeIndex + 1, entries);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null)
+            return inserted;
+
+        if (ORDER.compare(inserted.entry, node.entry) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority)
+                node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority)
+                node = rotateLeft(node);
+        }
+        update(node);
+        return node;
+    }
+
+    private static Node remove(Node node, LeaderboardEntry entry) {
+        if (node == null)
+            return null;
+
+        int comparison = ORDER.compare(entry, node.entry);
+        if (comparison < 0) {
+            node.left = remove(node.left, entry);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, entry);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    /**
+     * Merges two subtrees, all the entries of the left one being ranked above those of the right one.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null)
+            return right;
+        if (right == null)
+            return left;
+
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * An entry of the leaderboard paired with its position.
+     *
+     * @param position The position, starting at 1.
+     * @param entry    The {@link LeaderboardEntry}.
+     */
+    record RankedEntry(int position, LeaderboardEntry entry) {
+    }
+}
@@ -30,9 +30,10 @@ public interface MatchService {
     /**
      * Finds matches with random odds.
      *
+     * @param limit The maximum number of matches to retrieve.
      * @return A list of {@link Match} objects representing matches with random odds.
      */
-    List<Match> findMatchesWithRandomOdds();
+    List<Match> findMatchesWithRandomOdds(int limit);
 
     /**
      * Saves a list of matches.
@@ -42,11 +43,11 @@ public interface MatchService {
     void saveMatches(List<Match> matches);
 
     /**
-     * Updates an individual match.
+     * Updates the odds of multiple matches.
      *
-     * @param updatedMatch The updated {@link Match} object.
+     * @param pricedMatches The list of {@link Match} objects holding the new odds.
      */
-    void updateMatch(Match updatedMatch);
+    void updateMatchesOdds(List<Match> pricedMatches);
 
     /**
      * Saves or updates multiple matches.
@@ -1,20 +1,26 @@
 package com.leandroruhl.betkickapi.service.match;
 
+import com.leandroruhl.betkickapi.config.CacheNames;
 import com.leandroruhl.betkickapi.model.Match;
 import com.leandroruhl.betkickapi.model.embbeded.MatchOdds;
 import com.leandroruhl.betkickapi.model.enums.Status;
 import com.leandroruhl.betkickapi.repository.MatchRepository;
-import com.leandroruhl.betkickapi.service.bet.BetService;
+import com.leandroruhl.betkickapi.service.settlement.SettlementService;
 import com.leandroruhl.betkickapi.service.utility.CacheService;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -24,8 +30,15 @@ import java.util.stream.Collectors;
  * and provides concrete implementations for managing operations related to matches.
  * <br>
  * <br>
- * This class utilizes a {@link MatchRepository}, {@link CacheService}, and {@link BetService}
- * for interacting with match data, caching, and handling bets.
+ * This class utilizes a {@link MatchRepository}, {@link CacheService}, and {@link SettlementService}
+ * for interacting with match data, caching, and enqueuing the settlement of bets, and keeps the
+ * {@link OpenMatchSnapshotIndex} that bets are placed against up to date.
+ * <br>
+ * <br>
+ * The cached lists of matches are refreshed ahead rather than evicted when matches are saved: once the changes
+ * are committed, the new lists are loaded and swapped into the caches, so readers keep getting the previous
+ * lists in the meantime instead of missing and querying the database all at once. The snapshot of open matches is
+ * replaced along with them.
  */
 @AllArgsConstructor
 @Service
@@ -34,18 +47,21 @@ public class MatchServiceImpl implements MatchService {
 
     private final MatchRepository matchRepository;
     private final CacheService cacheService;
-    private final BetService betService;
+    private final SettlementService settlementService;
+    private final OpenMatchSnapshotIndex openMatchSnapshotIndex;
+    private final Object cacheRefreshLock = new Object();
 
     /**
      * This implementation retrieves all non-finished matches in the DB, utilizing caching for improved performance.
+     * If the list isn't cached, concurrent callers wait for a single one of them to load it.
      *
      * @return A list of {@link Match} objects representing non-finished matches for today.
      */
     @Override
-    @Cacheable(value = "footballDataCache", key = "'matches'")
+    @Cacheable(value = CacheNames.NON_FINISHED_MATCHES, sync = true)
     public List<Match> getNonFinishedMatches() {
         // Get all matches that are not finished yet (those that don't have a winner)
-        log.info("New cache key created: matches");
+        log.info("New cache entry created: " + CacheNames.NON_FINISHED_MATCHES);
         return matchRepository.findAllUnfinishedMatches();
     }
 
@@ -62,17 +78,17 @@ public class MatchServiceImpl implements MatchService {
 
     /**
      * This implementation retrieves matches for a specific competition based on its ID, utilizing caching for improved performance.
-     * A cache key is generated based on the competition ID.
+     * The matches are cached by competition ID. If they aren't cached, concurrent callers wait for a single one of them
+     * to load them.
      *
      * @param id The unique identifier of the competition.
      * @return A list of {@link Match} objects representing matches for the specified competition.
      */
     @Override
-    @Cacheable(value = "footballDataCache", key = "'matchesByCompetitionId-' + #id")
+    @Cacheable(value = CacheNames.MATCHES_BY_COMPETITION, key = "#id", sync = true)
     // WARNING: if this method is called while the database is empty it caches an empty array
     public List<Match> getMatchesByCompetitionId(Integer id) {
-        String cacheKey = "matchesByCompetitionId-" + id;
-        log.info("New cache key created: " + cacheKey);
+        log.info("New cache key created in " + CacheNames.MATCHES_BY_COMPETITION + ": " + id);
         return matchRepository.findByCompetitionId(id);
     }
 
@@ -103,16 +119,17 @@ public class MatchServiceImpl implements MatchService {
     /**
      * This implementation finds matches with random odds.
      *
+     * @param limit The maximum number of matches to retrieve.
      * @return A list of {@link Match} objects representing matches with random odds.
      */
     @Override
-    public List<Match> findMatchesWithRandomOdds() {
-        return matchRepository.findByOdds_TemporaryRandomOddsIsTrue(PageRequest.of(0, 3));
+    public List<Match> findMatchesWithRandomOdds(int limit) {
+        return matchRepository.findByOdds_TemporaryRandomOddsIsTrue(PageRequest.of(0, limit));
     }
 
     /**
      * This implementation saves a list of matches.
-     * It generates random odds for new matches and invalidates the cache after saving.
+     * It generates random odds for new matches and refreshes the cache after saving.
      *
      * @param matches The list of {@link Match} objects to be saved.
      */
@@ -125,21 +142,33 @@ public class MatchServiceImpl implements MatchService {
         List<Match> newMatches = matches.stream()
                 .filter(match -> !existingMatchIds.contains(match.getId()))
                 .toList();
-        newMatches.forEach(match -> match.setOdds(new MatchOdds().generateRandomOdds()));
+        newMatches.forEach(MatchServiceImpl::setRandomOdds);
         List<Match> savedMatches = matchRepository.saveAll(newMatches);
-        invalidateMatchesCache(savedMatches);
+        refreshMatchesCache(savedMatches);
     }
 
     /**
      * This implementation updates multiple matches.
      * It avoids unnecessary selects before insert by fetching all the necessary matches in one query.
-     * Bets associated with finished matches are settled.
-     * The cache is invalidated after updating the matches.
+     * The settlement of the bets of finished matches is enqueued, so it is done later by the
+     * {@link com.leandroruhl.betkickapi.service.settlement.SettlementWorker} instead of slowing down this update.
+     * The cache is refreshed after updating the matches.
      *
      * @param unsavedUpdatedMatches The list of updated {@link Match} objects.
      */
     @Override
     public void updateMatches(List<Match> unsavedUpdatedMatches) {
+        refreshMatchesCache(applyUpdates(unsavedUpdatedMatches));
+    }
+
+    /**
+     * Copies the updated fields of the given matches into the stored ones and saves them, enqueuing the settlement
+     * of the bets of the matches that have just finished.
+     *
+     * @param unsavedUpdatedMatches The list of updated {@link Match} objects.
+     * @return The saved {@link Match} objects.
+     */
+    private List<Match> applyUpdates(List<Match> unsavedUpdatedMatches) {
         List<Integer> matchIds = unsavedUpdatedMatches.stream()
                 .map(Match::getId)
                 .toList();
@@ -157,52 +186,108 @@ public class MatchServiceImpl implements MatchService {
                     matchInDb.setDuration(updatedMatch.getDuration());
                     matchInDb.setUtcDate(updatedMatch.getUtcDate());
                     matchInDb.setWinner(updatedMatch.getWinner());
-                    // A match has finished so bet earnings have to be paid
+                    // A match has finished so bet earnings have to be paid, which is done asynchronously
                     if ((matchInDb.getStatus() != Status.FINISHED && matchInDb.getStatus() != Status.AWARDED)
                             && (updatedMatch.getStatus() == Status.FINISHED || updatedMatch.getStatus() == Status.AWARDED)) {
-                        betService.finishBets(updatedMatch);
+                        settlementService.enqueue(updatedMatch.getId(), updatedMatch.getWinner());
+                        // No more bets can be placed on it, even before the change is committed
+                        openMatchSnapshotIndex.close(List.of(updatedMatch.getId()));
                     }
                     matchInDb.setStatus(updatedMatch.getStatus());
                     return matchInDb;
                 })
                 .toList();
 
-        List<Match> savedMatches = matchRepository.saveAll(updatedMatchesToSave);
-        invalidateMatchesCache(savedMatches);
+        return matchRepository.saveAll(updatedMatchesToSave);
     }
 
     /**
-     * This implementation updates a single match.
-     * The cache is not invalidated here as it is done once per minute during batch updates.
+     * This implementation updates the odds of multiple matches.
+     * It fetches all the matches in one query, copies the new odds, increases their version and saves them
+     * in a single batch. The cache is refreshed after updating the matches.
      *
-     * @param updatedMatch The updated {@link Match} object.
+     * @param pricedMatches The list of {@link Match} objects holding the new odds.
      */
     @Override
-    public void updateMatch(Match updatedMatch) {
-        Match matchInDb = matchRepository.findById(updatedMatch.getId()).get();
-        matchInDb.setOdds(updatedMatch.getOdds());
-        matchRepository.save(matchInDb);
+    @Transactional
+    public void updateMatchesOdds(List<Match> pricedMatches) {
+        Map<Integer, MatchOdds> oddsByMatchId = pricedMatches
+                .stream()
+                .collect(Collectors.toMap(Match::getId, Match::getOdds));
+
+        List<Match> matchesToSave = matchRepository.findMatchesByIds(new ArrayList<>(oddsByMatchId.keySet()));
+        matchesToSave.forEach(matchInDb -> {
+            matchInDb.setOdds(oddsByMatchId.get(matchInDb.getId()));
+            matchInDb.setOddsVersion(matchInDb.getOddsVersion() == null ? 1 : matchInDb.getOddsVersion() + 1);
+        });
+
+        List<Match> savedMatches = matchRepository.saveAll(matchesToSave);
+        refreshMatchesCache(savedMatches);
     }
 
     /**
-     * Invalidates the cache for matches after saving or updating.
+     * Refreshes the cached lists of matches after saving or updating, which are the non-finished matches and the
+     * matches of the competitions of the saved matches. If a transaction is active, the lists are refreshed once it
+     * commits, so uncommitted changes are never cached.
      *
      * @param savedMatches The list of saved or updated {@link Match} objects.
      */
-    private void invalidateMatchesCache(List<Match> savedMatches) {
-        List<String> cacheKeys = savedMatches
+    private void refreshMatchesCache(List<Match> savedMatches) {
+        if (savedMatches.isEmpty())
+            return;
+
+        List<Integer> competitionIds = savedMatches
                 .stream()
-                .map(match -> "matchesByCompetitionId-" + match.getCompetition().getId())
+                .map(match -> match.getCompetition().getId())
                 .distinct()
                 .toList();
-        cacheService.invalidateCacheForKeys(cacheKeys);
-        cacheService.invalidateCacheForKey("matches");
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reloadMatchesCache(competitionIds);
+                }
+            });
+        } else {
+            reloadMatchesCache(competitionIds);
+        }
+    }
+
+    /**
+     * Loads the non-finished matches and the matches of the given competitions and replaces the cached lists with them,
+     * publishing the non-finished matches as the new snapshot of open matches.
+     * Refreshes are serialized, so a refresh that read the database earlier can't overwrite the lists of a later one.
+     *
+     * @param competitionIds The IDs of the competitions whose matches have changed.
+     * @see CacheService#refresh(String, Object, Object)
+     */
+    private void reloadMatchesCache(List<Integer> competitionIds) {
+        synchronized (cacheRefreshLock) {
+            // getNonFinishedMatches has no parameters, so its value is cached under the empty key
+            List<Match> nonFinishedMatches = matchRepository.findAllUnfinishedMatches();
+            cacheService.refresh(CacheNames.NON_FINISHED_MATCHES, SimpleKey.EMPTY, nonFinishedMatches);
+            openMatchSnapshotIndex.publish(nonFinishedMatches);
+            competitionIds.forEach(competitionId -> cacheService.refresh(CacheNames.MATCHES_BY_COMPETITION,
+                    competitionId, matchRepository.findByCompetitionId(competitionId)));
+        }
+    }
+
+    /**
+     * Sets the placeholder random odds of a new match, which are the first version of its odds.
+     *
+     * @param match The new {@link Match}.
+     */
+    private static void setRandomOdds(Match match) {
+        match.setOdds(new MatchOdds().generateRandomOdds());
+        match.setOddsVersion(1);
     }
 
     /**
      * This implementation saves or updates a list of matches.
-     * It generates random odds for new matches and invalidates the cache after saving.
+     * It generates random odds for new matches and saves them.
      * For existent matches, it marks them as not new and updates them.
+     * The cache is refreshed once, after both new and existent matches are saved.
      *
      * @param matches The list of {@link Match} objects to be saved or updated.
      */
@@ -217,9 +302,8 @@ public class MatchServiceImpl implements MatchService {
         List<Match> newMatches = matches.stream()
                 .filter(match -> !existingMatchIds.contains(match.getId()))
                 .toList();
-        newMatches.forEach(match -> match.setOdds(new MatchOdds().generateRandomOdds()));
-        List<Match> savedMatches = matchRepository.saveAll(newMatches);
-        invalidateMatchesCache(savedMatches);
+        newMatches.forEach(MatchServiceImpl::setRandomOdds);
+        List<Match> savedMatches = new ArrayList<>(matchRepository.saveAll(newMatches));
 
         // Update existent matches
         List<Match> matchesToUpdate = matches.stream()
@@ -227,6 +311,7 @@ public class MatchServiceImpl implements MatchService {
                 .toList();
         matchesToUpdate.forEach(match -> match.setNew(false)); // Entities are guaranteed to exist in the DB, so they're not new
 
-        this.updateMatches(matchesToUpdate);
+        savedMatches.addAll(this.applyUpdates(matchesToUpdate));
+        refreshMatchesCache(savedMatches);
     }
 }
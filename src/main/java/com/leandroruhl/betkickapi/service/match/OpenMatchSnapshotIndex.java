@@ -0,0 +1,168 @@
+package com.leandroruhl.betkickapi.service.match;
+
+import com.leandroruhl.betkickapi.model.Match;
+import com.leandroruhl.betkickapi.model.embbeded.MatchOdds;
+import com.leandroruhl.betkickapi.model.enums.Status;
+import com.leandroruhl.betkickapi.model.enums.Winner;
+import com.leandroruhl.betkickapi.repository.MatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * OpenMatchSnapshotIndex holds an immutable snapshot of the matches that can still be bet on, indexed by match ID,
+ * so bets are validated and priced without querying the database.
+ * <br>
+ * <br>
+ * The snapshot is replaced as a whole every time the cached lists of matches are refreshed by the
+ * {@link MatchServiceImpl}, which happens once the ingest, update and odds jobs commit their changes. Matches that
+ * are known to have finished are removed from it right away, without waiting for the refresh. Since a refresh may
+ * have read the database before the finished match was committed, closed matches are also left out of every snapshot
+ * published until the database no longer lists them as unfinished. Every new snapshot
+ * gets a new version, and every match in it carries the version of its odds, which is stored with the bets
+ * placed at those odds.
+ * <br>
+ * <br>
+ * The snapshot is loaded from the database on first use if no refresh has published one yet.
+ */
+@Component
+@Slf4j
+public class OpenMatchSnapshotIndex {
+
+    /**
+     * The data of an open match needed to place bets on it.
+     *
+     * @param id           The ID of the match.
+     * @param status       The status of the match.
+     * @param utcDate      The kick-off date and time of the match in UTC.
+     * @param homeWinsOdds The odds for home wins.
+     * @param awayWinsOdds The odds for away wins.
+     * @param drawOdds     The odds for a draw.
+     * @param oddsVersion  The version of the odds of the match.
+     */
+    public record OpenMatch(Integer id, Status status, LocalDateTime utcDate, Double homeWinsOdds,
+                            Double awayWinsOdds, Double drawOdds, Integer oddsVersion) {
+
+        static OpenMatch of(Match match) {
+            MatchOdds odds = match.getOdds();
+            return new OpenMatch(match.getId(), match.getStatus(), match.getUtcDate(), odds.getHomeWinsOdds(),
+                    odds.getAwayWinsOdds(), odds.getDrawOdds(), match.getOddsVersion());
+        }
+
+        /**
+         * Returns the odds for the given outcome of the match.
+         *
+         * @param winner The outcome of the match.
+         * @return The odds for the outcome.
+         */
+        public Double oddsFor(Winner winner) {
+            if (winner == Winner.AWAY_TEAM)
+                return awayWinsOdds;
+            if (winner == Winner.HOME_TEAM)
+                return homeWinsOdds;
+            return drawOdds;
+        }
+    }
+
+    private record Snapshot(long version, Map<Integer, OpenMatch> matches) {
+    }
+
+    private final MatchRepository matchRepository;
+    private final Object lock = new Object();
+    // Matches closed before the database showed them as finished, guarded by the lock
+    private final Set<Integer> closedMatchIds = new HashSet<>();
+    private volatile Snapshot snapshot;
+
+    public OpenMatchSnapshotIndex(MatchRepository matchRepository) {
+        this.matchRepository = matchRepository;
+    }
+
+    /**
+     * Finds an open match by its ID.
+     *
+     * @param matchId The ID of the match.
+     * @return The {@link OpenMatch}, or null if there's no open match with the given ID.
+     */
+    public OpenMatch find(Integer matchId) {
+        return this.current().matches().get(matchId);
+    }
+
+    /**
+     * Returns the version of the current snapshot, which changes every time the snapshot is replaced.
+     *
+     * @return The version of the snapshot.
+     */
+    public long getVersion() {
+        return this.current().version();
+    }
+
+    /**
+     * Replaces the snapshot with the given open matches. Closed matches are skipped as long as they are listed, and
+     * forgotten once a list without them is published.
+     *
+     * @param openMatches Every match that the database shows as unfinished, the ones that are finished, have no odds
+     *                    or have been closed are skipped.
+     */
+    public void publish(List<Match> openMatches) {
+        synchronized (lock) {
+            Set<Integer> listedIds = openMatches.stream()
+                    .map(Match::getId)
+                    .collect(Collectors.toSet());
+            closedMatchIds.retainAll(listedIds);
+
+            Map<Integer, OpenMatch> matches = openMatches.stream()
+                    .filter(match -> match.getOdds() != null)
+                    .filter(match -> match.getStatus() != Status.FINISHED && match.getStatus() != Status.AWARDED)
+                    .filter(match -> !closedMatchIds.contains(match.getId()))
+                    .map(OpenMatch::of)
+                    .collect(Collectors.toUnmodifiableMap(OpenMatch::id, Function.identity()));
+            snapshot = new Snapshot(nextVersion(), matches);
+        }
+    }
+
+    /**
+     * Removes the given matches from the snapshot, so no more bets are placed on them, and keeps them out of the
+     * snapshots published until the database no longer lists them as unfinished.
+     *
+     * @param matchIds The IDs of the matches that are no longer open.
+     */
+    public void close(Collection<Integer> matchIds) {
+        if (matchIds.isEmpty())
+            return;
+
+        synchronized (lock) {
+            Snapshot current = this.current();
+            closedMatchIds.addAll(matchIds);
+            Map<Integer, OpenMatch> matches = new HashMap<>(current.matches());
+            if (matches.keySet().removeAll(matchIds))
+                snapshot = new Snapshot(nextVersion(), Map.copyOf(matches));
+        }
+    }
+
+    private long nextVersion() {
+        return snapshot == null ? 1 : snapshot.version() + 1;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null)
+            return current;
+
+        synchronized (lock) {
+            if (snapshot == null) {
+                log.info("Loading the snapshot of open matches");
+                this.publish(matchRepository.findAllUnfinishedMatches());
+            }
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.leandroruhl.betkickapi.service.settlement;
+
+import com.leandroruhl.betkickapi.model.SettlementTask;
+import com.leandroruhl.betkickapi.model.enums.Winner;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The SettlementService interface provides methods for managing the queue of {@link SettlementTask}s,
+ * the bets of finished matches that are waiting to be settled.
+ * Implementations of this interface handle functionalities such as enqueuing finished matches,
+ * claiming due tasks for the workers, and recording the outcome of each attempt.
+ */
+public interface SettlementService {
+
+    /**
+     * Enqueues the settlement of the bets of a finished match. Enqueuing a match that is already in the queue
+     * has no effect.
+     *
+     * @param matchId The ID of the finished match.
+     * @param winner  The winner of the match.
+     */
+    void enqueue(Integer matchId, Winner winner);
+
+    /**
+     * Claims the due pending tasks, so that no other worker settles them at the same time.
+     *
+     * @param limit        The maximum number of tasks to claim.
+     * @param claimTimeout How long a task can stay claimed before it's considered abandoned and put back in the queue.
+     * @return A list of the claimed {@link SettlementTask}s.
+     */
+    List<SettlementTask> claimDueTasks(int limit, Duration claimTimeout);
+
+    /**
+     * Settles the bets of the match of a claimed task and marks the task as done.
+     *
+     * @param task The claimed {@link SettlementTask}.
+     */
+    void settle(SettlementTask task);
+
+    /**
+     * Records a failed attempt to settle a claimed task, putting it back in the queue to be retried later
+     * unless it has run out of attempts.
+     *
+     * @param task      The claimed {@link SettlementTask}.
+     * @param exception The cause of the failure.
+     * @return true if the task will be retried, false if it has been given up on.
+     */
+    boolean recordFailure(SettlementTask task, Exception exception);
+
+    /**
+     * Counts the tasks waiting to be settled.
+     *
+     * @return The number of pending tasks.
+     */
+    long countPendingTasks();
+}
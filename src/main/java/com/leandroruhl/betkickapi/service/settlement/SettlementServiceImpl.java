@@ -0,0 +1,150 @@
+package com.leandroruhl.betkickapi.service.settlement;
+
+import com.leandroruhl.betkickapi.model.SettlementTask;
+import com.leandroruhl.betkickapi.model.enums.SettlementStatus;
+import com.leandroruhl.betkickapi.model.enums.Winner;
+import com.leandroruhl.betkickapi.repository.SettlementTaskRepository;
+import com.leandroruhl.betkickapi.service.bet.BetService;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * The SettlementServiceImpl class implements the {@link SettlementService} interface, storing the queue in the
+ * database through a {@link SettlementTaskRepository} and settling bets through the {@link BetService}.
+ * <br>
+ * <br>
+ * Failed tasks are retried with an exponential backoff, starting at {@code app.settlement.retry-delay-ms},
+ * until they have been attempted {@code app.settlement.max-attempts} times.
+ */
+@Service
+@Slf4j
+public class SettlementServiceImpl implements SettlementService {
+
+    private final SettlementTaskRepository settlementTaskRepository;
+    private final BetService betService;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+
+    public SettlementServiceImpl(SettlementTaskRepository settlementTaskRepository, BetService betService,
+                                 @Value("${app.settlement.max-attempts:5}") int maxAttempts,
+                                 @Value("${app.settlement.retry-delay-ms:60000}") long retryDelayMillis) {
+        this.settlementTaskRepository = settlementTaskRepository;
+        this.betService = betService;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation stores a pending task that can be attempted right away. It's meant to be called inside
+     * the transaction that marks the match as finished, so the task is stored if and only if the match update is.
+     * Enqueuing a match that already has a task does nothing, even if another transaction is enqueuing it at the
+     * same time.
+     *
+     * @param matchId The ID of the finished match.
+     * @param winner  The winner of the match.
+     * @see SettlementTaskRepository#insertIfAbsent(Integer, String, LocalDateTime)
+     */
+    @Override
+    public void enqueue(Integer matchId, Winner winner) {
+        // The affected rows can't tell an insert from a duplicate, as the driver reports the rows found by the update
+        settlementTaskRepository.insertIfAbsent(matchId, winner == null ? null : winner.name(), now());
+        log.info("Settlement of the bets of match " + matchId + " enqueued");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation first puts back in the queue the tasks whose claim has timed out,
+     * then claims the due tasks one by one with a conditional update, keeping only those it managed to claim.
+     *
+     * @param limit        The maximum number of tasks to claim.
+     * @param claimTimeout How long a task can stay claimed before it's considered abandoned and put back in the queue.
+     * @return A list of the claimed {@link SettlementTask}s.
+     */
+    @Override
+    @Transactional
+    public List<SettlementTask> claimDueTasks(int limit, Duration claimTimeout) {
+        LocalDateTime now = now();
+        int releasedTasks = settlementTaskRepository.releaseAbandonedTasks(now.minus(claimTimeout));
+        if (releasedTasks > 0)
+            log.warn(releasedTasks + " abandoned settlement tasks were put back in the queue");
+
+        List<Integer> claimedIds = settlementTaskRepository.findDueTaskIds(now, PageRequest.of(0, limit))
+                .stream()
+                .filter(matchId -> settlementTaskRepository.claim(matchId, now) == 1)
+                .toList();
+        if (claimedIds.isEmpty())
+            return List.of();
+
+        return settlementTaskRepository.findAllById(claimedIds);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation settles the bets and marks the task as done in the same transaction.
+     * Settling only affects unsettled bets, so settling a task again after a crash doesn't pay its bets twice.
+     *
+     * @param task The claimed {@link SettlementTask}.
+     */
+    @Override
+    @Transactional
+    public void settle(SettlementTask task) {
+        betService.finishBets(task.getMatchId(), task.getWinner());
+        task.setStatus(SettlementStatus.DONE);
+        task.setUpdatedAt(now());
+        task.setLastError(null);
+        settlementTaskRepository.save(task);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation doubles the delay before the next attempt after each failure.
+     *
+     * @param task      The claimed {@link SettlementTask}.
+     * @param exception The cause of the failure.
+     * @return true if the task will be retried, false if it has been given up on.
+     */
+    @Override
+    @Transactional
+    public boolean recordFailure(SettlementTask task, Exception exception) {
+        int attempts = task.getAttempts() + 1;
+        boolean retry = attempts < maxAttempts;
+        LocalDateTime now = now();
+
+        task.setAttempts(attempts);
+        task.setStatus(retry ? SettlementStatus.PENDING : SettlementStatus.FAILED);
+        task.setNextAttemptAt(now.plus(Duration.ofMillis(retryDelayMillis << (attempts - 1))));
+        task.setUpdatedAt(now);
+        String message = exception.getClass().getSimpleName() + ": " + exception.getMessage();
+        task.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        settlementTaskRepository.save(task);
+        return retry;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The number of pending tasks.
+     */
+    @Override
+    public long countPendingTasks() {
+        return settlementTaskRepository.countByStatus(SettlementStatus.PENDING);
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.ofInstant(Instant.now(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,134 @@
+package com.leandroruhl.betkickapi.service.settlement;
+
+import com.leandroruhl.betkickapi.model.SettlementTask;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SettlementWorker drains the queue of {@link SettlementTask}s, settling the bets of several finished matches in
+ * parallel on a dedicated pool of {@code app.settlement.threads} threads. Every task is settled in its own
+ * transaction, so a failing match doesn't affect the others and is retried later by the {@link SettlementService}.
+ * <br>
+ * <br>
+ * Metrics:
+ * <br>
+ * * {@code settlement.tasks} (counter, tagged by outcome): settled, retried and failed tasks.
+ * <br>
+ * * {@code settlement.task.duration} (timer, tagged by outcome): how long it took to settle each task.
+ * <br>
+ * * {@code settlement.queue.pending} (gauge): tasks waiting to be settled, as of the last run.
+ */
+@Component
+@Slf4j
+public class SettlementWorker {
+
+    private final SettlementService settlementService;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final int batchSize;
+    private final Duration claimTimeout;
+    private final AtomicLong pendingTasks = new AtomicLong();
+
+    public SettlementWorker(SettlementService settlementService, MeterRegistry meterRegistry,
+                            @Value("${app.settlement.threads:4}") int threads,
+                            @Value("${app.settlement.batch-size:20}") int batchSize,
+                            @Value("${app.settlement.claim-timeout-ms:600000}") long claimTimeoutMillis) {
+        this.settlementService = settlementService;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.claimTimeout = Duration.ofMillis(claimTimeoutMillis);
+        // A run never submits more tasks than the batch size, so the queue can't overflow
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(batchSize), new CustomizableThreadFactory("settlement-"));
+        this.executor.allowCoreThreadTimeOut(true);
+        Gauge.builder("settlement.queue.pending", pendingTasks, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Claims a batch of due tasks and settles them in parallel, returning once all of them have been attempted.
+     *
+     * @return The number of tasks that were attempted.
+     */
+    public int processDueTasks() {
+        List<SettlementTask> tasks = settlementService.claimDueTasks(batchSize, claimTimeout);
+        if (!tasks.isEmpty()) {
+            log.info("Settling the bets of " + tasks.size() + " finished matches");
+            CompletableFuture<?>[] attempts = tasks.stream()
+                    .map(task -> CompletableFuture.runAsync(() -> this.process(task), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(attempts).join();
+        }
+
+        pendingTasks.set(settlementService.countPendingTasks());
+        return tasks.size();
+    }
+
+    /**
+     * Settles a single task, recording its failure if it can't be settled.
+     *
+     * @param task The claimed {@link SettlementTask}.
+     */
+    private void process(SettlementTask task) {
+        long start = System.nanoTime();
+        String outcome;
+        try {
+            settlementService.settle(task);
+            outcome = "settled";
+        } catch (Exception exception) {
+            log.error("Settlement of the bets of match " + task.getMatchId() + " failed: " + exception.getMessage());
+            outcome = this.recordFailure(task, exception);
+        }
+
+        Timer.builder("settlement.task.duration")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        Counter.builder("settlement.tasks")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Records the failure of a task. If even that fails, the task stays claimed until its claim times out.
+     *
+     * @return The outcome of the attempt.
+     */
+    private String recordFailure(SettlementTask task, Exception exception) {
+        try {
+            if (settlementService.recordFailure(task, exception))
+                return "retried";
+            log.error("Settlement of the bets of match " + task.getMatchId() + " was given up on after "
+                    + task.getAttempts() + " attempts");
+            return "failed";
+        } catch (Exception recordException) {
+            log.error("Failure of the settlement of match " + task.getMatchId() + " couldn't be recorded: "
+                    + recordException.getMessage());
+            return "retried";
+        }
+    }
+
+    /**
+     * Stops the pool when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
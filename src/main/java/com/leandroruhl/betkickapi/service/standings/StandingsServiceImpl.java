@@ -1,6 +1,8 @@
 package com.leandroruhl.betkickapi.service.standings;
 
+import com.leandroruhl.betkickapi.config.CacheNames;
 import com.leandroruhl.betkickapi.dto.internal_api.CompetitionStandingsResponse;
+import com.leandroruhl.betkickapi.mapper.StandingsMapper;
 import com.leandroruhl.betkickapi.model.CompetitionStandings;
 import com.leandroruhl.betkickapi.model.Standing;
 import com.leandroruhl.betkickapi.repository.CompetitionStandingsRepository;
@@ -10,7 +12,6 @@ import com.leandroruhl.betkickapi.service.utility.CacheService;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
@@ -20,7 +21,7 @@ import java.util.List;
  * The StandingsServiceImpl class implements the {@link StandingsService} interface
  * and provides concrete implementations for managing operations related to standings in competitions.
  * This class utilizes a {@link CompetitionStandingsRepository}, {@link StandingRepository},
- * {@link TeamService}, {@link ModelMapper}, and {@link CacheService} for interacting with standings data.
+ * {@link TeamService}, {@link StandingsMapper}, and {@link CacheService} for interacting with standings data.
  */
 @AllArgsConstructor
 @Service
@@ -30,22 +31,21 @@ public class StandingsServiceImpl implements StandingsService {
     private final CompetitionStandingsRepository competitionStandingsRepository;
     private final StandingRepository standingRepository;
     private final TeamService teamService;
-    private final ModelMapper modelMapper;
+    private final StandingsMapper standingsMapper;
     private final CacheService cacheService;
 
     /**
      * This implementation retrieves the standings for a specific competition based on its ID.
-     * It utilizes caching to improve performance, and a cache key is generated based on the competition ID.
+     * It utilizes caching to improve performance, the standings are cached by competition ID.
      *
      * @param id The unique identifier of the competition.
      * @return A list of {@link CompetitionStandingsResponse} objects representing the standings for the competition.
      */
     @Override
-    @Cacheable(value = "footballDataCache", key = "'standingsByCompetitionId-' + #id")
+    @Cacheable(value = CacheNames.STANDINGS_BY_COMPETITION, key = "#id")
     // WARNING: if this method is called while the database is empty it caches an empty array
     public List<CompetitionStandingsResponse> getStandingsByCompetitionId(Integer id) {
-        String cacheKey = "standingsByCompetitionId-" + id;
-        log.info("New cache key created: " + cacheKey);
+        log.info("New cache key created in " + CacheNames.STANDINGS_BY_COMPETITION + ": " + id);
         return convertStandingsToDto(competitionStandingsRepository.findByCompetitionId(id));
     }
 
@@ -58,7 +58,7 @@ public class StandingsServiceImpl implements StandingsService {
     private List<CompetitionStandingsResponse> convertStandingsToDto(List<CompetitionStandings> standings) {
         return standings
                 .stream()
-                .map(standing -> modelMapper.map(standing, CompetitionStandingsResponse.class))
+                .map(standingsMapper::toResponse)
                 .toList();
     }
 
@@ -101,13 +101,13 @@ public class StandingsServiceImpl implements StandingsService {
      * @param savedStandings The list of {@link CompetitionStandings} entities for which the cache needs to be invalidated.
      */
     private void invalidateStandingsCache(List<CompetitionStandings> savedStandings) {
-        List<String> cacheKeys = savedStandings
+        List<Integer> competitionIds = savedStandings
                 .stream()
-                .map(standing -> "standingsByCompetitionId-" + standing.getCompetition().getId())
+                .map(standing -> standing.getCompetition().getId())
                 .distinct()
                 .toList();
 
-        cacheService.invalidateCacheForKeys(cacheKeys);
+        cacheService.invalidateCacheForKeys(CacheNames.STANDINGS_BY_COMPETITION, competitionIds);
     }
 
     /**
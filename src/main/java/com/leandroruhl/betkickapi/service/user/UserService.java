@@ -1,6 +1,5 @@
 package com.leandroruhl.betkickapi.service.user;
 
-import com.leandroruhl.betkickapi.dto.internal_api.UserBetSummary;
 import com.leandroruhl.betkickapi.dto.security.CredentialsDto;
 import com.leandroruhl.betkickapi.dto.security.SignUpDto;
 import com.leandroruhl.betkickapi.dto.security.UserDto;
@@ -10,22 +9,14 @@ import com.leandroruhl.betkickapi.exception.InvalidPasswordException;
 import com.leandroruhl.betkickapi.exception.UsernameAlreadyExistsException;
 import com.leandroruhl.betkickapi.model.User;
 
-import java.util.List;
+import java.util.UUID;
 
 /**
  * The UserService interface provides methods for managing user-related operations
- * such as checking user existence, retrieving user leaderboard information,
- * withdrawing and depositing funds, finding users by ID, and saving user details.
+ * such as checking user existence, withdrawing and depositing funds, finding users by ID, and saving user details.
  */
 public interface UserService {
 
-    /**
-     * Retrieves the leaderboard information for users.
-     *
-     * @return A list of {@link UserBetSummary} objects representing the user leaderboard.
-     */
-    List<UserBetSummary> getUserLeaderboard();
-
     /**
      * Withdraws a specified amount from the user's account balance.
      *
@@ -47,6 +38,17 @@ public interface UserService {
      */
     User deposit(User user, Double amount);
 
+    /**
+     * Refunds the amount of a canceled bet into the user's account balance.
+     *
+     * @param user    The user who placed the bet.
+     * @param amount  The amount of the bet.
+     * @param matchId The ID of the match the bet was placed on.
+     * @return The updated {@link User} object after the refund.
+     * @throws IllegalArgumentException If the amount exceeds the account balance limit.
+     */
+    User refund(User user, Double amount, Integer matchId);
+
     /**
      * Finds a user by the specified ID.
      *
@@ -57,7 +59,17 @@ public interface UserService {
     User findById(String id);
 
     /**
-     * Saves the user details.
+     * Finds the user that a request is authenticated as. Users may be cached for a short time,
+     * so their account balance may be slightly outdated.
+     *
+     * @param id The unique identifier of the user.
+     * @return The {@link User} object associated with the given ID.
+     * @throws EntityNotFoundException If no user is found.
+     */
+    User findPrincipalById(UUID id);
+
+    /**
+     * Saves the user details. New users get their account balance recorded as the opening entry of their ledger.
      *
      * @param user The {@link User} object to be saved.
      * @return The saved {@link User} object.
@@ -1,33 +1,45 @@
 package com.leandroruhl.betkickapi.service.user;
 
 
-import com.leandroruhl.betkickapi.dto.internal_api.UserBetSummary;
+import com.leandroruhl.betkickapi.config.CacheNames;
 import com.leandroruhl.betkickapi.dto.security.CredentialsDto;
 import com.leandroruhl.betkickapi.dto.security.SignUpDto;
 import com.leandroruhl.betkickapi.dto.security.UserDto;
 import com.leandroruhl.betkickapi.exception.AccountBalanceException;
 import com.leandroruhl.betkickapi.exception.EntityNotFoundException;
 import com.leandroruhl.betkickapi.exception.InvalidPasswordException;
+import com.leandroruhl.betkickapi.exception.PasswordHashingUnavailableException;
 import com.leandroruhl.betkickapi.exception.UsernameAlreadyExistsException;
+import com.leandroruhl.betkickapi.mapper.UserMapper;
+import com.leandroruhl.betkickapi.model.BalanceLedgerEntry;
 import com.leandroruhl.betkickapi.model.User;
+import com.leandroruhl.betkickapi.model.enums.LedgerEntryType;
+import com.leandroruhl.betkickapi.repository.BalanceLedgerEntryRepository;
 import com.leandroruhl.betkickapi.repository.UserRepository;
+import com.leandroruhl.betkickapi.service.utility.CacheService;
+import com.leandroruhl.betkickapi.service.utility.PasswordHashingService;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.nio.CharBuffer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * The {@code UserServiceImpl} class implements the {@link UserService} interface
  * and provides concrete implementations for managing user-related operations.
- * This class utilizes a {@link UserRepository} for interacting with user data.
+ * This class utilizes a {@link UserRepository} for interacting with user data
+ * and a {@link BalanceLedgerEntryRepository} for recording every change of the account balances.
+ * The users that requests are authenticated as are cached, and evicted through the {@link CacheService}
+ * when their balance changes. Passwords are hashed and checked through the {@link PasswordHashingService},
+ * off the request threads.
  */
 @AllArgsConstructor
 @Service
@@ -35,65 +47,97 @@ import java.util.UUID;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final BalanceLedgerEntryRepository balanceLedgerEntryRepository;
+    private final UserMapper userMapper;
+    private final PasswordHashingService passwordHashingService;
+    private final CacheService cacheService;
 
     /**
      * {@inheritDoc}
      * <p>
-     * This implementation retrieves the user leaderboard by invoking the
-     * {@link UserRepository#findEarningsAndBets()} method.
-     *
-     * @return A list of {@link UserBetSummary} objects representing the user leaderboard.
-     */
-    @Override
-    @Cacheable(value = "footballDataCache", key = "'leaderboard'")
-    public List<UserBetSummary> getUserLeaderboard() {
-        return userRepository.findEarningsAndBets();
-    }
-
-    /**
-     * {@inheritDoc}
-     * <p>
-     * This implementation withdraws the specified amount from the user's account balance.
-     * It checks if the user has sufficient funds and updates the user's balance accordingly.
+     * This implementation withdraws the specified amount from the user's account balance with a conditional update
+     * that only succeeds if the user has sufficient funds, so concurrent withdrawals can't overdraw the account
+     * or overwrite each other. The withdrawal is recorded in the balance ledger in the same transaction.
      *
      * @param user   The user from whom the withdrawal is made.
      * @param amount The amount to be withdrawn.
      * @return The updated {@link User} object after the withdrawal.
      * @throws AccountBalanceException If the user does not have sufficient funds for the withdrawal.
+     * @see UserRepository#debit(UUID, Double)
      */
     @Override
+    @Transactional
     public User withdraw(User user, Double amount) {
-        if (user.getAccountBalance() >= amount) {
-            user.setAccountBalance(user.getAccountBalance() - amount);
-            return userRepository.save(user);
-        } else {
+        if (userRepository.debit(user.getId(), amount) == 0)
             throw new AccountBalanceException("Insufficient funds");
-        }
+
+        return this.recordMovement(user.getId(), -amount, LedgerEntryType.WITHDRAWAL, null);
     }
 
     /**
      * {@inheritDoc}
      * <p>
      * This implementation deposits the specified amount into the user's account balance.
-     * It checks if the amount is finite and does not exceed the maximum possible value
-     * for a double, then updates the user's balance accordingly.
+     * It checks if the amount is finite, then updates the user's balance with a conditional update
+     * that only succeeds if the new balance doesn't exceed the maximum possible value for a double.
+     * The deposit is recorded in the balance ledger in the same transaction.
      *
      * @param user   The user into whom the deposit is made.
      * @param amount The amount to be deposited.
      * @return The updated {@link User} object after the deposit.
      * @throws IllegalArgumentException If adding the amount would exceed the maximum possible value.
+     * @see UserRepository#credit(UUID, Double, Double)
      */
     @Override
+    @Transactional
     public User deposit(User user, Double amount) {
-        double currentBalance = user.getAccountBalance();
-        if (Double.isFinite(amount) && currentBalance <= Double.MAX_VALUE - amount) {
-            user.setAccountBalance(currentBalance + amount);
-            return userRepository.save(user);
-        } else {
+        this.credit(user, amount);
+        return this.recordMovement(user.getId(), amount, LedgerEntryType.DEPOSIT, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation credits the amount like {@link #deposit(User, Double)} does, but records it in the
+     * balance ledger as the refund of a bet on the given match.
+     *
+     * @param user    The user who placed the bet.
+     * @param amount  The amount of the bet.
+     * @param matchId The ID of the match the bet was placed on.
+     * @return The updated {@link User} object after the refund.
+     * @throws IllegalArgumentException If adding the amount would exceed the maximum possible value.
+     */
+    @Override
+    @Transactional
+    public User refund(User user, Double amount, Integer matchId) {
+        this.credit(user, amount);
+        return this.recordMovement(user.getId(), amount, LedgerEntryType.BET_REFUND, matchId);
+    }
+
+    private void credit(User user, Double amount) {
+        if (!Double.isFinite(amount) || userRepository.credit(user.getId(), amount, Double.MAX_VALUE - amount) == 0)
             throw new IllegalArgumentException("Adding the amount would exceed the max possible value");
-        }
+    }
+
+    /**
+     * Records a movement of the balance of a user in the ledger and reloads the user, whose balance
+     * has been changed by a conditional update.
+     *
+     * @param userId The ID of the user.
+     * @param amount The amount added to the balance, negative for withdrawals.
+     * @param type    The {@link LedgerEntryType} of the movement.
+     * @param matchId The ID of the match that originated the movement, may be null.
+     * @return The {@link User} object with its current balance.
+     */
+    private User recordMovement(UUID userId, Double amount, LedgerEntryType type, Integer matchId) {
+        balanceLedgerEntryRepository.save(new BalanceLedgerEntry(null, userId, amount, type, matchId, now()));
+        cacheService.invalidateCacheForKey(CacheNames.PRINCIPALS, userId);
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException(User.class, "userId", userId.toString()));
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.ofInstant(Instant.now(), ZoneOffset.UTC);
     }
 
     /**
@@ -112,18 +156,52 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new EntityNotFoundException(User.class, "userId", id));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This implementation caches the users by ID in the "principals" cache for a short time, so a user that makes
+     * several requests in a row is only loaded once.
+     *
+     * @param id The unique identifier of the user.
+     * @return The {@link User} object associated with the given ID.
+     * @throws EntityNotFoundException If no user is found with the specified ID.
+     * @see CacheNames#PRINCIPALS
+     */
+    @Override
+    @Cacheable(value = CacheNames.PRINCIPALS, key = "#id")
+    public User findPrincipalById(UUID id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(User.class, "userId", id.toString()));
+    }
+
     /**
      * {@inheritDoc}
      * <p>
      * This implementation saves the user details using the
-     * {@link UserRepository#save(Object)} method.
+     * {@link UserRepository#save(Object)} method. If the user is new, its opening balance is recorded in the
+     * balance ledger in the same transaction.
      *
      * @param user The {@link User} object to be saved.
      * @return The saved {@link User} object.
      */
     @Override
+    @Transactional
     public User saveUser(User user) {
-        return userRepository.save(user);
+        boolean isNew = user.getId() == null;
+        User savedUser = userRepository.save(user);
+        if (isNew)
+            this.recordOpeningBalance(savedUser);
+        return savedUser;
+    }
+
+    /**
+     * Records the balance a new account is created with as the first entry of its ledger.
+     *
+     * @param user The newly saved user.
+     */
+    private void recordOpeningBalance(User user) {
+        balanceLedgerEntryRepository.save(new BalanceLedgerEntry(user.getId(), user.getAccountBalance(),
+                LedgerEntryType.OPENING_BALANCE, now()));
     }
 
     /**
@@ -131,22 +209,44 @@ public class UserServiceImpl implements UserService {
      * <p>
      * This implementation logs in a user with the specified credentials.
      * It retrieves the user by the username and checks if the password matches.
+     * If the password was hashed with a lower cost than the current one, it's hashed again with the current one.
      *
      * @param credentialsDto The credentials of the user.
      * @return The {@link UserDto} object representing the logged-in user.
      * @throws InvalidPasswordException If the password is invalid.
+     * @throws PasswordHashingUnavailableException If too many passwords are being hashed.
      */
     @Override
     public UserDto login(CredentialsDto credentialsDto) throws InvalidPasswordException {
         User user = userRepository.findByLogin(credentialsDto.getLogin())
                 .orElseThrow(() -> new EntityNotFoundException(User.class, "Username", credentialsDto.getLogin()));
 
-        if (passwordEncoder.matches(CharBuffer.wrap(credentialsDto.getPassword()), user.getPassword()))
+        if (passwordHashingService.matches(CharBuffer.wrap(credentialsDto.getPassword()), user.getPassword())) {
+            if (passwordHashingService.upgradeEncoding(user.getPassword()))
+                this.rehashPassword(user, credentialsDto.getPassword());
             return userToDto(user);
+        }
 
         throw new InvalidPasswordException("Incorrect password");
     }
 
+    /**
+     * Hashes the password of a user again with the current cost. The login doesn't fail if the password can't be
+     * hashed right now, it's hashed again on a later login instead.
+     *
+     * @param user        The user that has just logged in.
+     * @param rawPassword The password of the user.
+     */
+    private void rehashPassword(User user, char[] rawPassword) {
+        try {
+            String newPassword = passwordHashingService.encode(CharBuffer.wrap(rawPassword));
+            if (userRepository.updatePassword(user.getId(), user.getPassword(), newPassword) == 1)
+                log.info("Password of user " + user.getId() + " hashed again with the current cost");
+        } catch (PasswordHashingUnavailableException e) {
+            log.warn("Password of user " + user.getId() + " couldn't be hashed again: " + e.getMessage());
+        }
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -158,6 +258,7 @@ public class UserServiceImpl implements UserService {
      * @throws UsernameAlreadyExistsException If the username already exists.
      */
     @Override
+    @Transactional
     public UserDto register(SignUpDto signUpDto) throws UsernameAlreadyExistsException {
         Optional<User> oUser = userRepository.findByLogin(signUpDto.getLogin());
 
@@ -168,9 +269,10 @@ public class UserServiceImpl implements UserService {
         User user = singUpDtoToUser(signUpDto);
         user.setAccountBalance(1000D);
         user.setBets(new ArrayList<>());
-        user.setPassword(passwordEncoder.encode(CharBuffer.wrap(signUpDto.getPassword())));
+        user.setPassword(passwordHashingService.encode(CharBuffer.wrap(signUpDto.getPassword())));
 
         User savedUser = userRepository.save(user);
+        this.recordOpeningBalance(savedUser);
         return userToDto(savedUser);
     }
 
@@ -194,14 +296,14 @@ public class UserServiceImpl implements UserService {
      * {@inheritDoc}
      * <p>
      * This implementation converts a {@link User} object to a {@link UserDto} object
-     * using the ModelMapper library.
+     * using the {@link UserMapper}.
      *
      * @param user The user to be converted.
      * @return The {@link UserDto} object representing the user.
      */
     @Override
     public UserDto userToDto(User user) {
-        return modelMapper.map(user, UserDto.class);
+        return userMapper.toDto(user);
     }
 
     /**
@@ -211,6 +313,6 @@ public class UserServiceImpl implements UserService {
      * @return The {@link User} object representing the sign-up details.
      */
     private User singUpDtoToUser(SignUpDto signUpDto) {
-        return modelMapper.map(signUpDto, User.class);
+        return userMapper.fromSignUp(signUpDto);
     }
 }
\ No newline at end of file
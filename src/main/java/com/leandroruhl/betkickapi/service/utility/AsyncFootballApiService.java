@@ -0,0 +1,100 @@
+package com.leandroruhl.betkickapi.service.utility;
+
+import com.leandroruhl.betkickapi.dto.external_api.HeadToHeadResponse;
+import com.leandroruhl.betkickapi.dto.external_api.StandingsResponse;
+import com.leandroruhl.betkickapi.dto.external_api.TeamStatsResponse;
+import com.leandroruhl.betkickapi.model.Competition;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * AsyncFootballApiService is the non-blocking counterpart of the fetch methods of {@link FootballApiService}.
+ * Every method returns immediately with a {@link CompletableFuture} that is completed by a dedicated, bounded pool
+ * of threads, so callers can have many requests in flight at the same time instead of waiting for each one.
+ * <br>
+ * <br>
+ * Requests still go through the {@link UpstreamRateLimiter} of {@link FootballApiService}, which keeps the number of
+ * requests within the external API quota no matter how many of them are in flight. When the pool and its queue are
+ * full, the returned future fails with a {@link RejectedExecutionException} instead of blocking the caller.
+ */
+@Service
+public class AsyncFootballApiService {
+
+    private final FootballApiService footballApiService;
+    private final ThreadPoolExecutor executor;
+
+    public AsyncFootballApiService(FootballApiService footballApiService,
+                                   @Value("${app.football-api.async.threads:8}") int threads,
+                                   @Value("${app.football-api.async.queue-capacity:200}") int queueCapacity) {
+        this.footballApiService = footballApiService;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("football-api-"));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Asynchronously fetches the statistics of a team.
+     *
+     * @see FootballApiService#fetchTeamStats(Integer, LocalDate, LocalDate)
+     */
+    public CompletableFuture<TeamStatsResponse> fetchTeamStats(Integer teamId, LocalDate dateFrom, LocalDate dateTo) {
+        return this.supply(() -> footballApiService.fetchTeamStats(teamId, dateFrom, dateTo));
+    }
+
+    /**
+     * Asynchronously fetches the head-to-head statistics of a match.
+     *
+     * @see FootballApiService#fetchHeadToHead(Integer)
+     */
+    public CompletableFuture<HeadToHeadResponse> fetchHeadToHead(Integer matchId) {
+        return this.supply(() -> footballApiService.fetchHeadToHead(matchId));
+    }
+
+    /**
+     * Asynchronously fetches the list of competitions.
+     *
+     * @see FootballApiService#fetchCompetitions()
+     */
+    public CompletableFuture<List<Competition>> fetchCompetitions() {
+        return this.supply(footballApiService::fetchCompetitions);
+    }
+
+    /**
+     * Asynchronously fetches the standings of a competition.
+     *
+     * @see FootballApiService#fetchStandings(Competition)
+     */
+    public CompletableFuture<StandingsResponse> fetchStandings(Competition competition) {
+        return this.supply(() -> footballApiService.fetchStandings(competition));
+    }
+
+    /**
+     * Runs a fetch on the pool, turning a rejection into a failed future.
+     */
+    private <T> CompletableFuture<T> supply(Supplier<T> fetch) {
+        try {
+            return CompletableFuture.supplyAsync(fetch, executor);
+        } catch (RejectedExecutionException exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    /**
+     * Stops the pool when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
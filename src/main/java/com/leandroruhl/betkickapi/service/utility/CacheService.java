@@ -1,5 +1,6 @@
 package com.leandroruhl.betkickapi.service.utility;
 
+import com.leandroruhl.betkickapi.config.CacheNames;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
@@ -9,8 +10,9 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 
 /**
- * CacheService is responsible for invalidating entries in a specific cache
- * named "footballDataCache." It provides methods to invalidate cache entries for a single key or a list of keys.
+ * CacheService is responsible for invalidating entries in the caches of the application, listed in {@link CacheNames}.
+ * It provides methods to invalidate cache entries for a single key or a list of keys,
+ * and to refresh an entry with a new value.
  */
 @AllArgsConstructor
 @Service
@@ -20,30 +22,49 @@ public class CacheService {
     private final CacheManager cacheManager;
 
     /**
-     * Invalidates the cache entry for the specified key in the "footballDataCache."
+     * Invalidates the cache entry for the specified key in the given cache.
      *
-     * @param key The key whose cache entry needs to be invalidated.
-     * @param <K> The type of the key.
+     * @param cacheName The name of the cache.
+     * @param key       The key whose cache entry needs to be invalidated.
+     * @param <K>       The type of the key.
      */
-    public <K> void invalidateCacheForKey(K key) {
-        Cache footballCache = cacheManager.getCache("footballDataCache");
-        if (footballCache != null) {
-            log.info("Key being invalidated: " + key);
-            footballCache.evict(key);
+    public <K> void invalidateCacheForKey(String cacheName, K key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            log.info("Key being invalidated in " + cacheName + ": " + key);
+            cache.evict(key);
         }
     }
 
     /**
-     * Invalidates cache entries for the specified list of keys in the "footballDataCache."
+     * Invalidates cache entries for the specified list of keys in the given cache.
      *
-     * @param keys The list of keys whose cache entries need to be invalidated.
-     * @param <K>  The type of the keys.
+     * @param cacheName The name of the cache.
+     * @param keys      The list of keys whose cache entries need to be invalidated.
+     * @param <K>       The type of the keys.
      */
-    public <K> void invalidateCacheForKeys(List<K> keys) {
-        Cache footballCache = cacheManager.getCache("footballDataCache");
-        if (footballCache != null) {
-            keys.forEach(key -> log.info("Key being invalidated: " + key));
-            keys.forEach(footballCache::evict);
+    public <K> void invalidateCacheForKeys(String cacheName, List<K> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            keys.forEach(key -> log.info("Key being invalidated in " + cacheName + ": " + key));
+            keys.forEach(cache::evict);
+        }
+    }
+
+    /**
+     * Replaces the cached value of the specified key in the given cache. Unlike invalidating the entry,
+     * readers never miss: they get the previous value until the new one is swapped in.
+     *
+     * @param cacheName The name of the cache.
+     * @param key       The key whose cache entry needs to be refreshed.
+     * @param value     The new value of the entry.
+     * @param <K>       The type of the key.
+     */
+    public <K> void refresh(String cacheName, K key, Object value) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            log.info("Key being refreshed in " + cacheName + ": " + key);
+            cache.put(key, value);
         }
     }
 }
@@ -1,5 +1,7 @@
 package com.leandroruhl.betkickapi.service.utility;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leandroruhl.betkickapi.config.CacheNames;
 import com.leandroruhl.betkickapi.dto.external_api.*;
 import com.leandroruhl.betkickapi.model.*;
 import com.leandroruhl.betkickapi.service.competition.CompetitionService;
@@ -9,14 +11,21 @@ import com.leandroruhl.betkickapi.service.team.TeamService;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.env.Environment;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
@@ -43,12 +52,19 @@ public class FootballApiService {
     private final MatchService matchService;
     private final TeamService teamService;
     private final StandingsService standingsService;
+    private final UpstreamRateLimiter rateLimiter;
+    private final HttpResponseCache responseCache;
+    private final ObjectMapper objectMapper;
 
     @Autowired
     public FootballApiService(RestTemplate restTemplate, Environment env, StandingsService standingsService,
-                              CompetitionService competitionService, MatchService matchService, TeamService teamService) {
+                              CompetitionService competitionService, MatchService matchService, TeamService teamService,
+                              UpstreamRateLimiter rateLimiter, HttpResponseCache responseCache, ObjectMapper objectMapper) {
         this.API_KEY = env.getProperty("API_KEY");
         this.restTemplate = restTemplate;
+        this.rateLimiter = rateLimiter;
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
         this.competitionService = competitionService;
         this.matchService = matchService;
         this.teamService = teamService;
@@ -56,30 +72,32 @@ public class FootballApiService {
     }
 
     /**
-     * Fetches the number of wins, draws, and losses of a team within a specified date range.
+     * Fetches the number of wins, draws, and losses of a team within a specified date range, and its recent results.
+     * <br>
+     * <br>
+     * Statistics are cached by team and end date in the "teamStats" cache, so that a team with several upcoming
+     * matches is fetched only once per day. Concurrent calls for the same key wait for a single request.
+     * The cached instance is shared, so it must not be modified.
      *
      * @param teamId   The unique identifier of the team for which statistics are to be fetched.
      * @param dateFrom The start date of the period for which statistics are retrieved.
      * @param dateTo   The end date of the period for which statistics are retrieved.
-     * @return A {@link TeamStatsResponse} object containing the requested team statistics.
+     * @return A {@link TeamStatsResponse} object containing the requested team statistics, with its nested matches unpacked.
      */
+    @Cacheable(value = CacheNames.TEAM_STATS, key = "#teamId + '-' + #dateTo", sync = true)
     public TeamStatsResponse fetchTeamStats(Integer teamId, LocalDate dateFrom, LocalDate dateTo) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-Auth-Token", API_KEY);
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-
         // Stats extracted from "resultSet" object in the JSON response
-        ResponseEntity<TeamStatsResponse> response = restTemplate.exchange(
+        TeamStatsResponse teamStats = this.exchange(
+                UpstreamRateLimiter.Priority.BACKGROUND,
                 "https://api.football-data.org/v4/teams/{teamId}/matches?dateFrom={dateFrom}&dateTo={dateTo}&limit=200",
-                HttpMethod.GET,
-                entity,
                 TeamStatsResponse.class,
                 teamId,
                 dateFrom,
                 dateTo
         );
 
-        return response.getBody();
+        teamStats.unpackNestedMatches(teamId);
+        return teamStats;
     }
 
     /**
@@ -89,19 +107,12 @@ public class FootballApiService {
      * @return A {@link HeadToHeadResponse} object containing the requested head-to-head statistics.
      */
     public HeadToHeadResponse fetchHeadToHead(Integer matchId) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-Auth-Token", API_KEY);
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-
-        ResponseEntity<HeadToHeadResponse> response = restTemplate.exchange(
+        return this.exchange(
+                UpstreamRateLimiter.Priority.BACKGROUND,
                 "https://api.football-data.org/v4/matches/{matchId}/head2head?limit=100",
-                HttpMethod.GET,
-                entity,
                 HeadToHeadResponse.class,
                 matchId
         );
-
-        return response.getBody();
     }
 
     /**
@@ -110,18 +121,13 @@ public class FootballApiService {
      * @return A list of {@link Competition} objects representing football competitions.
      */
     public List<Competition> fetchCompetitions() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-Auth-Token", API_KEY);
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-
-        ResponseEntity<CompetitionsResponse> response = restTemplate.exchange(
+        CompetitionsResponse response = this.exchange(
+                UpstreamRateLimiter.Priority.STANDARD,
                 "https://api.football-data.org/v4/competitions",
-                HttpMethod.GET,
-                entity,
                 CompetitionsResponse.class
         );
 
-        return response.getBody().getCompetitions();
+        return response.getCompetitions();
     }
 
     /**
@@ -131,19 +137,12 @@ public class FootballApiService {
      * @return A {@link StandingsResponse} object containing the requested standings.
      */
     public StandingsResponse fetchStandings(Competition competition) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-Auth-Token", API_KEY);
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-
-        ResponseEntity<StandingsResponse> response = restTemplate.exchange(
+        return this.exchange(
+                UpstreamRateLimiter.Priority.STANDARD,
                 "https://api.football-data.org/v4/competitions/{competitionId}/standings",
-                HttpMethod.GET,
-                entity,
                 StandingsResponse.class,
                 competition.getId()
         );
-
-        return response.getBody();
     }
 
     /**
@@ -177,78 +176,95 @@ public class FootballApiService {
     }
 
     /**
-     * Fetches and saves matches from the API within the specified date range, optionally updating existing matches
-     * in the database.
+     * Replaces all the stored standings with the provided standings responses in a single transaction.
      *
-     * @param dateFrom     The start date for fetching matches.
-     * @param dateTo       The end date for fetching matches.
-     * @param saveOrUpdate A boolean indicating whether to save or update existing matches in the database.
-     * @see MatchesResponse
-     * @see MatchService#saveMatches(List)
-     * @see MatchService#saveOrUpdateMatches(List)
+     * @param responses A list of {@link StandingsResponse} objects representing the standings data.
+     * @see #saveStandings(List)
      */
     @Transactional
-    public void fetchAndSaveMatches(LocalDate dateFrom, LocalDate dateTo, Boolean saveOrUpdate) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-Auth-Token", API_KEY);
-        HttpEntity<String> entity = new HttpEntity<>(headers);
+    public void replaceStandings(List<StandingsResponse> responses) {
+        standingsService.deleteStandings();
+        this.saveStandings(responses);
+    }
 
-        ResponseEntity<MatchesResponse> response = restTemplate.exchange(
+    /**
+     * Fetches the matches within the specified date range from the API, skipping the ones whose teams aren't known yet.
+     * <br>
+     * <br>
+     * The request may wait for the {@link UpstreamRateLimiter}, so this method must be called outside a transaction,
+     * and the matches saved afterwards with {@link #saveMatches(List, Boolean)}.
+     *
+     * @param dateFrom The start date for fetching matches.
+     * @param dateTo   The end date for fetching matches.
+     * @return A list of {@link Match} objects representing the fetched matches.
+     * @see MatchesResponse
+     */
+    public List<Match> fetchMatches(LocalDate dateFrom, LocalDate dateTo) {
+        MatchesResponse response = this.exchange(
+                UpstreamRateLimiter.Priority.STANDARD,
                 "https://api.football-data.org/v4/matches?dateFrom={dateFrom}&dateTo={dateTo}",
-                HttpMethod.GET,
-                entity,
                 MatchesResponse.class,
                 dateFrom,
                 dateTo
         );
 
-        List<Match> matches = response.getBody().getMatches();
-        matches = matches
+        return response.getMatches()
                 .stream()
                 .filter(match -> match.getAwayTeam().getId() != null && match.getHomeTeam().getId() != null)
                 .toList();
-
-        if (!matches.isEmpty())
-            this.saveMatches(matches, saveOrUpdate);
     }
 
     /**
-     * Fetches today's matches from the API and updates the existing matches in the database.
+     * Fetches today's matches from the API.
+     * <br>
+     * <br>
+     * The request may wait for the {@link UpstreamRateLimiter}, so this method must be called outside a transaction,
+     * and the matches saved afterwards with {@link #updateMatches(List)}.
      *
+     * @return A list of {@link Match} objects representing today's matches.
      * @see MatchesResponse
-     * @see MatchService#updateMatches(List)
      */
-    @Transactional
-    public void fetchAndUpdateMatches() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("X-Auth-Token", API_KEY);
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-
+    public List<Match> fetchTodaysMatches() {
         // This only gets today's games
-        ResponseEntity<MatchesResponse> response = restTemplate.exchange(
+        MatchesResponse response = this.exchange(
+                UpstreamRateLimiter.Priority.LIVE,
                 "https://api.football-data.org/v4/matches",
-                HttpMethod.GET,
-                entity,
                 MatchesResponse.class
         );
 
-        List<Match> matches = response.getBody().getMatches();
-        if (matches.size() > 0) {
-            matches.forEach(match -> match.setNew(false)); // Entities are guaranteed to be in the DB
-            matchService.updateMatches(matches);
-        }
+        return response.getMatches();
+    }
+
+    /**
+     * Updates the existing matches in the database with the provided matches in a single transaction.
+     *
+     * @param matches A list of {@link Match} objects fetched with {@link #fetchTodaysMatches()}.
+     * @see MatchService#updateMatches(List)
+     */
+    @Transactional
+    public void updateMatches(List<Match> matches) {
+        if (matches.isEmpty())
+            return;
+
+        matches.forEach(match -> match.setNew(false)); // Entities are guaranteed to be in the DB
+        matchService.updateMatches(matches);
     }
 
     /**
-     * Saves the provided list of matches to the database, including updating or saving associated teams and competitions.
+     * Saves the provided list of matches to the database in a single transaction, including updating or saving
+     * associated teams and competitions.
      *
-     * @param matches      A list of {@link Match} objects representing the matches to be saved.
+     * @param matches      A list of {@link Match} objects fetched with {@link #fetchMatches(LocalDate, LocalDate)}.
      * @param saveOrUpdate A boolean indicating whether to save or update existing matches in the database.
      * @see TeamService#saveTeams(Set)
      * @see MatchService#saveMatches(List)
      * @see MatchService#saveOrUpdateMatches(List)
      */
-    private void saveMatches(List<Match> matches, Boolean saveOrUpdate) {
+    @Transactional
+    public void saveMatches(List<Match> matches, Boolean saveOrUpdate) {
+        if (matches.isEmpty())
+            return;
+
         Set<Team> teams = matches.stream()
                 .flatMap(match -> Stream.of(match.getHomeTeam(), match.getAwayTeam()))
                 .collect(Collectors.toSet());
@@ -273,4 +289,77 @@ public class FootballApiService {
         else
             matchService.saveMatches(matches);
     }
-}
\ No newline at end of file
+
+    /**
+     * Makes a GET request to the API, going through the {@link HttpResponseCache} and the {@link UpstreamRateLimiter}.
+     * <br>
+     * <br>
+     * A fresh cached response is returned without contacting the API. Otherwise, a request is made once the rate
+     * limiter allows it, conditional on the validators of the cached response if there is one, so that the API can
+     * answer with a 304 instead of sending the same payload again.
+     *
+     * @param priority     The {@link UpstreamRateLimiter.Priority} of the request.
+     * @param url          The URL template of the request.
+     * @param responseType The type the response body is converted to.
+     * @param uriVariables The variables to expand the URL template with.
+     * @return The converted response body.
+     * @throws ResourceAccessException If the thread is interrupted while waiting for the rate limiter.
+     * @throws RestClientException     If the response body can't be converted.
+     */
+    private <T> T exchange(UpstreamRateLimiter.Priority priority, String url, Class<T> responseType, Object... uriVariables) {
+        URI uri = restTemplate.getUriTemplateHandler().expand(url, uriVariables);
+        String cacheKey = uri.toString();
+
+        HttpResponseCache.CachedResponse cached = responseCache.get(cacheKey);
+        if (cached != null && cached.isFresh())
+            return this.readBody(cached.body(), responseType, uri);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Auth-Token", API_KEY);
+        if (cached != null)
+            cached.addValidators(headers);
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+
+        try {
+            rateLimiter.acquire(priority);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting to make a request to " + uri);
+        }
+
+        ResponseEntity<byte[]> response;
+        try {
+            // The template is passed instead of the expanded URI so that request metrics are tagged by route
+            response = restTemplate.exchange(url, HttpMethod.GET, entity, byte[].class, uriVariables);
+            rateLimiter.updateFromHeaders(response.getHeaders());
+        } catch (HttpClientErrorException.TooManyRequests exception) {
+            rateLimiter.onRateLimited(exception.getResponseHeaders());
+            throw exception;
+        }
+
+        if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+            HttpResponseCache.CachedResponse revalidated = responseCache.revalidated(cacheKey, cached, response.getHeaders());
+            return this.readBody(revalidated.body(), responseType, uri);
+        }
+
+        responseCache.put(cacheKey, response.getBody(), response.getHeaders());
+        return this.readBody(response.getBody(), responseType, uri);
+    }
+
+    /**
+     * Converts a raw response body of the API.
+     *
+     * @param body         The raw response body.
+     * @param responseType The type the response body is converted to.
+     * @param uri          The request URI, used for error reporting.
+     * @return The converted response body.
+     * @throws RestClientException If the response body can't be converted.
+     */
+    private <T> T readBody(byte[] body, Class<T> responseType, URI uri) {
+        try {
+            return objectMapper.readValue(body, responseType);
+        } catch (IOException exception) {
+            throw new RestClientException("Could not read the response of " + uri, exception);
+        }
+    }
+}
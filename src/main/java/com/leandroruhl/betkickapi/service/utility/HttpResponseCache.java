@@ -0,0 +1,169 @@
+package com.leandroruhl.betkickapi.service.utility;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * HttpResponseCache is an in-memory HTTP cache for the responses of the
+ * <a href="https://www.football-data.org/">football-data.org API</a>, keyed by the request URI.
+ * <br>
+ * <br>
+ * Responses are stored as raw bytes together with their validators ({@code ETag} and {@code Last-Modified}) and
+ * their freshness lifetime, taken from the {@code Cache-Control} ({@code max-age}, {@code no-cache},
+ * {@code no-store}) and {@code Expires} headers. Fresh responses can be served without contacting the API at all,
+ * while stale ones are revalidated with a conditional request that the API can answer with an empty 304.
+ * <br>
+ * <br>
+ * The store is bounded by the total size of the cached bodies ({@code app.football-api.cache.max-size-mb}).
+ * When it's full, Caffeine picks the responses to evict by how frequently and how recently they were used
+ * (Window TinyLFU), so a burst of one-off requests doesn't push out the responses that are read all the time.
+ */
+@Component
+public class HttpResponseCache {
+
+    private final Cache<String, CachedResponse> responses;
+
+    public HttpResponseCache(@Value("${app.football-api.cache.max-size-mb:32}") long maxSizeMb) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher((String uri, CachedResponse response) -> uri.length() + response.body().length)
+                .build();
+    }
+
+    /**
+     * A cached response body along with its validators.
+     *
+     * @param body         The raw response body.
+     * @param eTag         The {@code ETag} of the response, may be null.
+     * @param lastModified The {@code Last-Modified} date of the response, may be null.
+     * @param expiresAt    Epoch millis until which the response is fresh.
+     */
+    public record CachedResponse(byte[] body, String eTag, String lastModified, long expiresAt) {
+
+        /**
+         * @return true if the response can be used without revalidating it with the API.
+         */
+        public boolean isFresh() {
+            return System.currentTimeMillis() < expiresAt;
+        }
+
+        /**
+         * Adds the conditional request headers that allow the API to answer with a 304 if the response didn't change.
+         *
+         * @param headers The headers of the request.
+         */
+        public void addValidators(HttpHeaders headers) {
+            if (eTag != null)
+                headers.setIfNoneMatch(eTag);
+            if (lastModified != null)
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
+    }
+
+    /**
+     * Retrieves the cached response of a URI, fresh or not.
+     *
+     * @param uri The request URI.
+     * @return The {@link CachedResponse}, or null if there is none.
+     */
+    public CachedResponse get(String uri) {
+        return responses.getIfPresent(uri);
+    }
+
+    /**
+     * Stores a response if its headers allow it and it can be either served fresh or revalidated later.
+     *
+     * @param uri     The request URI.
+     * @param body    The raw response body.
+     * @param headers The headers of the response.
+     */
+    public void put(String uri, byte[] body, HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        if (body == null || hasDirective(cacheControl, "no-store")) {
+            responses.invalidate(uri);
+            return;
+        }
+
+        CachedResponse response = new CachedResponse(body, headers.getETag(),
+                headers.getFirst(HttpHeaders.LAST_MODIFIED), expiresAt(cacheControl, headers));
+        if (response.eTag() == null && response.lastModified() == null && !response.isFresh()) {
+            // Nothing to revalidate it with and already stale, storing it would be useless
+            responses.invalidate(uri);
+            return;
+        }
+        responses.put(uri, response);
+    }
+
+    /**
+     * Refreshes a cached response after the API confirmed with a 304 that it didn't change.
+     *
+     * @param uri     The request URI.
+     * @param cached  The {@link CachedResponse} that was revalidated.
+     * @param headers The headers of the 304 response, which may update the validators and freshness.
+     * @return The refreshed {@link CachedResponse}.
+     */
+    public CachedResponse revalidated(String uri, CachedResponse cached, HttpHeaders headers) {
+        String eTag = headers.getETag() != null ? headers.getETag() : cached.eTag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED) != null
+                ? headers.getFirst(HttpHeaders.LAST_MODIFIED)
+                : cached.lastModified();
+        CachedResponse refreshed = new CachedResponse(cached.body(), eTag, lastModified,
+                expiresAt(headers.getCacheControl(), headers));
+        responses.put(uri, refreshed);
+        return refreshed;
+    }
+
+    /**
+     * Calculates until when a response is fresh, giving precedence to {@code Cache-Control} over {@code Expires}.
+     */
+    private long expiresAt(String cacheControl, HttpHeaders headers) {
+        long now = System.currentTimeMillis();
+        if (hasDirective(cacheControl, "no-cache"))
+            return now;
+
+        Long maxAge = directiveValue(cacheControl, "max-age");
+        if (maxAge != null) {
+            long age = headers.getFirst(HttpHeaders.AGE) != null ? parseSeconds(headers.getFirst(HttpHeaders.AGE)) : 0;
+            return now + (maxAge - age) * 1000;
+        }
+
+        long expires = headers.getExpires();
+        if (expires > 0) {
+            long date = headers.getDate() > 0 ? headers.getDate() : now;
+            return now + (expires - date);
+        }
+        return now;
+    }
+
+    private boolean hasDirective(String cacheControl, String directive) {
+        if (cacheControl == null)
+            return false;
+        for (String token : cacheControl.split(",")) {
+            if (token.trim().equalsIgnoreCase(directive))
+                return true;
+        }
+        return false;
+    }
+
+    private Long directiveValue(String cacheControl, String directive) {
+        if (cacheControl == null)
+            return null;
+        for (String token : cacheControl.split(",")) {
+            String[] parts = token.trim().split("=", 2);
+            if (parts.length == 2 && parts[0].equalsIgnoreCase(directive))
+                return parseSeconds(parts[1]);
+        }
+        return null;
+    }
+
+    private long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.replace("\"", "").trim());
+        } catch (NumberFormatException exception) {
+            return 0;
+        }
+    }
+}
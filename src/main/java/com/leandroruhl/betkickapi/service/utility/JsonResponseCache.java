@@ -0,0 +1,123 @@
+package com.leandroruhl.betkickapi.service.utility;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JsonResponseCache holds the serialized JSON of the values returned by the public football data endpoints,
+ * so that the (cached) matches, competitions and standings aren't serialized again on every request.
+ * <br>
+ * <br>
+ * Entries are keyed by the identity of the value, which is the instance held by the application caches
+ * (see {@link com.leandroruhl.betkickapi.config.CacheNames}), and are weakly referenced: once a value is evicted
+ * or refreshed in those caches, its serialized JSON is garbage collected along with it and the new value is
+ * serialized on its first request.
+ * <br>
+ * <br>
+ * Each entry holds the UTF-8 JSON, its gzip compressed version and a strong {@code ETag} computed from the JSON,
+ * so a response is either a copy of ready-to-send bytes or an empty 304 if the client already has it.
+ */
+@Component
+public class JsonResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Object, SerializedResponse> responses = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(100)
+            .build();
+
+    public JsonResponseCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The serialized JSON of a value.
+     *
+     * @param json The UTF-8 JSON.
+     * @param gzip The gzip compressed JSON, null if compressing it doesn't make it smaller.
+     * @param eTag The strong {@code ETag} of the JSON, the gzip representation has its own one derived from it.
+     */
+    record SerializedResponse(byte[] json, byte[] gzip, String eTag) {
+
+        String gzipETag() {
+            return eTag.substring(0, eTag.length() - 1) + "-gzip\"";
+        }
+    }
+
+    /**
+     * Builds the response for the given value out of its serialized JSON, serializing the value if it's the first
+     * time it's requested.
+     * <br>
+     * <br>
+     * The gzip version is sent if the client accepts it, and a 304 without body is sent if the {@code If-None-Match}
+     * header of the request matches the {@code ETag} of the response.
+     *
+     * @param value          The value to send as JSON.
+     * @param ifNoneMatch    The {@code If-None-Match} header of the request, may be null.
+     * @param acceptEncoding The {@code Accept-Encoding} header of the request, may be null.
+     * @return The {@link ResponseEntity} with the JSON of the value.
+     */
+    public ResponseEntity<byte[]> respond(Object value, String ifNoneMatch, String acceptEncoding) {
+        SerializedResponse response = responses.get(value, this::serialize);
+
+        boolean gzip = response.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        String eTag = gzip ? response.gzipETag() : response.eTag();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+        if (ifNoneMatch != null && (ifNoneMatch.contains(eTag) || ifNoneMatch.trim().equals("*")))
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (gzip)
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return new ResponseEntity<>(gzip ? response.gzip() : response.json(), headers, HttpStatus.OK);
+    }
+
+    private SerializedResponse serialize(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            byte[] gzip = compress(json);
+            return new SerializedResponse(json, gzip.length < json.length ? gzip : null, eTag(json));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] compress(byte[] json) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    private static String eTag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            // 128 bits of the digest are more than enough to tell versions of a response apart
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 isn't available", e);
+        }
+    }
+}
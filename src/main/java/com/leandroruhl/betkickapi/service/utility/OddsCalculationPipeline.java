@@ -0,0 +1,212 @@
+package com.leandroruhl.betkickapi.service.utility;
+
+import com.leandroruhl.betkickapi.dto.external_api.HeadToHeadResponse;
+import com.leandroruhl.betkickapi.dto.external_api.TeamStatsResponse;
+import com.leandroruhl.betkickapi.model.Match;
+import com.leandroruhl.betkickapi.model.Standing;
+import com.leandroruhl.betkickapi.model.embbeded.MatchOdds;
+import com.leandroruhl.betkickapi.service.match.MatchService;
+import com.leandroruhl.betkickapi.service.standings.StandingsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * OddsCalculationPipeline replaces the placeholder random odds of stored matches with real odds calculated by the
+ * {@link OddsCalculationService}. Every run goes through three stages:
+ * <br>
+ * <br>
+ * * Fetch: the statistics of both teams and the head-to-head of every match admitted in the run are requested
+ * concurrently through the {@link AsyncFootballApiService}, whose requests are paced by the
+ * {@link UpstreamRateLimiter} with background priority. The number of matches admitted per run is derived from the
+ * number of requests that a run is allowed to spend.
+ * <br>
+ * * Compute: the odds of each match are calculated as soon as its data is available.
+ * <br>
+ * * Persist: the odds of every priced match are saved together in a single batch.
+ */
+@Service
+@Slf4j
+public class OddsCalculationPipeline {
+
+    // Team stats of the away team, team stats of the home team and head-to-head of the match
+    private static final int REQUESTS_PER_MATCH = 3;
+
+    private final AsyncFootballApiService asyncFootballApiService;
+    private final OddsCalculationService oddsService;
+    private final MatchService matchService;
+    private final StandingsService standingsService;
+    private final int matchesPerRun;
+
+    public OddsCalculationPipeline(AsyncFootballApiService asyncFootballApiService, OddsCalculationService oddsService,
+                                   MatchService matchService, StandingsService standingsService,
+                                   @Value("${app.odds.requests-per-run:9}") int requestsPerRun) {
+        this.asyncFootballApiService = asyncFootballApiService;
+        this.oddsService = oddsService;
+        this.matchService = matchService;
+        this.standingsService = standingsService;
+        this.matchesPerRun = Math.max(1, requestsPerRun / REQUESTS_PER_MATCH);
+    }
+
+    /**
+     * Data needed to calculate the odds of a match.
+     */
+    private record OddsInputs(Match match, TeamStatsResponse homeStats, TeamStatsResponse awayStats,
+                              HeadToHeadResponse headToHead) {
+    }
+
+    /**
+     * Starts a run of the pipeline for as many matches with random odds as the per-run request budget allows.
+     * Only the lookup of the matches is done by the calling thread.
+     *
+     * @return A {@link CompletableFuture} completed with the number of matches with random odds that were found once
+     * the run is over, 0 meaning that there's nothing left to calculate.
+     */
+    public CompletableFuture<Integer> recalculateOdds() {
+        List<Match> matches = matchService.findMatchesWithRandomOdds(matchesPerRun);
+        if (matches.isEmpty())
+            return CompletableFuture.completedFuture(0);
+
+        log.info("THERE ARE " + matches.size() + " MATCHES WITH RANDOM ODDS");
+        LocalDate currentDate = LocalDate.ofInstant(Instant.now(), ZoneOffset.UTC);
+
+        List<CompletableFuture<Match>> pricedMatches = matches.stream()
+                .map(match -> this.fetchInputs(match, currentDate)
+                        .thenApply(this::computeOdds)
+                        .exceptionally(exception -> this.handleFailure(match, exception)))
+                .toList();
+
+        return CompletableFuture.allOf(pricedMatches.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    List<Match> matchesToUpdate = pricedMatches.stream()
+                            .map(CompletableFuture::join)
+                            .filter(Objects::nonNull)
+                            .toList();
+
+                    if (!matchesToUpdate.isEmpty())
+                        matchService.updateMatchesOdds(matchesToUpdate);
+                    return matches.size();
+                });
+    }
+
+    /**
+     * Fetch stage: requests the team statistics and the head-to-head of a match to the external API, all at once.
+     *
+     * @param match       The match whose data is fetched.
+     * @param currentDate The current date in UTC.
+     * @return A {@link CompletableFuture} of the {@link OddsInputs} of the match.
+     */
+    private CompletableFuture<OddsInputs> fetchInputs(Match match, LocalDate currentDate) {
+        Integer awayId = match.getAwayTeam().getId();
+        Integer homeId = match.getHomeTeam().getId();
+
+        // 23 months because 2 years is the limit, and it may cause issues with the external API
+        CompletableFuture<TeamStatsResponse> awayStats =
+                asyncFootballApiService.fetchTeamStats(awayId, currentDate.minusMonths(23), currentDate);
+        CompletableFuture<TeamStatsResponse> homeStats =
+                asyncFootballApiService.fetchTeamStats(homeId, currentDate.minusMonths(23), currentDate);
+        CompletableFuture<HeadToHeadResponse> headToHead = asyncFootballApiService.fetchHeadToHead(match.getId())
+                .thenApply(response -> this.unpackHeadToHead(response, homeId, awayId));
+
+        return CompletableFuture.allOf(awayStats, homeStats, headToHead)
+                .thenApply(ignored -> new OddsInputs(match, homeStats.join(), awayStats.join(), headToHead.join()));
+    }
+
+    /**
+     * Unpacks the head-to-head statistics of both teams.
+     *
+     * @param headToHead The {@link HeadToHeadResponse} of the match.
+     * @param homeId     The ID of the home team.
+     * @param awayId     The ID of the away team.
+     * @return The unpacked {@link HeadToHeadResponse}.
+     */
+    private HeadToHeadResponse unpackHeadToHead(HeadToHeadResponse headToHead, Integer homeId, Integer awayId) {
+        // Process and unpack head-to-head statistics for the away team
+        TeamStatsResponse h2hAwayStats = headToHead.getAwayTeamStats();
+        if (h2hAwayStats != null) {
+            h2hAwayStats.setMatches(headToHead.getMatches());
+            h2hAwayStats.unpackNestedMatches(awayId);
+        }
+
+        // Process and unpack head-to-head statistics for the home team
+        TeamStatsResponse h2hHomeStats = headToHead.getHomeTeamStats();
+        if (h2hHomeStats != null) {
+            h2hHomeStats.setMatches(headToHead.getMatches());
+            h2hHomeStats.unpackNestedMatches(homeId);
+        }
+        return headToHead;
+    }
+
+    /**
+     * Compute stage: calculates the odds of a match from its fetched data and the current standings of both teams.
+     *
+     * @param inputs The {@link OddsInputs} of the match.
+     * @return The match with its new odds.
+     */
+    private Match computeOdds(OddsInputs inputs) {
+        Match match = inputs.match();
+
+        Integer awayId = match.getAwayTeam().getId();
+        Integer homeId = match.getHomeTeam().getId();
+
+        // Get the total number of teams in the competition
+        List<Standing> standings = standingsService.getStandingsByCompIdAndTeams(match.getCompetition().getId(), homeId, awayId);
+        Integer totalTeams = 0;
+        if (!standings.isEmpty())
+            totalTeams = standingsService.countStandingsByCompId(standings.get(0).getCompetition().getId());
+        else {
+            standings = null;
+        }
+
+        log.info("CALCULATING ODDS FOR " + match.getHomeTeam().getShortName() + " (HOME) VS (AWAY) " + match.getAwayTeam().getShortName());
+        log.info("Match ID: " + match.getId());
+
+        MatchOdds calculatedOdds = oddsService.generateMatchOdds(inputs.homeStats(), inputs.awayStats(),
+                inputs.headToHead(), standings, homeId, totalTeams);
+
+        if (calculatedOdds != null) {
+            match.setOdds(calculatedOdds);
+        } else {
+            log.warn("Odds for this match can't be properly calculated, so it will keep its default random odds");
+            match.getOdds().setTemporaryRandomOdds(false); // the application won't try to calculate this match odds again
+        }
+        return match;
+    }
+
+    /**
+     * Handles a match whose odds couldn't be calculated.
+     *
+     * @param match     The match.
+     * @param throwable The failure of the fetch or compute stage.
+     * @return The match if it has to be persisted anyway, null otherwise.
+     */
+    private Match handleFailure(Match match, Throwable throwable) {
+        Throwable exception = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+
+        if (exception instanceof HttpClientErrorException.Forbidden) {
+            // Some data needed to calculate this match odds is not available, so it will keep its default random odds
+            log.warn("Odds for " + match.getAwayTeam().getShortName() + " vs " + match.getHomeTeam().getShortName()
+                    + " can't be calculated because of API restrictions");
+            match.getOdds().setTemporaryRandomOdds(false); // the application won't try to calculate this match odds again
+            return match;
+        }
+
+        if (exception instanceof HttpClientErrorException.TooManyRequests)
+            // The match still has random odds, so it will be picked up again by a later run
+            log.warn("External API rate limit reached while fetching data for match " + match.getId());
+        else
+            log.error(exception.getClass().getSimpleName() + ": " + exception.getMessage());
+        return null;
+    }
+}
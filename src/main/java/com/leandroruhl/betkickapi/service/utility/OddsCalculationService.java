@@ -7,7 +7,6 @@ import com.leandroruhl.betkickapi.model.embbeded.MatchOdds;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
 import java.util.List;
 
 /**
@@ -26,6 +25,11 @@ import java.util.List;
  * ensure a meaningful representation of match odds.
  * <br>
  * <br>
+ * Every rate of a match is written into a flat {@code double[]} rate table (one per thread, reused between calls) at
+ * the fixed indexes declared below, and which groups of rates could be calculated is tracked in an {@code int}
+ * presence bitmask. This way pricing a match doesn't allocate anything besides the resulting {@link MatchOdds}.
+ * <br>
+ * <br>
  * Assumptions:
  * - The input data provided (TeamStatsResponse, HeadToHeadResponse, List<Standing>) is assumed to be valid and
  * representative of the teams' performance and standings.
@@ -37,78 +41,96 @@ import java.util.List;
 @Slf4j
 public class OddsCalculationService {
 
-    private final Double teamRatesWeight = 0.3; // Rate over the last 2 years
-    private final Double recentTeamRatesWeight = 0.15; // Rate over the past 5 matches
-    private final Double h2hRatesWeight = 0.01; // Historical H2H rate
-    private final Double recentH2hRatesWeight = 0.04; // Rate over the last 5 H2H matches
-    private final Double standingRatesWeight = 0.05; // Stats of a team in the current competition (W, L, D, GF, GA, etc.)
-    private final Double standingPositionWeight = 0.45; // Position of the team in the current competition's table
-
-    private enum TeamRates {
-        WIN_RATE, DRAW_RATE,
-        RECENT_WIN_RATE, RECENT_DRAW_RATE,
-    }
-
-    private enum StandingRates {
-        COMP_WIN_RATE, COMP_DRAW_RATE, COMP_POSITION
-    }
-
-    private enum HeadToHeadRates {
-        H2H_AWAY_WIN_RATE, H2H_HOME_WIN_RATE, H2H_DRAW_RATE,
-        RECENT_H2H_AWAY_WIN_RATE, RECENT_H2H_HOME_WIN_RATE, RECENT_H2H_DRAW_RATE,
-    }
+    private static final double TEAM_RATES_WEIGHT = 0.3; // Rate over the last 2 years
+    private static final double RECENT_TEAM_RATES_WEIGHT = 0.15; // Rate over the past 5 matches
+    private static final double H2H_RATES_WEIGHT = 0.01; // Historical H2H rate
+    private static final double RECENT_H2H_RATES_WEIGHT = 0.04; // Rate over the last 5 H2H matches
+    private static final double STANDING_RATES_WEIGHT = 0.05; // Stats of a team in the current competition (W, L, D, GF, GA, etc.)
+    private static final double STANDING_POSITION_WEIGHT = 0.45; // Position of the team in the current competition's table
+
+    // Offsets of the team rates, relative to HOME_TEAM_RATES or AWAY_TEAM_RATES
+    private static final int WIN_RATE = 0;
+    private static final int DRAW_RATE = 1;
+    private static final int RECENT_WIN_RATE = 2;
+    private static final int RECENT_DRAW_RATE = 3;
+
+    // Offsets of the standing rates, relative to HOME_STANDING_RATES or AWAY_STANDING_RATES
+    private static final int COMP_WIN_RATE = 0;
+    private static final int COMP_DRAW_RATE = 1;
+    private static final int COMP_POSITION = 2;
+
+    // Indexes of the rate table
+    private static final int HOME_TEAM_RATES = 0;
+    private static final int AWAY_TEAM_RATES = 4;
+    private static final int H2H_HOME_WIN_RATE = 8;
+    private static final int H2H_AWAY_WIN_RATE = 9;
+    private static final int H2H_DRAW_RATE = 10;
+    private static final int RECENT_H2H_HOME_WIN_RATE = 11;
+    private static final int RECENT_H2H_AWAY_WIN_RATE = 12;
+    private static final int RECENT_H2H_DRAW_RATE = 13;
+    private static final int HOME_STANDING_RATES = 14;
+    private static final int AWAY_STANDING_RATES = 17;
+    private static final int RATE_TABLE_SIZE = 20;
+
+    // Bits of the presence bitmask, one per group of rates
+    private static final int HAS_HOME_TEAM_RATES = 1;
+    private static final int HAS_AWAY_TEAM_RATES = 1 << 1;
+    private static final int HAS_H2H_RATES = 1 << 2;
+    private static final int HAS_RECENT_H2H_RATES = 1 << 3;
+    private static final int HAS_STANDING_RATES = 1 << 4;
+    private static final int REQUIRED_RATES = HAS_HOME_TEAM_RATES | HAS_AWAY_TEAM_RATES | HAS_H2H_RATES;
+
+    private final ThreadLocal<double[]> rateTables = ThreadLocal.withInitial(() -> new double[RATE_TABLE_SIZE]);
 
     /**
-     * Calculates and returns a HashMap of various team rates based on the provided {@link TeamStatsResponse}.
+     * Calculates the team rates based on the provided {@link TeamStatsResponse} and writes them into the rate table.
      *
      * @param teamStats The {@link TeamStatsResponse} containing information about the team's performance.
-     * @return A HashMap with keys representing different team rates and values as their calculated rates.
-     * Returns null if total or recent team match counts are zero.
+     * @param rates     The rate table.
+     * @param offset    The index of the rate table where the rates of this team start.
+     * @return false if total or recent team match counts are zero, meaning that no rates were written; true otherwise.
      */
-    private HashMap<TeamRates, Double> calculateTeamRates(TeamStatsResponse teamStats) {
-        Double draws = teamStats.getDraws();
-        Double wins = teamStats.getWins();
-        Double losses = teamStats.getLosses();
-        Double totalMatches = losses + wins + draws;
-
-        Double recentDraws = teamStats.getRecentDraws();
-        Double recentWins = teamStats.getRecentWins();
-        Double recentLosses = teamStats.getRecentLosses();
-        Double recentMatches = recentLosses + recentWins + recentDraws;
+    private boolean calculateTeamRates(TeamStatsResponse teamStats, double[] rates, int offset) {
+        double draws = teamStats.getDraws();
+        double wins = teamStats.getWins();
+        double losses = teamStats.getLosses();
+        double totalMatches = losses + wins + draws;
 
+        double recentDraws = teamStats.getRecentDraws();
+        double recentWins = teamStats.getRecentWins();
+        double recentLosses = teamStats.getRecentLosses();
+        double recentMatches = recentLosses + recentWins + recentDraws;
 
         if (totalMatches == 0 || recentMatches == 0) {
             log.warn("Count of total or recent team matches is 0");
-            return null;
+            return false;
         }
 
-        HashMap<TeamRates, Double> teamRates = new HashMap<>();
-        teamRates.put(TeamRates.WIN_RATE, wins / totalMatches);
-        teamRates.put(TeamRates.DRAW_RATE, draws / totalMatches);
-        teamRates.put(TeamRates.RECENT_WIN_RATE, recentWins / recentMatches);
-        teamRates.put(TeamRates.RECENT_DRAW_RATE, recentDraws / recentMatches);
-        return teamRates;
+        rates[offset + WIN_RATE] = wins / totalMatches;
+        rates[offset + DRAW_RATE] = draws / totalMatches;
+        rates[offset + RECENT_WIN_RATE] = recentWins / recentMatches;
+        rates[offset + RECENT_DRAW_RATE] = recentDraws / recentMatches;
+        return true;
     }
 
     /**
-     * Calculates and returns a HashMap of standing rates based on the provided {@link Standing} and totalTeams.
+     * Calculates the standing rates based on the provided {@link Standing} and totalTeams and writes them into the
+     * rate table.
      *
      * @param standing   The {@link Standing} object containing information about the team's standing in a competition.
      * @param totalTeams The total number of teams in the competition.
-     * @return A HashMap with keys representing different standing rates and values as their calculated rates.
+     * @param rates      The rate table.
+     * @param offset     The index of the rate table where the standing rates of this team start.
      */
-    private HashMap<StandingRates, Double> calculateStandingRates(Standing standing, Integer totalTeams) {
-        Double draws = Double.valueOf(standing.getDraw());
-        Double wins = Double.valueOf(standing.getWon());
-        Double losses = Double.valueOf(standing.getLost());
-        Double totalMatches = losses + wins + draws;
-        Double positionNormalized = 1D - (double) (standing.getPosition() - 1) / totalTeams;
-
-        HashMap<StandingRates, Double> standingRates = new HashMap<>();
-        standingRates.put(StandingRates.COMP_WIN_RATE, wins / totalMatches);
-        standingRates.put(StandingRates.COMP_DRAW_RATE, draws / totalMatches);
-        standingRates.put(StandingRates.COMP_POSITION, positionNormalized);
-        return standingRates;
+    private void calculateStandingRates(Standing standing, Integer totalTeams, double[] rates, int offset) {
+        double draws = standing.getDraw();
+        double wins = standing.getWon();
+        double losses = standing.getLost();
+        double totalMatches = losses + wins + draws;
+
+        rates[offset + COMP_WIN_RATE] = wins / totalMatches;
+        rates[offset + COMP_DRAW_RATE] = draws / totalMatches;
+        rates[offset + COMP_POSITION] = 1D - (double) (standing.getPosition() - 1) / totalTeams;
     }
 
     /**
@@ -132,45 +154,44 @@ public class OddsCalculationService {
     }
 
     /**
-     * Calculates and returns a HashMap of head-to-head rates based on the provided {@link HeadToHeadResponse}.
+     * Calculates the head-to-head rates based on the provided {@link HeadToHeadResponse} and writes them into the
+     * rate table.
      *
-     * @param h2h The {@link HeadToHeadResponse} containing information about the teams' historical performance.
-     * @return A HashMap with keys representing different head-to-head rates and values as their calculated rates.
-     * Returns null if total head-to-head match count is zero.
+     * @param h2h   The {@link HeadToHeadResponse} containing information about the teams' historical performance.
+     * @param rates The rate table.
+     * @return The presence bits of the head-to-head rates that were written, 0 if total head-to-head match count is zero.
      */
-    private HashMap<HeadToHeadRates, Double> calculateHeadToHeadRates(HeadToHeadResponse h2h) {
+    private int calculateHeadToHeadRates(HeadToHeadResponse h2h, double[] rates) {
+        TeamStatsResponse homeStats = h2h.getHomeTeamStats();
+        TeamStatsResponse awayStats = h2h.getAwayTeamStats();
 
-        if (h2h.getAwayTeamStats() == null || h2h.getHomeTeamStats() == null) {
-            return null;
+        if (awayStats == null || homeStats == null) {
+            return 0;
         }
 
-        Double totalMatches = h2h.getNumberOfMatches();
-        Double drawRate = h2h.getAwayTeamStats().getDraws() / totalMatches;
-        Double awayWinRate = h2h.getAwayTeamStats().getWins() / totalMatches;
-        Double homeWinRate = h2h.getHomeTeamStats().getWins() / totalMatches;
-
-        Double recentDraws = h2h.getAwayTeamStats().getRecentDraws();
-        Double recentAwayWins = h2h.getAwayTeamStats().getRecentWins();
-        Double recentHomeWins = h2h.getHomeTeamStats().getRecentWins();
-        Double recentMatches = recentDraws + recentAwayWins + recentHomeWins;
-
+        double totalMatches = h2h.getNumberOfMatches();
         if (totalMatches == 0) {
             log.warn("Count of total head to head matches is 0");
-            return null;
+            return 0;
         }
 
-        HashMap<HeadToHeadRates, Double> h2hRates = new HashMap<>();
-        h2hRates.put(HeadToHeadRates.H2H_DRAW_RATE, drawRate);
-        h2hRates.put(HeadToHeadRates.H2H_AWAY_WIN_RATE, awayWinRate);
-        h2hRates.put(HeadToHeadRates.H2H_HOME_WIN_RATE, homeWinRate);
+        rates[H2H_DRAW_RATE] = awayStats.getDraws() / totalMatches;
+        rates[H2H_AWAY_WIN_RATE] = awayStats.getWins() / totalMatches;
+        rates[H2H_HOME_WIN_RATE] = homeStats.getWins() / totalMatches;
+
+        double recentDraws = awayStats.getRecentDraws();
+        double recentAwayWins = awayStats.getRecentWins();
+        double recentHomeWins = homeStats.getRecentWins();
+        double recentMatches = recentDraws + recentAwayWins + recentHomeWins;
 
-        if (recentMatches != 0) {
-            h2hRates.put(HeadToHeadRates.RECENT_H2H_DRAW_RATE, recentDraws / recentMatches);
-            h2hRates.put(HeadToHeadRates.RECENT_H2H_AWAY_WIN_RATE, recentAwayWins / recentMatches);
-            h2hRates.put(HeadToHeadRates.RECENT_H2H_HOME_WIN_RATE, recentHomeWins / recentMatches);
+        if (recentMatches == 0) {
+            return HAS_H2H_RATES;
         }
 
-        return h2hRates;
+        rates[RECENT_H2H_DRAW_RATE] = recentDraws / recentMatches;
+        rates[RECENT_H2H_AWAY_WIN_RATE] = recentAwayWins / recentMatches;
+        rates[RECENT_H2H_HOME_WIN_RATE] = recentHomeWins / recentMatches;
+        return HAS_H2H_RATES | HAS_RECENT_H2H_RATES;
     }
 
     /**
@@ -187,49 +208,59 @@ public class OddsCalculationService {
      */
     public MatchOdds generateMatchOdds(TeamStatsResponse home, TeamStatsResponse away, HeadToHeadResponse h2h,
                                        List<Standing> standings, Integer homeId, Integer totalTeams) {
-        HashMap<TeamRates, Double> homeRates = this.calculateTeamRates(home);
-        HashMap<TeamRates, Double> awayRates = this.calculateTeamRates(away);
-        HashMap<HeadToHeadRates, Double> h2hRates = this.calculateHeadToHeadRates(h2h);
+        double[] rates = rateTables.get();
+        int presence = 0;
 
-        if (homeRates == null || awayRates == null || h2hRates == null) {
+        if (this.calculateTeamRates(home, rates, HOME_TEAM_RATES))
+            presence |= HAS_HOME_TEAM_RATES;
+        if (this.calculateTeamRates(away, rates, AWAY_TEAM_RATES))
+            presence |= HAS_AWAY_TEAM_RATES;
+        presence |= this.calculateHeadToHeadRates(h2h, rates);
+
+        if ((presence & REQUIRED_RATES) != REQUIRED_RATES) {
             return null;
         }
 
-        HashMap<StandingRates, Double> homeStandingRates = new HashMap<>();
-        HashMap<StandingRates, Double> awayStandingRates = new HashMap<>();
-
         if (standings != null && this.validateStandings(standings)) {
             Standing homeStanding = null;
             Standing awayStanding = null;
 
             for (Standing standing : standings) {
-                if (standing.getTeam().getId() == homeId)
+                if (standing.getTeam().getId().equals(homeId))
                     homeStanding = standing;
                 else
                     awayStanding = standing;
 
             }
 
-            homeStandingRates = this.calculateStandingRates(homeStanding, totalTeams);
-            awayStandingRates = this.calculateStandingRates(awayStanding, totalTeams);
+            if (homeStanding != null && awayStanding != null) {
+                this.calculateStandingRates(homeStanding, totalTeams, rates, HOME_STANDING_RATES);
+                this.calculateStandingRates(awayStanding, totalTeams, rates, AWAY_STANDING_RATES);
+                presence |= HAS_STANDING_RATES;
+            }
         }
 
+        boolean hasStandingRates = (presence & HAS_STANDING_RATES) != 0;
+        boolean hasRecentH2hRates = (presence & HAS_RECENT_H2H_RATES) != 0;
+
         double homeWinProbability = calculateWinProbability(
-                homeRates.get(TeamRates.WIN_RATE), homeRates.get(TeamRates.RECENT_WIN_RATE),
-                h2hRates.get(HeadToHeadRates.H2H_HOME_WIN_RATE), h2hRates.get(HeadToHeadRates.RECENT_H2H_HOME_WIN_RATE),
-                homeStandingRates.get(StandingRates.COMP_WIN_RATE), homeStandingRates.get(StandingRates.COMP_POSITION));
+                rates[HOME_TEAM_RATES + WIN_RATE], rates[HOME_TEAM_RATES + RECENT_WIN_RATE],
+                rates[H2H_HOME_WIN_RATE], rates[RECENT_H2H_HOME_WIN_RATE],
+                rates[HOME_STANDING_RATES + COMP_WIN_RATE], rates[HOME_STANDING_RATES + COMP_POSITION],
+                hasRecentH2hRates, hasStandingRates);
 
         double awayWinProbability = calculateWinProbability(
-                awayRates.get(TeamRates.WIN_RATE), awayRates.get(TeamRates.RECENT_WIN_RATE),
-                h2hRates.get(HeadToHeadRates.H2H_AWAY_WIN_RATE), h2hRates.get(HeadToHeadRates.RECENT_H2H_AWAY_WIN_RATE),
-                awayStandingRates.get(StandingRates.COMP_WIN_RATE), awayStandingRates.get(StandingRates.COMP_POSITION));
-
+                rates[AWAY_TEAM_RATES + WIN_RATE], rates[AWAY_TEAM_RATES + RECENT_WIN_RATE],
+                rates[H2H_AWAY_WIN_RATE], rates[RECENT_H2H_AWAY_WIN_RATE],
+                rates[AWAY_STANDING_RATES + COMP_WIN_RATE], rates[AWAY_STANDING_RATES + COMP_POSITION],
+                hasRecentH2hRates, hasStandingRates);
 
         double drawProbability = calculateDrawProbability(
-                homeRates.get(TeamRates.DRAW_RATE), awayRates.get(TeamRates.DRAW_RATE),
-                homeRates.get(TeamRates.RECENT_DRAW_RATE), awayRates.get(TeamRates.RECENT_DRAW_RATE),
-                h2hRates.get(HeadToHeadRates.H2H_DRAW_RATE), h2hRates.get(HeadToHeadRates.RECENT_H2H_DRAW_RATE),
-                homeStandingRates.get(StandingRates.COMP_DRAW_RATE), awayStandingRates.get(StandingRates.COMP_DRAW_RATE));
+                rates[HOME_TEAM_RATES + DRAW_RATE], rates[AWAY_TEAM_RATES + DRAW_RATE],
+                rates[HOME_TEAM_RATES + RECENT_DRAW_RATE], rates[AWAY_TEAM_RATES + RECENT_DRAW_RATE],
+                rates[H2H_DRAW_RATE], rates[RECENT_H2H_DRAW_RATE],
+                rates[HOME_STANDING_RATES + COMP_DRAW_RATE], rates[AWAY_STANDING_RATES + COMP_DRAW_RATE],
+                hasRecentH2hRates, hasStandingRates);
 
 
         // Normalize probabilities
@@ -243,9 +274,9 @@ public class OddsCalculationService {
         drawProbability += 0.035;
 
 
-        Double homeWinOdds = calculateOdds(homeWinProbability, false);
-        Double awayWinOdds = calculateOdds(awayWinProbability, false);
-        Double drawOdds = calculateOdds(drawProbability, true);
+        double homeWinOdds = calculateOdds(homeWinProbability, false);
+        double awayWinOdds = calculateOdds(awayWinProbability, false);
+        double drawOdds = calculateOdds(drawProbability, true);
 
         return new MatchOdds(awayWinOdds, homeWinOdds, drawOdds, false);
     }
@@ -255,9 +286,9 @@ public class OddsCalculationService {
      *
      * @param probability The calculated probability for a specific outcome.
      * @param isDraw      A boolean indicating if the outcome is a draw.
-     * @return Double representing the calculated odds.
+     * @return double representing the calculated odds.
      */
-    private double calculateOdds(Double probability, boolean isDraw) {
+    private double calculateOdds(double probability, boolean isDraw) {
         double odds = 1D / probability;
         if (odds <= 1D)
             return Math.max(odds / 2D + 1D, 1.1);
@@ -274,46 +305,45 @@ public class OddsCalculationService {
      * @param teamWinRate       The overall win rate for the team.
      * @param recentTeamWinRate The recent win rate for the team.
      * @param h2hWinRate        The historical head-to-head win rate.
-     * @param recentH2hWinRate  The recent head-to-head win rate.
-     * @param standingWinRate   The standing win rate.
-     * @param standingPosition  The normalized standing position.
-     * @return Double representing the calculated win probability.
+     * @param recentH2hWinRate  The recent head-to-head win rate, only meaningful if hasRecentH2hRates is true.
+     * @param standingWinRate   The standing win rate, only meaningful if hasStandingRates is true.
+     * @param standingPosition  The normalized standing position, only meaningful if hasStandingRates is true.
+     * @param hasRecentH2hRates Whether there are recent head-to-head matches.
+     * @param hasStandingRates  Whether there is meaningful standing data.
+     * @return double representing the calculated win probability.
      */
-    private Double calculateWinProbability(Double teamWinRate, Double recentTeamWinRate, Double h2hWinRate,
-                                           Double recentH2hWinRate, Double standingWinRate, Double standingPosition) {
-        // H2hWinRate is historical so there is always going to be some data or be null,
-        // however this means that h2hWinRate can simultaneously not be null while having no recent matches
-        if (standingWinRate == null && recentH2hWinRate == null) {
-            log.info("No standing and no recent H2H win rate");
+    private double calculateWinProbability(double teamWinRate, double recentTeamWinRate, double h2hWinRate,
+                                           double recentH2hWinRate, double standingWinRate, double standingPosition,
+                                           boolean hasRecentH2hRates, boolean hasStandingRates) {
+        // H2hWinRate is historical so there is always going to be some data or no rates at all,
+        // however this means that h2hWinRate can simultaneously be present while having no recent matches
+        if (!hasStandingRates && !hasRecentH2hRates) {
             // if there is no standing data and no recent h2h matches, redistribute that weight equally
-            return teamWinRate * (teamRatesWeight + recentH2hRatesWeight / 3D + standingRatesWeight / 3D + standingPositionWeight / 3D) +
-                    recentTeamWinRate * (recentTeamRatesWeight + recentH2hRatesWeight / 3D + standingRatesWeight / 3D + standingPositionWeight / 3D) +
-                    h2hWinRate * (h2hRatesWeight + recentH2hRatesWeight / 3D + standingRatesWeight / 3D + standingPositionWeight / 3D);
+            return teamWinRate * (TEAM_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 3D + STANDING_RATES_WEIGHT / 3D + STANDING_POSITION_WEIGHT / 3D) +
+                    recentTeamWinRate * (RECENT_TEAM_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 3D + STANDING_RATES_WEIGHT / 3D + STANDING_POSITION_WEIGHT / 3D) +
+                    h2hWinRate * (H2H_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 3D + STANDING_RATES_WEIGHT / 3D + STANDING_POSITION_WEIGHT / 3D);
         }
 
-        if (recentH2hWinRate == null) {
+        if (!hasRecentH2hRates) {
             // If there are no recent h2h matches, redistribute that weight equally
-            log.info("No recent H2H win rate");
-            return teamWinRate * (teamRatesWeight + recentH2hRatesWeight / 5D) +
-                    recentTeamWinRate * (recentTeamRatesWeight + recentH2hRatesWeight / 5D) +
-                    h2hWinRate * (h2hRatesWeight + recentH2hRatesWeight / 5D) +
-                    standingWinRate * (standingRatesWeight + recentH2hRatesWeight / 5D) +
-                    standingPosition * (standingPositionWeight + recentH2hRatesWeight / 5D);
+            return teamWinRate * (TEAM_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 5D) +
+                    recentTeamWinRate * (RECENT_TEAM_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 5D) +
+                    h2hWinRate * (H2H_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 5D) +
+                    standingWinRate * (STANDING_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 5D) +
+                    standingPosition * (STANDING_POSITION_WEIGHT + RECENT_H2H_RATES_WEIGHT / 5D);
         }
 
-        if (standingWinRate == null) {
+        if (!hasStandingRates) {
             // If there is no standing data, redistribute that weight equally
-            log.info("No standing win rate");
-            return teamWinRate * (teamRatesWeight + standingRatesWeight / 4D + standingPositionWeight / 4D) +
-                    recentTeamWinRate * (recentTeamRatesWeight + standingRatesWeight / 4D + standingPositionWeight / 4D) +
-                    h2hWinRate * (h2hRatesWeight + standingRatesWeight / 4D + standingPositionWeight / 4D) +
-                    recentH2hWinRate * (recentH2hRatesWeight + standingRatesWeight / 4D + standingPositionWeight / 4D);
+            return teamWinRate * (TEAM_RATES_WEIGHT + STANDING_RATES_WEIGHT / 4D + STANDING_POSITION_WEIGHT / 4D) +
+                    recentTeamWinRate * (RECENT_TEAM_RATES_WEIGHT + STANDING_RATES_WEIGHT / 4D + STANDING_POSITION_WEIGHT / 4D) +
+                    h2hWinRate * (H2H_RATES_WEIGHT + STANDING_RATES_WEIGHT / 4D + STANDING_POSITION_WEIGHT / 4D) +
+                    recentH2hWinRate * (RECENT_H2H_RATES_WEIGHT + STANDING_RATES_WEIGHT / 4D + STANDING_POSITION_WEIGHT / 4D);
         }
 
-        log.info("Win rate calculated successfully");
-        return teamWinRate * teamRatesWeight + recentTeamWinRate * recentTeamRatesWeight +
-                h2hWinRate * h2hRatesWeight + recentH2hWinRate * recentH2hRatesWeight +
-                standingWinRate * standingRatesWeight + standingPosition * standingPositionWeight;
+        return teamWinRate * TEAM_RATES_WEIGHT + recentTeamWinRate * RECENT_TEAM_RATES_WEIGHT +
+                h2hWinRate * H2H_RATES_WEIGHT + recentH2hWinRate * RECENT_H2H_RATES_WEIGHT +
+                standingWinRate * STANDING_RATES_WEIGHT + standingPosition * STANDING_POSITION_WEIGHT;
     }
 
     /**
@@ -324,47 +354,46 @@ public class OddsCalculationService {
      * @param recentHomeDrawRate   The recent draw rate for the home team.
      * @param recentAwayDrawRate   The recent draw rate for the away team.
      * @param h2hDrawRate          The historical head-to-head draw rate.
-     * @param recentH2hDrawRate    The recent head-to-head draw rate.
-     * @param homeStandingDrawRate The standing draw rate for the home team.
-     * @param awayStandingDrawRate The standing draw rate for the away team.
-     * @return Double representing the calculated draw probability.
+     * @param recentH2hDrawRate    The recent head-to-head draw rate, only meaningful if hasRecentH2hRates is true.
+     * @param homeStandingDrawRate The standing draw rate for the home team, only meaningful if hasStandingRates is true.
+     * @param awayStandingDrawRate The standing draw rate for the away team, only meaningful if hasStandingRates is true.
+     * @param hasRecentH2hRates    Whether there are recent head-to-head matches.
+     * @param hasStandingRates     Whether there is meaningful standing data.
+     * @return double representing the calculated draw probability.
      */
-    private Double calculateDrawProbability(Double homeDrawRate, Double awayDrawRate, Double recentHomeDrawRate,
-                                            Double recentAwayDrawRate, Double h2hDrawRate, Double recentH2hDrawRate,
-                                            Double homeStandingDrawRate, Double awayStandingDrawRate) {
+    private double calculateDrawProbability(double homeDrawRate, double awayDrawRate, double recentHomeDrawRate,
+                                            double recentAwayDrawRate, double h2hDrawRate, double recentH2hDrawRate,
+                                            double homeStandingDrawRate, double awayStandingDrawRate,
+                                            boolean hasRecentH2hRates, boolean hasStandingRates) {
         double teamsDrawAvg = (homeDrawRate + awayDrawRate) / 2D;
         double recentTeamsDrawAvg = (recentHomeDrawRate + recentAwayDrawRate) / 2D;
 
-        if (homeStandingDrawRate == null && recentH2hDrawRate == null) {
-            log.info("No standing and no recent H2H draw rate");
-            return teamsDrawAvg * (teamRatesWeight + recentH2hRatesWeight / 3D + standingRatesWeight / 3D + standingPositionWeight / 3D) +
-                    recentTeamsDrawAvg * (recentTeamRatesWeight + recentH2hRatesWeight / 3D + standingRatesWeight / 3D + standingPositionWeight / 3D) +
-                    h2hDrawRate * (h2hRatesWeight + recentH2hRatesWeight / 3D + standingRatesWeight / 3D + standingPositionWeight / 3D);
+        if (!hasStandingRates && !hasRecentH2hRates) {
+            return teamsDrawAvg * (TEAM_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 3D + STANDING_RATES_WEIGHT / 3D + STANDING_POSITION_WEIGHT / 3D) +
+                    recentTeamsDrawAvg * (RECENT_TEAM_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 3D + STANDING_RATES_WEIGHT / 3D + STANDING_POSITION_WEIGHT / 3D) +
+                    h2hDrawRate * (H2H_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 3D + STANDING_RATES_WEIGHT / 3D + STANDING_POSITION_WEIGHT / 3D);
         }
 
-        if (homeStandingDrawRate == null) {
-            log.info("No standing draw rate");
-            return teamsDrawAvg * (teamRatesWeight + standingRatesWeight / 4D + standingPositionWeight / 4D) +
-                    recentTeamsDrawAvg * (recentTeamRatesWeight + standingRatesWeight / 4D + standingPositionWeight / 4D) +
-                    h2hDrawRate * (h2hRatesWeight + standingRatesWeight / 4D + standingPositionWeight / 4D) +
-                    recentH2hDrawRate * (recentH2hRatesWeight + standingRatesWeight / 4D + standingPositionWeight / 4D);
+        if (!hasStandingRates) {
+            return teamsDrawAvg * (TEAM_RATES_WEIGHT + STANDING_RATES_WEIGHT / 4D + STANDING_POSITION_WEIGHT / 4D) +
+                    recentTeamsDrawAvg * (RECENT_TEAM_RATES_WEIGHT + STANDING_RATES_WEIGHT / 4D + STANDING_POSITION_WEIGHT / 4D) +
+                    h2hDrawRate * (H2H_RATES_WEIGHT + STANDING_RATES_WEIGHT / 4D + STANDING_POSITION_WEIGHT / 4D) +
+                    recentH2hDrawRate * (RECENT_H2H_RATES_WEIGHT + STANDING_RATES_WEIGHT / 4D + STANDING_POSITION_WEIGHT / 4D);
         }
 
         double teamsStandingsDrawAvg = (homeStandingDrawRate + awayStandingDrawRate) / 2D;
 
-        if (recentH2hDrawRate == null) {
-            log.info("No recent H2H draw rate");
-            return teamsDrawAvg * (teamRatesWeight + recentH2hRatesWeight / 4D + standingPositionWeight / 4D) +
-                    recentTeamsDrawAvg * (recentTeamRatesWeight + recentH2hRatesWeight / 4D + standingPositionWeight / 4D) +
-                    h2hDrawRate * (h2hRatesWeight + recentH2hRatesWeight / 4D + standingPositionWeight / 4D) +
-                    teamsStandingsDrawAvg * (standingRatesWeight + recentH2hRatesWeight / 4D + standingPositionWeight / 4D);
+        if (!hasRecentH2hRates) {
+            return teamsDrawAvg * (TEAM_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 4D + STANDING_POSITION_WEIGHT / 4D) +
+                    recentTeamsDrawAvg * (RECENT_TEAM_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 4D + STANDING_POSITION_WEIGHT / 4D) +
+                    h2hDrawRate * (H2H_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 4D + STANDING_POSITION_WEIGHT / 4D) +
+                    teamsStandingsDrawAvg * (STANDING_RATES_WEIGHT + RECENT_H2H_RATES_WEIGHT / 4D + STANDING_POSITION_WEIGHT / 4D);
         }
 
-        log.info("Draw rate calculated successfully");
-        return teamsDrawAvg * (teamRatesWeight + standingPositionWeight / 5D) +
-                recentTeamsDrawAvg * (recentTeamRatesWeight + standingPositionWeight / 5D) +
-                h2hDrawRate * (h2hRatesWeight + standingPositionWeight / 5D) +
-                recentH2hDrawRate * (recentH2hRatesWeight + standingPositionWeight / 5D) +
-                teamsStandingsDrawAvg * (standingRatesWeight + standingPositionWeight / 5D);
+        return teamsDrawAvg * (TEAM_RATES_WEIGHT + STANDING_POSITION_WEIGHT / 5D) +
+                recentTeamsDrawAvg * (RECENT_TEAM_RATES_WEIGHT + STANDING_POSITION_WEIGHT / 5D) +
+                h2hDrawRate * (H2H_RATES_WEIGHT + STANDING_POSITION_WEIGHT / 5D) +
+                recentH2hDrawRate * (RECENT_H2H_RATES_WEIGHT + STANDING_POSITION_WEIGHT / 5D) +
+                teamsStandingsDrawAvg * (STANDING_RATES_WEIGHT + STANDING_POSITION_WEIGHT / 5D);
     }
 }
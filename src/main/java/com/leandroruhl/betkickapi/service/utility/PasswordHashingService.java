@@ -0,0 +1,148 @@
+package com.leandroruhl.betkickapi.service.utility;
+
+import com.leandroruhl.betkickapi.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * PasswordHashingService hashes and checks passwords on a dedicated pool of {@code app.password-hashing.threads}
+ * threads, instead of on the request threads.
+ * <br>
+ * <br>
+ * BCrypt is deliberately slow, so a burst of logins could otherwise keep every request thread busy hashing and
+ * starve the rest of the endpoints. At most {@code app.password-hashing.queue-size} hashes wait for a thread;
+ * beyond that, requests are rejected right away with a {@link PasswordHashingUnavailableException} (SERVICE_UNAVAILABLE)
+ * rather than piling up.
+ * <br>
+ * <br>
+ * Metrics:
+ * <br>
+ * * {@code password.hashing.duration} (timer, tagged by operation): how long each hash took.
+ * <br>
+ * * {@code password.hashing.wait} (timer, tagged by operation): how long each hash waited for a thread.
+ * <br>
+ * * {@code password.hashing.queue.size} (gauge): hashes waiting for a thread.
+ * <br>
+ * * {@code password.hashing.rejected} (counter): hashes rejected because the queue was full.
+ */
+@Component
+@Slf4j
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                                  @Value("${app.password-hashing.threads:2}") int threads,
+                                  @Value("${app.password-hashing.queue-size:16}") int queueSize) {
+        this.passwordEncoder = passwordEncoder;
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.size", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Hashes a raw password.
+     *
+     * @param rawPassword The password to hash.
+     * @return The hashed password.
+     * @throws PasswordHashingUnavailableException If too many hashes are already waiting.
+     */
+    public String encode(CharSequence rawPassword) {
+        return this.execute("encode", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks whether a raw password matches a hashed one.
+     *
+     * @param rawPassword     The password to check.
+     * @param encodedPassword The hashed password.
+     * @return true if the passwords match.
+     * @throws PasswordHashingUnavailableException If too many hashes are already waiting.
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return this.execute("matches", () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Checks whether a hashed password should be hashed again, because it was hashed with a lower cost
+     * than the current one. It doesn't hash anything, so it runs in the calling thread.
+     *
+     * @param encodedPassword The hashed password.
+     * @return true if the password should be hashed again.
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Runs a hash on the pool and waits for its result.
+     */
+    private <T> T execute(String operation, Supplier<T> hash) {
+        long submittedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                this.timer("password.hashing.wait", operation).record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return hash.get();
+                } finally {
+                    this.timer("password.hashing.duration", operation)
+                            .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Rejecting password " + operation + " because the password hashing queue is full");
+            throw new PasswordHashingUnavailableException("Too many requests are being processed, please try again later");
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException("The request was interrupted, please try again later");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException("Password " + operation + " failed", e.getCause());
+        }
+    }
+
+    private Timer timer(String name, String operation) {
+        return Timer.builder(name)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
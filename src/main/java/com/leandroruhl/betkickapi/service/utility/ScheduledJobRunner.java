@@ -0,0 +1,138 @@
+package com.leandroruhl.betkickapi.service.utility;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * ScheduledJobRunner wraps the execution of the scheduled jobs of the application, giving each of them
+ * skip-if-running semantics and recording metrics about them:
+ * <br>
+ * <br>
+ * * {@code scheduled.job.duration} (timer, tagged by job and outcome): how long each execution took.
+ * <br>
+ * * {@code scheduled.job.lag} (timer, tagged by job): for fixed delay jobs, how late an execution started
+ * compared to the end of the previous one plus the delay. A growing lag means the scheduler is starved.
+ * <br>
+ * * {@code scheduled.job.skipped} (counter, tagged by job): executions skipped because the previous one
+ * was still running.
+ */
+@Component
+@Slf4j
+public class ScheduledJobRunner {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, JobState> jobs = new ConcurrentHashMap<>();
+
+    public ScheduledJobRunner(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Execution state of a job.
+     */
+    private static final class JobState {
+        private final AtomicBoolean running = new AtomicBoolean(false);
+        private volatile long lastEnd;
+    }
+
+    /**
+     * Runs a job in the calling thread, unless it is already running.
+     *
+     * @param job  The name of the job.
+     * @param task The work of the job.
+     * @return true if the job was executed, false if it was skipped.
+     */
+    public boolean run(String job, Runnable task) {
+        return this.run(job, 0, task);
+    }
+
+    /**
+     * Runs a fixed delay job in the calling thread, unless it is already running, recording how late it started.
+     *
+     * @param job              The name of the job.
+     * @param fixedDelayMillis The delay between the end of an execution and the start of the next one.
+     * @param task             The work of the job.
+     * @return true if the job was executed, false if it was skipped.
+     */
+    public boolean run(String job, long fixedDelayMillis, Runnable task) {
+        JobState state = jobs.computeIfAbsent(job, name -> new JobState());
+        if (!state.running.compareAndSet(false, true)) {
+            this.skipped(job);
+            return false;
+        }
+
+        long start = System.nanoTime();
+        if (fixedDelayMillis > 0 && state.lastEnd != 0) {
+            long lag = start - state.lastEnd - TimeUnit.MILLISECONDS.toNanos(fixedDelayMillis);
+            Timer.builder("scheduled.job.lag")
+                    .tag("job", job)
+                    .register(meterRegistry)
+                    .record(Math.max(lag, 0), TimeUnit.NANOSECONDS);
+        }
+
+        boolean failed = true;
+        try {
+            task.run();
+            failed = false;
+        } finally {
+            this.finish(job, state, start, failed);
+        }
+        return true;
+    }
+
+    /**
+     * Starts a job that completes asynchronously, unless it is already running. The job is considered to be running
+     * until the returned future completes.
+     *
+     * @param job  The name of the job.
+     * @param task Starts the work of the job.
+     * @return true if the job was started, false if it was skipped.
+     */
+    public boolean runAsync(String job, Supplier<CompletableFuture<?>> task) {
+        JobState state = jobs.computeIfAbsent(job, name -> new JobState());
+        if (!state.running.compareAndSet(false, true)) {
+            this.skipped(job);
+            return false;
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<?> execution;
+        try {
+            execution = task.get();
+        } catch (RuntimeException exception) {
+            this.finish(job, state, start, true);
+            throw exception;
+        }
+        execution.whenComplete((result, exception) -> this.finish(job, state, start, exception != null));
+        return true;
+    }
+
+    private void skipped(String job) {
+        log.warn("Skipping " + job + " because its previous execution is still running");
+        Counter.builder("scheduled.job.skipped")
+                .tag("job", job)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void finish(String job, JobState state, long start, boolean failed) {
+        long end = System.nanoTime();
+        Timer.builder("scheduled.job.duration")
+                .tag("job", job)
+                .tag("outcome", failed ? "failure" : "success")
+                .register(meterRegistry)
+                .record(end - start, TimeUnit.NANOSECONDS);
+        state.lastEnd = end;
+        state.running.set(false);
+    }
+}
@@ -0,0 +1,197 @@
+package com.leandroruhl.betkickapi.service.utility;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * UpstreamRateLimiter is a token bucket that every request to the
+ * <a href="https://www.football-data.org/">football-data.org API</a> has to go through, so that the application
+ * never exceeds the number of requests per minute allowed by the API plan.
+ * <br>
+ * <br>
+ * The bucket holds {@code app.football-api.requests-per-minute} tokens and is refilled completely every
+ * {@code app.football-api.refill-period-ms}, which mirrors the per-minute request counter kept by the API.
+ * That counter is also reported in the headers of every response, and the bucket is synced with it so that
+ * requests made by other clients with the same API key are taken into account.
+ * <br>
+ * <br>
+ * Callers that have to wait for a token are served by {@link Priority} first and in arrival order second,
+ * so live score updates are never stuck behind background work such as odds calculation.
+ */
+@Component
+@Slf4j
+public class UpstreamRateLimiter {
+
+    private static final String REQUESTS_AVAILABLE_HEADER = "X-Requests-Available-Minute";
+    private static final String COUNTER_RESET_HEADER = "X-RequestCounter-Reset";
+
+    /**
+     * Priority of a request to the external API, in descending order.
+     */
+    public enum Priority {
+        /**
+         * Updates of the matches that are being played.
+         */
+        LIVE,
+        /**
+         * Competitions, standings and upcoming matches ingest.
+         */
+        STANDARD,
+        /**
+         * Statistics used by the odds calculation.
+         */
+        BACKGROUND
+    }
+
+    private final int capacity;
+    private final long refillPeriodNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>();
+    private long arrivals;
+    private int tokens;
+    private long nextRefill;
+
+    public UpstreamRateLimiter(@Value("${app.football-api.requests-per-minute:10}") int capacity,
+                               @Value("${app.football-api.refill-period-ms:61000}") long refillPeriodMillis) {
+        this.capacity = capacity;
+        this.refillPeriodNanos = TimeUnit.MILLISECONDS.toNanos(refillPeriodMillis);
+        this.tokens = capacity;
+        this.nextRefill = System.nanoTime() + refillPeriodNanos;
+    }
+
+    /**
+     * A thread waiting for a token, ordered by priority and then by arrival.
+     */
+    private final class Waiter implements Comparable<Waiter> {
+        private final Priority priority;
+        private final long arrival;
+        private final Condition turn = lock.newCondition();
+
+        private Waiter(Priority priority, long arrival) {
+            this.priority = priority;
+            this.arrival = arrival;
+        }
+
+        @Override
+        public int compareTo(Waiter other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(arrival, other.arrival);
+        }
+    }
+
+    /**
+     * Takes a token from the bucket, waiting until one is available and every waiter ahead of the caller has been served.
+     *
+     * @param priority The {@link Priority} of the request.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void acquire(Priority priority) throws InterruptedException {
+        lock.lock();
+        try {
+            Waiter waiter = new Waiter(priority, arrivals++);
+            waiters.add(waiter);
+            try {
+                while (true) {
+                    refill();
+                    if (waiters.peek() != waiter) {
+                        // Woken up by whoever is ahead once it gets its token
+                        waiter.turn.await();
+                    } else if (tokens > 0) {
+                        tokens--;
+                        waiters.poll();
+                        signalNextWaiter();
+                        return;
+                    } else {
+                        waiter.turn.awaitNanos(nextRefill - System.nanoTime());
+                    }
+                }
+            } catch (InterruptedException exception) {
+                waiters.remove(waiter);
+                signalNextWaiter();
+                throw exception;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Syncs the bucket with the request counter reported by the external API in the headers of a response.
+     *
+     * @param headers The headers of the response.
+     */
+    public void updateFromHeaders(HttpHeaders headers) {
+        Integer requestsAvailable = parseHeader(headers, REQUESTS_AVAILABLE_HEADER);
+        Integer secondsToReset = parseHeader(headers, COUNTER_RESET_HEADER);
+        if (requestsAvailable == null)
+            return;
+
+        lock.lock();
+        try {
+            tokens = Math.min(tokens, requestsAvailable);
+            if (tokens == 0 && secondsToReset != null)
+                nextRefill = System.nanoTime() + TimeUnit.SECONDS.toNanos(secondsToReset + 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Empties the bucket after the external API rejected a request for exceeding the rate limit, so that no other
+     * request is made until the API counter is reset.
+     *
+     * @param headers The headers of the rejected response, may be null.
+     */
+    public void onRateLimited(HttpHeaders headers) {
+        Integer secondsToReset = parseHeader(headers, COUNTER_RESET_HEADER);
+        log.warn("External API rate limit exceeded, requests are paused until the counter resets");
+
+        lock.lock();
+        try {
+            tokens = 0;
+            nextRefill = System.nanoTime() + (secondsToReset != null
+                    ? TimeUnit.SECONDS.toNanos(secondsToReset + 1)
+                    : refillPeriodNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Refills the bucket if the refill period has elapsed. Must be called while holding the lock.
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        if (now - nextRefill >= 0) {
+            tokens = capacity;
+            nextRefill = now + refillPeriodNanos;
+        }
+    }
+
+    /**
+     * Wakes up the waiter that is first in line, if any. Must be called while holding the lock.
+     */
+    private void signalNextWaiter() {
+        Waiter next = waiters.peek();
+        if (next != null)
+            next.turn.signal();
+    }
+
+    private Integer parseHeader(HttpHeaders headers, String name) {
+        String value = headers == null ? null : headers.getFirst(name);
+        if (value == null)
+            return null;
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.leandroruhl.betkickapi.service.bet;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that {@link BetHistoryCursor} tokens decode to the cursor they were encoded from, and that malformed tokens
+ * are rejected with an {@link IllegalArgumentException}, which the controller answers with a 400.
+ */
+class BetHistoryCursorTest {
+
+    @Test
+    void decodesTheCursorItWasEncodedFrom() {
+        BetHistoryCursor cursor = new BetHistoryCursor(LocalDateTime.of(2023, 11, 4, 15, 30, 12, 345_000_000), 42L);
+
+        String token = cursor.encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+        assertThat(BetHistoryCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void decodesCursorsWithoutSecondsOrLargeIds() {
+        BetHistoryCursor cursor = new BetHistoryCursor(LocalDateTime.of(2023, 11, 4, 15, 30), Long.MAX_VALUE);
+
+        assertThat(BetHistoryCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsTokensThatAreNotBase64() {
+        assertThatThrownBy(() -> BetHistoryCursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsEmptyTokens() {
+        assertThatThrownBy(() -> BetHistoryCursor.decode(""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTokensWithoutSeparator() {
+        assertThatThrownBy(() -> BetHistoryCursor.decode(token("2023-11-04T15:30:12")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTokensWithAnInvalidDate() {
+        assertThatThrownBy(() -> BetHistoryCursor.decode(token("yesterday|42")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTokensWithAnInvalidId() {
+        assertThatThrownBy(() -> BetHistoryCursor.decode(token("2023-11-04T15:30:12|last")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String token(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
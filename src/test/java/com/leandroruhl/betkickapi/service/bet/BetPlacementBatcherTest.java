@@ -0,0 +1,159 @@
+package com.leandroruhl.betkickapi.service.bet;
+
+import com.leandroruhl.betkickapi.model.Bet;
+import com.leandroruhl.betkickapi.model.User;
+import com.leandroruhl.betkickapi.repository.BalanceLedgerEntryRepository;
+import com.leandroruhl.betkickapi.repository.BetRepository;
+import com.leandroruhl.betkickapi.repository.UserRepository;
+import com.leandroruhl.betkickapi.service.utility.CacheService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.leandroruhl.betkickapi.service.bet.BetPlacementWriterTest.user;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks how {@link BetPlacementBatcher} hands placements to the {@link BetPlacementWriter}: retrying the placements
+ * of a failed batch one by one, writing placements in the caller when the queue is full and not leaving any
+ * placement behind on shutdown.
+ * <br>
+ * <br>
+ * The writer thread is held inside a first, "blocking" placement, so the placements made meanwhile pile up in the
+ * queue and are taken as a single batch once it's released.
+ */
+class BetPlacementBatcherTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final BetRepository betRepository = mock(BetRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final BalanceLedgerEntryRepository ledgerRepository = mock(BalanceLedgerEntryRepository.class);
+
+    private final User user = user(100D);
+    private final Bet blockingBet = bet(1D);
+    private final CountDownLatch writerBlocked = new CountDownLatch(1);
+    private final CountDownLatch releaseWriter = new CountDownLatch(1);
+    private final AtomicLong nextBetId = new AtomicLong();
+    // The bet slips passed to saveAll, with the IDs their bets had when they were passed
+    private final Queue<List<Long>> savedBetIds = new ConcurrentLinkedQueue<>();
+    private final Queue<Thread> savingThreads = new ConcurrentLinkedQueue<>();
+
+    private BetPlacementBatcher batcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        releaseWriter.countDown();
+        if (batcher != null)
+            batcher.shutdown();
+    }
+
+    @Test
+    void retriesThePlacementsOfAFailedBatchOneByOne() throws Exception {
+        Bet failingBet = bet(20D);
+        this.startBatcher(10, failingBet);
+        this.blockWriter();
+
+        CompletableFuture<Double> first = batcher.place(user, List.of(bet(10D)));
+        CompletableFuture<Double> second = batcher.place(user, List.of(failingBet));
+        releaseWriter.countDown();
+
+        assertThat(first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo(100D);
+        assertThatThrownBy(() -> second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class);
+        // The blocking placement, the failed batch, then each placement of the batch on its own
+        assertThat(savedBetIds).hasSize(4);
+        // The IDs assigned by the failed batch were cleared before the placements were written again
+        assertThat(savedBetIds).allSatisfy(ids -> assertThat(ids).containsOnlyNulls());
+    }
+
+    @Test
+    void writesThePlacementInTheCallerWhenTheQueueIsFull() throws Exception {
+        this.startBatcher(1, null);
+        this.blockWriter();
+
+        CompletableFuture<Double> queued = batcher.place(user, List.of(bet(10D)));
+        CompletableFuture<Double> overflowing = batcher.place(user, List.of(bet(20D)));
+
+        // The queue was full, so the placement was written before place returned, by the calling thread
+        assertThat(overflowing).isCompletedWithValue(100D);
+        assertThat(savingThreads).contains(Thread.currentThread());
+        assertThat(queued).isNotDone();
+
+        releaseWriter.countDown();
+        assertThat(queued.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo(100D);
+    }
+
+    @Test
+    void writesTheQueuedPlacementsOnShutdown() throws Exception {
+        this.startBatcher(10, null);
+        this.blockWriter();
+
+        CompletableFuture<Double> queued = batcher.place(user, List.of(bet(10D)));
+        CompletableFuture<Void> shutdown = CompletableFuture.runAsync(() -> {
+            try {
+                batcher.shutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        releaseWriter.countDown();
+
+        assertThat(queued.get(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isEqualTo(100D);
+        shutdown.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // Once the writer has stopped, placements are written by their callers
+        assertThat(batcher.place(user, List.of(bet(5D)))).isCompletedWithValue(100D);
+    }
+
+    private void startBatcher(int queueCapacity, Bet failingBet) {
+        when(userRepository.debit(any(), any())).thenReturn(1);
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(betRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Bet> bets = invocation.getArgument(0);
+            savingThreads.add(Thread.currentThread());
+            // Bets are compared by ID, so they are looked for by identity
+            if (bets.stream().anyMatch(bet -> bet == blockingBet)) {
+                writerBlocked.countDown();
+                releaseWriter.await();
+            }
+            savedBetIds.add(bets.stream().map(Bet::getId).toList());
+            bets.forEach(bet -> bet.setId(nextBetId.incrementAndGet()));
+            if (bets.stream().anyMatch(bet -> bet == failingBet))
+                throw new IllegalStateException("Duplicate bet");
+            return bets;
+        });
+
+        BetPlacementWriter writer = new BetPlacementWriter(betRepository, userRepository, ledgerRepository);
+        batcher = new BetPlacementBatcher(writer, new CacheService(new CaffeineCacheManager()),
+                new SimpleMeterRegistry(), 200, 0, queueCapacity, TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS * 2));
+    }
+
+    /**
+     * Places the blocking placement and waits until the writer thread is held inside it.
+     */
+    private void blockWriter() throws InterruptedException {
+        batcher.place(user, List.of(blockingBet));
+        assertThat(writerBlocked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private Bet bet(Double amount) {
+        Bet bet = new Bet();
+        bet.setAmount(amount);
+        bet.setUser(user);
+        return bet;
+    }
+}
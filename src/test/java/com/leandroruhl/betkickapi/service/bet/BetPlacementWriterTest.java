@@ -0,0 +1,137 @@
+package com.leandroruhl.betkickapi.service.bet;
+
+import com.leandroruhl.betkickapi.exception.AccountBalanceException;
+import com.leandroruhl.betkickapi.model.BalanceLedgerEntry;
+import com.leandroruhl.betkickapi.model.Bet;
+import com.leandroruhl.betkickapi.model.User;
+import com.leandroruhl.betkickapi.repository.BalanceLedgerEntryRepository;
+import com.leandroruhl.betkickapi.repository.BetRepository;
+import com.leandroruhl.betkickapi.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks how {@link BetPlacementWriter} debits the users of a batch of placements and which placements it writes.
+ */
+class BetPlacementWriterTest {
+
+    private final BetRepository betRepository = mock(BetRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final BalanceLedgerEntryRepository ledgerRepository = mock(BalanceLedgerEntryRepository.class);
+    private final BetPlacementWriter writer = new BetPlacementWriter(betRepository, userRepository, ledgerRepository);
+
+    private final User alice = user(55D);
+    private final User bob = user(45D);
+
+    @Test
+    void debitsEachUserOnceWithTheTotalOfTheirPlacements() {
+        BetPlacement first = placement(alice, 10D, 20D);
+        BetPlacement second = placement(bob, 5D);
+        BetPlacement third = placement(alice, 15D);
+        when(userRepository.debit(alice.getId(), 45D)).thenReturn(1);
+        when(userRepository.debit(bob.getId(), 5D)).thenReturn(1);
+        when(userRepository.findAllById(any())).thenReturn(List.of(alice, bob));
+
+        writeAndComplete(first, second, third);
+
+        verify(userRepository).debit(alice.getId(), 45D);
+        verify(userRepository).debit(bob.getId(), 5D);
+        verify(userRepository, times(2)).debit(any(), any());
+        assertThat(savedBets()).hasSize(4);
+        assertThat(savedLedgerEntries())
+                .extracting(BalanceLedgerEntry::getAmount)
+                .containsExactlyInAnyOrder(-45D, -5D);
+        assertThat(first.getResult()).isCompletedWithValue(55D);
+        assertThat(second.getResult()).isCompletedWithValue(45D);
+        assertThat(third.getResult()).isCompletedWithValue(55D);
+    }
+
+    @Test
+    void rejectsOnlyThePlacementsThatTheFundsDoNotCover() {
+        BetPlacement first = placement(alice, 30D);
+        BetPlacement second = placement(alice, 50D);
+        BetPlacement third = placement(alice, 10D);
+        // The total (90) and the second placement don't fit, the first and third do
+        when(userRepository.debit(alice.getId(), 30D)).thenReturn(1);
+        when(userRepository.debit(alice.getId(), 10D)).thenReturn(1);
+        when(userRepository.findAllById(any())).thenReturn(List.of(alice));
+
+        writeAndComplete(first, second, third);
+
+        verify(userRepository).debit(alice.getId(), 90D);
+        // Bets are compared by ID, which unsaved bets don't have yet
+        assertThat(savedBets()).extracting(Bet::getAmount).containsExactly(30D, 10D);
+        assertThat(savedLedgerEntries())
+                .extracting(BalanceLedgerEntry::getAmount)
+                .containsExactly(-30D, -10D);
+        assertThat(first.getResult()).isCompletedWithValue(55D);
+        assertThat(third.getResult()).isCompletedWithValue(55D);
+        assertThatThrownBy(() -> second.getResult().join())
+                .hasCauseInstanceOf(AccountBalanceException.class);
+    }
+
+    @Test
+    void rejectsEveryPlacementOfAUserWithoutFunds() {
+        BetPlacement first = placement(alice, 10D);
+        BetPlacement second = placement(bob, 20D);
+        when(userRepository.debit(bob.getId(), 20D)).thenReturn(1);
+        when(userRepository.findAllById(any())).thenReturn(List.of(alice, bob));
+
+        writeAndComplete(first, second);
+
+        assertThat(savedBets()).extracting(Bet::getAmount).containsExactly(20D);
+        assertThatThrownBy(() -> first.getResult().join())
+                .hasCauseInstanceOf(AccountBalanceException.class);
+        assertThat(second.getResult()).isCompletedWithValue(45D);
+    }
+
+    private void writeAndComplete(BetPlacement... placements) {
+        writer.write(List.of(placements));
+        Arrays.stream(placements).forEach(BetPlacement::complete);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Bet> savedBets() {
+        ArgumentCaptor<List<Bet>> captor = ArgumentCaptor.forClass(List.class);
+        verify(betRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BalanceLedgerEntry> savedLedgerEntries() {
+        ArgumentCaptor<List<BalanceLedgerEntry>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ledgerRepository).saveAll(captor.capture());
+        return captor.getValue();
+    }
+
+    static BetPlacement placement(User user, Double... amounts) {
+        List<Bet> bets = Arrays.stream(amounts)
+                .map(amount -> {
+                    Bet bet = new Bet();
+                    bet.setAmount(amount);
+                    bet.setUser(user);
+                    return bet;
+                })
+                .toList();
+        return new BetPlacement(user.getId(), bets);
+    }
+
+    static User user(Double accountBalance) {
+        User user = new User("First", "Last", "user", "", accountBalance, new ArrayList<>());
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+}
@@ -0,0 +1,112 @@
+package com.leandroruhl.betkickapi.service.bet;
+
+import com.leandroruhl.betkickapi.dto.internal_api.BetHistoryEntry;
+import com.leandroruhl.betkickapi.dto.internal_api.BetHistoryPage;
+import com.leandroruhl.betkickapi.mapper.BetMapper;
+import com.leandroruhl.betkickapi.repository.BalanceLedgerEntryRepository;
+import com.leandroruhl.betkickapi.repository.BetRepository;
+import com.leandroruhl.betkickapi.repository.MatchRepository;
+import com.leandroruhl.betkickapi.repository.UserBetStatsRepository;
+import com.leandroruhl.betkickapi.repository.UserRepository;
+import com.leandroruhl.betkickapi.service.leaderboard.LeaderboardService;
+import com.leandroruhl.betkickapi.service.match.OpenMatchSnapshotIndex;
+import com.leandroruhl.betkickapi.service.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks how {@link BetServiceImpl#findBetHistoryPage(String, String, int)} fetches one bet more than the page
+ * holds to tell whether there is a next page, and where the next page starts.
+ */
+class BetServiceImplTest {
+
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final LocalDateTime PLACED_AT = LocalDateTime.of(2023, 11, 4, 15, 30);
+
+    private final BetRepository betRepository = mock(BetRepository.class);
+    private final BetServiceImpl betService = new BetServiceImpl(betRepository, mock(UserRepository.class),
+            mock(BalanceLedgerEntryRepository.class), mock(UserService.class), mock(BetMapper.class),
+            mock(UserBetStatsRepository.class), mock(LeaderboardService.class), mock(BetPlacementBatcher.class),
+            mock(OpenMatchSnapshotIndex.class), mock(MatchRepository.class));
+
+    @Test
+    void pageWithOneMoreBetHasANextCursorAtItsLastBet() {
+        // Bets 10, 9 and 8, newest first
+        when(betRepository.findHistoryByUserId(USER_ID, PageRequest.of(0, 3))).thenReturn(entries(10, 8));
+
+        BetHistoryPage page = betService.findBetHistoryPage(USER_ID.toString(), null, 2);
+
+        assertThat(page.getBets()).extracting(BetHistoryEntry::getId).containsExactly(10L, 9L);
+        assertThat(BetHistoryCursor.decode(page.getNextCursor()))
+                .isEqualTo(new BetHistoryCursor(PLACED_AT.plusMinutes(9), 9L));
+    }
+
+    @Test
+    void fullLastPageHasNoNextCursor() {
+        when(betRepository.findHistoryByUserId(USER_ID, PageRequest.of(0, 3))).thenReturn(entries(2, 1));
+
+        BetHistoryPage page = betService.findBetHistoryPage(USER_ID.toString(), "", 2);
+
+        assertThat(page.getBets()).extracting(BetHistoryEntry::getId).containsExactly(2L, 1L);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void cursorStartsThePageAfterItsBet() {
+        BetHistoryCursor cursor = new BetHistoryCursor(PLACED_AT.plusMinutes(9), 9L);
+        when(betRepository.findHistoryByUserIdBefore(USER_ID, cursor.placedAt(), cursor.id(), PageRequest.of(0, 3)))
+                .thenReturn(entries(8, 6));
+
+        BetHistoryPage page = betService.findBetHistoryPage(USER_ID.toString(), cursor.encode(), 2);
+
+        assertThat(page.getBets()).extracting(BetHistoryEntry::getId).containsExactly(8L, 7L);
+        assertThat(BetHistoryCursor.decode(page.getNextCursor()))
+                .isEqualTo(new BetHistoryCursor(PLACED_AT.plusMinutes(7), 7L));
+    }
+
+    @Test
+    void malformedCursorIsRejectedWithoutQueryingTheBets() {
+        assertThatThrownBy(() -> betService.findBetHistoryPage(USER_ID.toString(), "not a cursor!", 2))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(betRepository);
+    }
+
+    @Test
+    void emptyHistoryHasNoNextCursor() {
+        when(betRepository.findHistoryByUserId(any(), any())).thenReturn(List.of());
+
+        BetHistoryPage page = betService.findBetHistoryPage(USER_ID.toString(), null, 2);
+
+        assertThat(page.getBets()).isEmpty();
+        assertThat(page.getNextCursor()).isNull();
+        verify(betRepository).findHistoryByUserId(USER_ID, PageRequest.of(0, 3));
+    }
+
+    /**
+     * Creates the entries of the bets with IDs from {@code newest} down to {@code oldest}, each placed a minute before
+     * the previous one.
+     */
+    private static List<BetHistoryEntry> entries(long newest, long oldest) {
+        return LongStream.iterate(newest, id -> id >= oldest, id -> id - 1)
+                .mapToObj(id -> {
+                    BetHistoryEntry entry = new BetHistoryEntry();
+                    entry.setId(id);
+                    entry.setPlacedAt(PLACED_AT.plusMinutes(id));
+                    return entry;
+                })
+                .toList();
+    }
+}
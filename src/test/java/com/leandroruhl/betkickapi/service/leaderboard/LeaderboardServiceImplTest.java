@@ -0,0 +1,81 @@
+package com.leandroruhl.betkickapi.service.leaderboard;
+
+import com.leandroruhl.betkickapi.dto.internal_api.LeaderboardPage;
+import com.leandroruhl.betkickapi.dto.internal_api.UserBetSummary;
+import com.leandroruhl.betkickapi.model.UserBetStats;
+import com.leandroruhl.betkickapi.repository.UserBetStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the pages returned by {@link LeaderboardServiceImpl#getUserNeighborhood(UUID, int)} around the first, the
+ * last and a middle user of the leaderboard.
+ */
+class LeaderboardServiceImplTest {
+
+    private static final int USERS = 5;
+
+    private final UserBetStatsRepository userBetStatsRepository = mock(UserBetStatsRepository.class);
+    private final LeaderboardServiceImpl leaderboardService = new LeaderboardServiceImpl(userBetStatsRepository);
+
+    // Ordered from the best user to the worst one
+    private final List<UserBetStats> stats = IntStream.range(0, USERS)
+            .mapToObj(i -> new UserBetStats(UUID.randomUUID(), "user" + (i + 1), 10L - i, (long) i, 100D - 10 * i))
+            .toList();
+
+    @BeforeEach
+    void setUp() {
+        when(userBetStatsRepository.findAll()).thenReturn(stats);
+        leaderboardService.rebuild();
+    }
+
+    @Test
+    void neighborhoodOfTheFirstUserHasNoUsersAbove() {
+        LeaderboardPage page = leaderboardService.getUserNeighborhood(stats.get(0).getUserId(), 2).orElseThrow();
+
+        assertThat(page.getUsers()).extracting(UserBetSummary::getPosition).containsExactly(1, 2, 3);
+        assertThat(page.getUsers()).extracting(UserBetSummary::getLogin).containsExactly("user1", "user2", "user3");
+        assertThat(page.getNextCursor()).isEqualTo(3);
+        assertThat(page.getTotalUsers()).isEqualTo(USERS);
+    }
+
+    @Test
+    void neighborhoodOfTheLastUserHasNoNextPage() {
+        LeaderboardPage page = leaderboardService.getUserNeighborhood(stats.get(USERS - 1).getUserId(), 2)
+                .orElseThrow();
+
+        assertThat(page.getUsers()).extracting(UserBetSummary::getPosition).containsExactly(3, 4, 5);
+        assertThat(page.getUsers()).extracting(UserBetSummary::getLogin).containsExactly("user3", "user4", "user5");
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getTotalUsers()).isEqualTo(USERS);
+    }
+
+    @Test
+    void neighborhoodOfAMiddleUserHasUsersOnBothSides() {
+        LeaderboardPage page = leaderboardService.getUserNeighborhood(stats.get(2).getUserId(), 1).orElseThrow();
+
+        assertThat(page.getUsers()).extracting(UserBetSummary::getPosition).containsExactly(2, 3, 4);
+        assertThat(page.getNextCursor()).isEqualTo(4);
+    }
+
+    @Test
+    void neighborhoodWiderThanTheLeaderboardHasEveryUser() {
+        LeaderboardPage page = leaderboardService.getUserNeighborhood(stats.get(2).getUserId(), 10).orElseThrow();
+
+        assertThat(page.getUsers()).extracting(UserBetSummary::getPosition).containsExactly(1, 2, 3, 4, 5);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void neighborhoodOfAnUnrankedUserIsEmpty() {
+        assertThat(leaderboardService.getUserNeighborhood(UUID.randomUUID(), 2)).isEmpty();
+    }
+}
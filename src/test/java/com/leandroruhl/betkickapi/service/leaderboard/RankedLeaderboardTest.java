@@ -0,0 +1,107 @@
+package com.leandroruhl.betkickapi.service.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks {@link RankedLeaderboard} against a plain sorted list, applying random puts, replacements and resets and
+ * comparing the ranges, positions and size of both after every operation.
+ * <br>
+ * <br>
+ * Scores are drawn from a handful of values and some logins are null, so the tie-breakers are exercised too.
+ */
+class RankedLeaderboardTest {
+
+    private static final Comparator<LeaderboardEntry> ORDER = Comparator
+            .comparingDouble(LeaderboardEntry::score).reversed()
+            .thenComparing(LeaderboardEntry::login, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(LeaderboardEntry::userId);
+
+    private final Random random = new Random(42);
+    private final RankedLeaderboard leaderboard = new RankedLeaderboard();
+    private final Map<UUID, LeaderboardEntry> reference = new HashMap<>();
+    private final List<UUID> userIds = new ArrayList<>();
+
+    @Test
+    void matchesASortedListAfterRandomOperations() {
+        for (int operation = 0; operation < 5_000; operation++) {
+            int choice = random.nextInt(100);
+            if (choice < 2) {
+                this.reset();
+            } else if (choice < 50 || userIds.isEmpty()) {
+                UUID userId = UUID.randomUUID();
+                userIds.add(userId);
+                this.put(this.entry(userId));
+            } else {
+                // Replaces the entry of a user already on the leaderboard
+                this.put(this.entry(userIds.get(random.nextInt(userIds.size()))));
+            }
+            this.assertMatchesReference();
+        }
+    }
+
+    @Test
+    void returnsNothingOutsideTheLeaderboard() {
+        leaderboard.reset(List.of(this.entry(UUID.randomUUID()), this.entry(UUID.randomUUID())));
+
+        assertThat(leaderboard.range(2, 10)).isEmpty();
+        assertThat(leaderboard.range(0, 0)).isEmpty();
+        assertThat(leaderboard.find(UUID.randomUUID())).isEmpty();
+    }
+
+    private void put(LeaderboardEntry entry) {
+        leaderboard.put(entry);
+        reference.put(entry.userId(), entry);
+    }
+
+    private void reset() {
+        reference.clear();
+        userIds.clear();
+        List<LeaderboardEntry> entries = IntStream.range(0, random.nextInt(50))
+                .mapToObj(i -> this.entry(UUID.randomUUID()))
+                .toList();
+        entries.forEach(entry -> {
+            reference.put(entry.userId(), entry);
+            userIds.add(entry.userId());
+        });
+        leaderboard.reset(entries);
+    }
+
+    private void assertMatchesReference() {
+        List<LeaderboardEntry> sorted = reference.values().stream().sorted(ORDER).toList();
+        assertThat(leaderboard.size()).isEqualTo(sorted.size());
+
+        int offset = sorted.isEmpty() ? 0 : random.nextInt(sorted.size() + 1);
+        int limit = random.nextInt(20);
+        List<RankedLeaderboard.RankedEntry> range = leaderboard.range(offset, limit);
+        List<LeaderboardEntry> expected = sorted.subList(offset, Math.min(offset + limit, sorted.size()));
+        assertThat(range).extracting(RankedLeaderboard.RankedEntry::entry).containsExactlyElementsOf(expected);
+        assertThat(range).extracting(RankedLeaderboard.RankedEntry::position)
+                .containsExactlyElementsOf(IntStream.rangeClosed(offset + 1, offset + expected.size()).boxed().toList());
+
+        if (!sorted.isEmpty()) {
+            LeaderboardEntry entry = sorted.get(random.nextInt(sorted.size()));
+            assertThat(leaderboard.find(entry.userId()))
+                    .hasValueSatisfying(rankedEntry -> {
+                        assertThat(rankedEntry.entry()).isEqualTo(entry);
+                        assertThat(rankedEntry.position()).isEqualTo(sorted.indexOf(entry) + 1);
+                    });
+        }
+    }
+
+    private LeaderboardEntry entry(UUID userId) {
+        String login = random.nextInt(10) == 0 ? null : "user" + random.nextInt(20);
+        double score = random.nextInt(8) * 12.5;
+        return new LeaderboardEntry(userId, login, score, random.nextInt(10), random.nextInt(10), score);
+    }
+}
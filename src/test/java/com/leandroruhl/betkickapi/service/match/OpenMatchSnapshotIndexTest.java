@@ -0,0 +1,144 @@
+package com.leandroruhl.betkickapi.service.match;
+
+import com.leandroruhl.betkickapi.model.Match;
+import com.leandroruhl.betkickapi.model.embbeded.MatchOdds;
+import com.leandroruhl.betkickapi.model.enums.Status;
+import com.leandroruhl.betkickapi.model.enums.Winner;
+import com.leandroruhl.betkickapi.repository.MatchRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks which matches {@link OpenMatchSnapshotIndex} keeps in its snapshot, when the snapshot gets a new version and
+ * how it's loaded from the {@link MatchRepository} on first use.
+ */
+class OpenMatchSnapshotIndexTest {
+
+    private final MatchRepository matchRepository = mock(MatchRepository.class);
+    private final OpenMatchSnapshotIndex index = new OpenMatchSnapshotIndex(matchRepository);
+
+    @Test
+    void publishSkipsFinishedMatchesAndMatchesWithoutOdds() {
+        index.publish(List.of(
+                match(1, Status.TIMED, odds()),
+                match(2, Status.IN_PLAY, odds()),
+                match(3, Status.FINISHED, odds()),
+                match(4, Status.AWARDED, odds()),
+                match(5, Status.SCHEDULED, null)));
+
+        assertThat(index.find(1)).isNotNull();
+        assertThat(index.find(2)).isNotNull();
+        assertThat(index.find(3)).isNull();
+        assertThat(index.find(4)).isNull();
+        assertThat(index.find(5)).isNull();
+    }
+
+    @Test
+    void publishCopiesTheDataOfTheMatch() {
+        LocalDateTime utcDate = LocalDateTime.of(2023, 11, 4, 15, 0);
+        Match match = match(1, Status.TIMED, odds());
+        match.setUtcDate(utcDate);
+        match.setOddsVersion(3);
+        index.publish(List.of(match));
+
+        assertThat(index.find(1)).isEqualTo(new OpenMatchSnapshotIndex.OpenMatch(1, Status.TIMED, utcDate,
+                1.5, 4.0, 3.2, 3));
+    }
+
+    @Test
+    void everyPublishGetsANewVersion() {
+        index.publish(List.of(match(1, Status.TIMED, odds())));
+        long version = index.getVersion();
+
+        index.publish(List.of(match(1, Status.TIMED, odds())));
+
+        assertThat(index.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void closeBumpsTheVersionOnlyWhenAMatchIsRemoved() {
+        index.publish(List.of(match(1, Status.TIMED, odds()), match(2, Status.TIMED, odds())));
+        long version = index.getVersion();
+
+        index.close(List.of(3));
+        index.close(List.of());
+        assertThat(index.getVersion()).isEqualTo(version);
+
+        index.close(List.of(1, 3));
+        assertThat(index.getVersion()).isEqualTo(version + 1);
+        assertThat(index.find(1)).isNull();
+        assertThat(index.find(2)).isNotNull();
+    }
+
+    @Test
+    void closedMatchStaysClosedUntilTheDatabaseShowsItFinished() {
+        index.publish(List.of(match(1, Status.IN_PLAY, odds()), match(2, Status.TIMED, odds())));
+        index.close(List.of(1));
+
+        // Published by a refresh that read the database before the finished match was committed
+        index.publish(List.of(match(1, Status.IN_PLAY, odds()), match(2, Status.TIMED, odds())));
+        assertThat(index.find(1)).isNull();
+        assertThat(index.find(2)).isNotNull();
+
+        // The finished match has been committed, so it's no longer listed
+        index.publish(List.of(match(2, Status.TIMED, odds())));
+        // and it's forgotten, so it could be published again if it was reopened
+        index.publish(List.of(match(1, Status.IN_PLAY, odds()), match(2, Status.TIMED, odds())));
+        assertThat(index.find(1)).isNotNull();
+    }
+
+    @Test
+    void loadsTheSnapshotOnFirstUseOnly() {
+        when(matchRepository.findAllUnfinishedMatches()).thenReturn(List.of(match(1, Status.TIMED, odds())));
+        verify(matchRepository, never()).findAllUnfinishedMatches();
+
+        assertThat(index.find(1)).isNotNull();
+        assertThat(index.find(2)).isNull();
+        assertThat(index.getVersion()).isEqualTo(1);
+
+        verify(matchRepository, times(1)).findAllUnfinishedMatches();
+    }
+
+    @Test
+    void doesNotLoadTheSnapshotOnceOneIsPublished() {
+        index.publish(List.of(match(1, Status.TIMED, odds())));
+
+        assertThat(index.find(1)).isNotNull();
+        verify(matchRepository, never()).findAllUnfinishedMatches();
+    }
+
+    @Test
+    void oddsForReturnsTheOddsOfEachOutcome() {
+        OpenMatchSnapshotIndex.OpenMatch openMatch = OpenMatchSnapshotIndex.OpenMatch.of(
+                match(1, Status.TIMED, odds()));
+
+        assertThat(openMatch.oddsFor(Winner.HOME_TEAM)).isEqualTo(1.5);
+        assertThat(openMatch.oddsFor(Winner.AWAY_TEAM)).isEqualTo(4.0);
+        assertThat(openMatch.oddsFor(Winner.DRAW)).isEqualTo(3.2);
+    }
+
+    private static Match match(Integer id, Status status, MatchOdds odds) {
+        Match match = new Match();
+        match.setId(id);
+        match.setStatus(status);
+        match.setOdds(odds);
+        return match;
+    }
+
+    private static MatchOdds odds() {
+        MatchOdds odds = new MatchOdds();
+        odds.setHomeWinsOdds(1.5);
+        odds.setAwayWinsOdds(4.0);
+        odds.setDrawOdds(3.2);
+        return odds;
+    }
+}
@@ -0,0 +1,181 @@
+package com.leandroruhl.betkickapi.service.utility;
+
+import com.leandroruhl.betkickapi.service.utility.HttpResponseCache.CachedResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks which responses {@link HttpResponseCache} stores, how long it considers them fresh, how it refreshes them
+ * after a 304 and how it bounds the total size of the stored bodies.
+ */
+class HttpResponseCacheTest {
+
+    private static final String URI = "/v4/competitions/PL/matches";
+    private static final byte[] BODY = "{\"matches\":[]}".getBytes();
+
+    private final HttpResponseCache cache = new HttpResponseCache(1);
+
+    @Test
+    void responseIsFreshForItsMaxAge() {
+        long before = System.currentTimeMillis();
+        cache.put(URI, BODY, headers("max-age=60", null));
+
+        CachedResponse response = cache.get(URI);
+        assertThat(response.isFresh()).isTrue();
+        assertThat(response.body()).isEqualTo(BODY);
+        assertThat(response.expiresAt()).isBetween(before + 60_000, System.currentTimeMillis() + 60_000);
+    }
+
+    @Test
+    void ageIsSubtractedFromTheMaxAge() {
+        long before = System.currentTimeMillis();
+        HttpHeaders headers = headers("max-age=60", "\"v1\"");
+        headers.set(HttpHeaders.AGE, "45");
+        cache.put(URI, BODY, headers);
+
+        assertThat(cache.get(URI).expiresAt()).isBetween(before + 15_000, System.currentTimeMillis() + 15_000);
+    }
+
+    @Test
+    void responseOlderThanItsMaxAgeIsStale() {
+        HttpHeaders headers = headers("max-age=60", "\"v1\"");
+        headers.set(HttpHeaders.AGE, "60");
+        cache.put(URI, BODY, headers);
+
+        assertThat(cache.get(URI).isFresh()).isFalse();
+    }
+
+    @Test
+    void noCacheResponseIsStoredStale() {
+        cache.put(URI, BODY, headers("no-cache, max-age=60", "\"v1\""));
+
+        CachedResponse response = cache.get(URI);
+        assertThat(response.isFresh()).isFalse();
+        assertThat(response.eTag()).isEqualTo("\"v1\"");
+    }
+
+    @Test
+    void noStoreResponseIsNotStoredAndReplacesTheCachedOne() {
+        cache.put(URI, BODY, headers("max-age=60", null));
+        cache.put(URI, BODY, headers("no-store", "\"v1\""));
+
+        assertThat(cache.get(URI)).isNull();
+    }
+
+    @Test
+    void staleResponseWithoutValidatorsIsNotStored() {
+        cache.put(URI, BODY, headers(null, null));
+
+        assertThat(cache.get(URI)).isNull();
+    }
+
+    @Test
+    void staleResponseWithValidatorsIsStored() {
+        HttpHeaders headers = headers(null, null);
+        headers.set(HttpHeaders.LAST_MODIFIED, "Sat, 04 Nov 2023 15:00:00 GMT");
+        cache.put(URI, BODY, headers);
+
+        CachedResponse response = cache.get(URI);
+        assertThat(response.isFresh()).isFalse();
+        assertThat(response.lastModified()).isEqualTo("Sat, 04 Nov 2023 15:00:00 GMT");
+    }
+
+    @Test
+    void expiresIsMeasuredFromTheDateOfTheResponse() {
+        long now = System.currentTimeMillis();
+        HttpHeaders headers = headers(null, null);
+        // The server clock is an hour behind, only the difference between both headers counts
+        headers.setDate(now - TimeUnit.HOURS.toMillis(1));
+        headers.setExpires(now - TimeUnit.HOURS.toMillis(1) + 60_000);
+        cache.put(URI, BODY, headers);
+
+        assertThat(cache.get(URI).isFresh()).isTrue();
+    }
+
+    @Test
+    void expiredResponseIsStale() {
+        long now = System.currentTimeMillis();
+        HttpHeaders headers = headers(null, "\"v1\"");
+        headers.setDate(now);
+        headers.setExpires(now - 60_000);
+        cache.put(URI, BODY, headers);
+
+        assertThat(cache.get(URI).isFresh()).isFalse();
+    }
+
+    @Test
+    void maxAgeTakesPrecedenceOverExpires() {
+        long now = System.currentTimeMillis();
+        HttpHeaders headers = headers("max-age=0", "\"v1\"");
+        headers.setDate(now);
+        headers.setExpires(now + 60_000);
+        cache.put(URI, BODY, headers);
+
+        assertThat(cache.get(URI).isFresh()).isFalse();
+    }
+
+    @Test
+    void revalidatedResponseKeepsItsBodyAndTakesTheNewFreshness() {
+        cache.put(URI, BODY, headers("no-cache", "\"v1\""));
+        CachedResponse cached = cache.get(URI);
+
+        CachedResponse refreshed = cache.revalidated(URI, cached, headers("max-age=60", null));
+
+        assertThat(refreshed.isFresh()).isTrue();
+        assertThat(refreshed.body()).isSameAs(cached.body());
+        // The 304 didn't send an ETag, so the one of the cached response is kept
+        assertThat(refreshed.eTag()).isEqualTo("\"v1\"");
+        assertThat(cache.get(URI)).isSameAs(refreshed);
+    }
+
+    @Test
+    void revalidatedResponseTakesTheNewValidators() {
+        cache.put(URI, BODY, headers("no-cache", "\"v1\""));
+
+        HttpHeaders headers = headers("no-cache", "\"v2\"");
+        headers.set(HttpHeaders.LAST_MODIFIED, "Sat, 04 Nov 2023 15:00:00 GMT");
+        CachedResponse refreshed = cache.revalidated(URI, cache.get(URI), headers);
+
+        assertThat(refreshed.isFresh()).isFalse();
+        assertThat(refreshed.eTag()).isEqualTo("\"v2\"");
+        assertThat(refreshed.lastModified()).isEqualTo("Sat, 04 Nov 2023 15:00:00 GMT");
+    }
+
+    @Test
+    void storeIsBoundedByTheSizeOfTheBodies() throws InterruptedException {
+        List<String> uris = List.of("/v4/matches/1", "/v4/matches/2", "/v4/matches/3");
+        // Three bodies of 400 KB don't fit in 1 MB
+        uris.forEach(uri -> cache.put(uri, new byte[400 * 1024], headers("max-age=60", null)));
+
+        // Evictions are done asynchronously by Caffeine
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (storedBytes(uris) > 1024 * 1024 && System.nanoTime() < deadline)
+            Thread.sleep(10);
+
+        assertThat(storedBytes(uris)).isLessThanOrEqualTo(1024 * 1024);
+        assertThat(uris.stream().map(cache::get).filter(Objects::nonNull)).isNotEmpty();
+    }
+
+    private long storedBytes(List<String> uris) {
+        return uris.stream()
+                .map(cache::get)
+                .filter(Objects::nonNull)
+                .mapToLong(response -> response.body().length)
+                .sum();
+    }
+
+    private static HttpHeaders headers(String cacheControl, String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cacheControl != null)
+            headers.setCacheControl(cacheControl);
+        if (eTag != null)
+            headers.setETag(eTag);
+        return headers;
+    }
+}
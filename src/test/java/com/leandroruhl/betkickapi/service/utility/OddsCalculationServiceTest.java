@@ -0,0 +1,127 @@
+package com.leandroruhl.betkickapi.service.utility;
+
+import com.leandroruhl.betkickapi.dto.external_api.HeadToHeadResponse;
+import com.leandroruhl.betkickapi.dto.external_api.TeamStatsResponse;
+import com.leandroruhl.betkickapi.model.Competition;
+import com.leandroruhl.betkickapi.model.CompetitionStandings;
+import com.leandroruhl.betkickapi.model.Standing;
+import com.leandroruhl.betkickapi.model.Team;
+import com.leandroruhl.betkickapi.model.embbeded.MatchOdds;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that {@link OddsCalculationService} prices matches exactly like the original implementation, kept in
+ * {@link LegacyOddsCalculationService}, over randomly generated inputs that go through every branch of the
+ * calculation (missing team rates, missing recent head-to-head matches, missing or meaningless standings).
+ */
+class OddsCalculationServiceTest {
+
+    private static final int CASES = 20_000;
+
+    private final OddsCalculationService oddsService = new OddsCalculationService();
+    private final LegacyOddsCalculationService legacyOddsService = new LegacyOddsCalculationService();
+
+    @Test
+    void generateMatchOddsMatchesLegacyImplementation() {
+        Random random = new Random(20231105L);
+        int pricedMatches = 0;
+
+        for (int i = 0; i < CASES; i++) {
+            Integer homeId = 1 + random.nextInt(60);
+            Integer awayId = 61 + random.nextInt(60);
+            Integer totalTeams = 4 + random.nextInt(21);
+            TeamStatsResponse home = randomTeamStats(random);
+            TeamStatsResponse away = randomTeamStats(random);
+            HeadToHeadResponse h2h = randomHeadToHead(random);
+            List<Standing> standings = randomStandings(random, homeId, awayId, totalTeams);
+
+            MatchOdds expected = legacyOddsService.generateMatchOdds(home, away, h2h, standings, homeId, totalTeams);
+            MatchOdds actual = oddsService.generateMatchOdds(home, away, h2h, standings, homeId, totalTeams);
+
+            assertThat(actual).as("case %d", i).isEqualTo(expected);
+            if (expected != null)
+                pricedMatches++;
+        }
+
+        // Make sure the comparison isn't trivially passing on null odds
+        assertThat(pricedMatches).isGreaterThan(CASES / 2);
+    }
+
+    @Test
+    void generateMatchOddsReturnsNullWithoutHeadToHeadStats() {
+        TeamStatsResponse home = new TeamStatsResponse(null, 10D, 5D, 5D, 3D, 1D, 1D);
+        TeamStatsResponse away = new TeamStatsResponse(null, 6D, 6D, 8D, 1D, 2D, 2D);
+        HeadToHeadResponse h2h = new HeadToHeadResponse(null, 0D, null, null);
+
+        assertThat(oddsService.generateMatchOdds(home, away, h2h, null, 1, 20)).isNull();
+    }
+
+    private TeamStatsResponse randomTeamStats(Random random) {
+        // Zero matches every now and then so that rates can't be calculated
+        double wins = random.nextInt(10) == 0 ? 0 : random.nextInt(40);
+        double draws = random.nextInt(10) == 0 ? 0 : random.nextInt(20);
+        double losses = random.nextInt(10) == 0 ? 0 : random.nextInt(40);
+        double recentWins = random.nextInt(6);
+        double recentDraws = random.nextInt(6 - (int) recentWins);
+        double recentLosses = random.nextInt(20) == 0 ? 0 : 5 - recentWins - recentDraws;
+        return new TeamStatsResponse(null, wins, draws, losses, recentWins, recentDraws, recentLosses);
+    }
+
+    private HeadToHeadResponse randomHeadToHead(Random random) {
+        if (random.nextInt(25) == 0)
+            return new HeadToHeadResponse(null, 0D, null, null);
+
+        double homeWins = random.nextInt(12);
+        double awayWins = random.nextInt(12);
+        double draws = random.nextInt(8);
+        double total = random.nextInt(25) == 0 ? 0 : homeWins + awayWins + draws;
+
+        // Recent matches are zero whenever the teams haven't played each other lately
+        boolean playedRecently = random.nextInt(4) != 0;
+        double recentHomeWins = playedRecently ? random.nextInt(3) : 0;
+        double recentAwayWins = playedRecently ? random.nextInt(3) : 0;
+        double recentDraws = playedRecently ? random.nextInt(2) : 0;
+
+        TeamStatsResponse homeStats = new TeamStatsResponse(null, homeWins, draws, awayWins,
+                recentHomeWins, recentDraws, recentAwayWins);
+        TeamStatsResponse awayStats = new TeamStatsResponse(null, awayWins, draws, homeWins,
+                recentAwayWins, recentDraws, recentHomeWins);
+        return new HeadToHeadResponse(null, total, homeStats, awayStats);
+    }
+
+    private List<Standing> randomStandings(Random random, Integer homeId, Integer awayId, Integer totalTeams) {
+        if (random.nextInt(4) == 0)
+            return null;
+
+        Competition competition = new Competition(2021, "Competition", "Competition", "CMP", "");
+        // Group stages only need 3 matches for the standings to be meaningful, leagues need 10
+        String group = random.nextBoolean() ? "GROUP_A" : null;
+        CompetitionStandings table = new CompetitionStandings(1, competition, group, new ArrayList<>());
+
+        List<Standing> standings = new ArrayList<>();
+        standings.add(randomStanding(random, 1, homeId, table, totalTeams));
+        standings.add(randomStanding(random, 2, awayId, table, totalTeams));
+        if (random.nextBoolean())
+            Collections.reverse(standings);
+        return standings;
+    }
+
+    private Standing randomStanding(Random random, Integer id, Integer teamId, CompetitionStandings table,
+                                    Integer totalTeams) {
+        Team team = new Team(teamId, "Team " + teamId, "Team " + teamId, "T" + teamId, "");
+        int won = random.nextInt(12);
+        int draw = random.nextInt(6);
+        int lost = random.nextInt(12);
+        if (won + draw + lost == 0)
+            won = 1;
+        int position = 1 + random.nextInt(totalTeams);
+        return new Standing(id, position, team, table, won, draw, lost, won * 3 + draw, 0, 0, 0);
+    }
+}
@@ -0,0 +1,163 @@
+package com.leandroruhl.betkickapi.service.utility;
+
+import com.leandroruhl.betkickapi.service.utility.UpstreamRateLimiter.Priority;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the order in which {@link UpstreamRateLimiter} serves its waiters and how it syncs with the request counter
+ * reported by the external API.
+ * <br>
+ * <br>
+ * The limiter only depends on its lock and the clock, so the tests use real threads and short refill periods.
+ */
+class UpstreamRateLimiterTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+    private static final long LONG_PERIOD_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final Queue<Priority> served = new ConcurrentLinkedQueue<>();
+    private final List<Thread> threads = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        threads.forEach(Thread::interrupt);
+    }
+
+    @Test
+    void servesWaitersByPriorityThenByArrival() throws Exception {
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(1, 500);
+        rateLimiter.acquire(Priority.STANDARD);
+
+        CompletableFuture<Void> background = this.acquireAndWait(rateLimiter, Priority.BACKGROUND);
+        CompletableFuture<Void> firstStandard = this.acquireAndWait(rateLimiter, Priority.STANDARD);
+        CompletableFuture<Void> secondStandard = this.acquireAndWait(rateLimiter, Priority.STANDARD);
+        CompletableFuture<Void> live = this.acquireAndWait(rateLimiter, Priority.LIVE);
+
+        CompletableFuture.allOf(background, firstStandard, secondStandard, live).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(served).containsExactly(Priority.LIVE, Priority.STANDARD, Priority.STANDARD, Priority.BACKGROUND);
+    }
+
+    @Test
+    void interruptedWaiterLetsTheNextOneThrough() throws Exception {
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(1, 300);
+        rateLimiter.acquire(Priority.STANDARD);
+
+        CompletableFuture<Void> live = this.acquireAndWait(rateLimiter, Priority.LIVE);
+        CompletableFuture<Void> background = this.acquireAndWait(rateLimiter, Priority.BACKGROUND);
+        threads.get(0).interrupt();
+
+        assertThatThrownBy(() -> live.get(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(InterruptedException.class);
+        background.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(served).containsExactly(Priority.BACKGROUND);
+    }
+
+    @Test
+    void headersOnlyLowerTheAvailableRequests() throws Exception {
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(5, LONG_PERIOD_MILLIS);
+        rateLimiter.updateFromHeaders(headers("2", null));
+        // More requests available than tokens left doesn't add tokens
+        rateLimiter.updateFromHeaders(headers("9", null));
+
+        rateLimiter.acquire(Priority.STANDARD);
+        rateLimiter.acquire(Priority.STANDARD);
+        CompletableFuture<Void> third = this.acquireAndWait(rateLimiter, Priority.STANDARD);
+
+        assertThat(third).isNotDone();
+    }
+
+    @Test
+    void emptyBucketIsRefilledWhenTheApiCounterResets() throws Exception {
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(5, LONG_PERIOD_MILLIS);
+        rateLimiter.updateFromHeaders(headers("0", "0"));
+
+        long start = System.nanoTime();
+        this.acquireAndWait(rateLimiter, Priority.STANDARD).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        // The counter resets in 0 seconds, the limiter waits one more second to be safe
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(900));
+    }
+
+    @Test
+    void headersWithoutTheRequestsAvailableAreIgnored() throws Exception {
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(1, LONG_PERIOD_MILLIS);
+        rateLimiter.updateFromHeaders(headers(null, "0"));
+        rateLimiter.updateFromHeaders(headers("not a number", "0"));
+        rateLimiter.updateFromHeaders(null);
+
+        this.acquireAndWait(rateLimiter, Priority.STANDARD).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void onRateLimitedDrainsTheBucketUntilTheApiCounterResets() throws Exception {
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(5, LONG_PERIOD_MILLIS);
+        rateLimiter.onRateLimited(headers(null, "0"));
+
+        long start = System.nanoTime();
+        CompletableFuture<Void> acquired = this.acquireAndWait(rateLimiter, Priority.LIVE);
+        assertThat(acquired).isNotDone();
+
+        acquired.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(900));
+    }
+
+    @Test
+    void onRateLimitedWithoutHeadersWaitsAFullRefillPeriod() throws Exception {
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(5, LONG_PERIOD_MILLIS);
+        rateLimiter.onRateLimited(null);
+
+        CompletableFuture<Void> acquired = this.acquireAndWait(rateLimiter, Priority.LIVE);
+
+        assertThat(acquired).isNotDone();
+    }
+
+    /**
+     * Acquires a token in a new thread, and returns once the thread has either acquired it or started waiting.
+     *
+     * @return A future completed once the token is acquired, or failed if the thread is interrupted.
+     */
+    private CompletableFuture<Void> acquireAndWait(UpstreamRateLimiter rateLimiter, Priority priority)
+            throws InterruptedException {
+        CompletableFuture<Void> acquired = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                rateLimiter.acquire(priority);
+                served.add(priority);
+                acquired.complete(null);
+            } catch (InterruptedException exception) {
+                acquired.completeExceptionally(exception);
+            }
+        });
+        threads.add(thread);
+        thread.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (!acquired.isDone() && thread.getState() != Thread.State.WAITING
+                && thread.getState() != Thread.State.TIMED_WAITING) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+        return acquired;
+    }
+
+    private static HttpHeaders headers(String requestsAvailable, String secondsToReset) {
+        HttpHeaders headers = new HttpHeaders();
+        if (requestsAvailable != null)
+            headers.set("X-Requests-Available-Minute", requestsAvailable);
+        if (secondsToReset != null)
+            headers.set("X-RequestCounter-Reset", secondsToReset);
+        return headers;
+    }
+}